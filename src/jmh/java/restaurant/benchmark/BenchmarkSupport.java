@@ -0,0 +1,39 @@
+package restaurant.benchmark;
+
+import java.util.List;
+import java.util.function.Function;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Shared setup of the benchmarks: no console output and no cooking time, so
+ * only the overhead of the restaurant code itself is measured.
+ */
+final class BenchmarkSupport {
+
+	/** Preparation clock that takes no time: every order is estimated at 0 ms */
+	static final Function<Order, Long> ZERO_TIME = o -> 0L;
+
+	/** Discards all log lines */
+	static final LogSink SILENT = (time, table, msg) -> {
+	};
+
+	private BenchmarkSupport() {
+	}
+
+	static void silenceLogging() {
+		Toolkit.setLogSink(SILENT);
+	}
+
+	/** @return an order with a fixed mix of dishes from the demo menu */
+	static Order order(int table, int numberOfDishes) {
+		List<Dish> menu = Restaurant.MENU.getAllDishes();
+		List<Dish> dishes = menu.subList(0, Math.min(numberOfDishes, menu.size()));
+		return Order.create(new Customer("Bench-" + table, table), dishes);
+	}
+}
@@ -0,0 +1,72 @@
+package restaurant.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.payment.model.CashPayment;
+import restaurant.payment.model.CashRegister;
+
+/**
+ * Settling a prepared order with cash. Every invocation pays a new order, as an
+ * order is only charged once; {@link #payAgain()} measures a duplicate payment,
+ * which returns the remembered result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CashRegisterBenchmark {
+
+	private CashRegister cashRegister;
+	private Order order;
+	private CashPayment payment;
+	private Order paidOrder;
+	private CashPayment paidPayment;
+
+	@Setup(Level.Iteration)
+	public void openRegister() {
+		BenchmarkSupport.silenceLogging();
+		// A new register per iteration keeps its idempotency cache from growing
+		cashRegister = new CashRegister();
+		paidOrder = prepared(2);
+		paidPayment = new CashPayment(paidOrder.getTotal());
+		cashRegister.pay(paidOrder, paidPayment);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareOrder() {
+		order = prepared(1);
+		payment = new CashPayment(order.getTotal());
+	}
+
+	private static Order prepared(int table) {
+		Order order = BenchmarkSupport.order(table, 3);
+		order.setStatus(OrderStatus.PREPARED);
+		return order;
+	}
+
+	@Benchmark
+	public boolean pay() {
+		return cashRegister.pay(order, payment);
+	}
+
+	@Benchmark
+	public boolean payAgain() {
+		return cashRegister.pay(paidOrder, paidPayment);
+	}
+}
@@ -0,0 +1,59 @@
+package restaurant.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import restaurant.auth.security.jwt.JwtUtils;
+
+/**
+ * Validation of a signed JWT as done by the auth filter on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+	/** Any 256-bit Base64 key; the real one comes from app.auth.security.jwtSecret */
+	private static final String SECRET = "ZmFrZS1iZW5jaG1hcmstc2VjcmV0LWZvci1obWFjLXNoYTI1Ni1zaWduaW5n";
+
+	private final JwtUtils jwtUtils = new JwtUtils();
+	private String token;
+
+	@Setup
+	public void createToken() throws ReflectiveOperationException {
+		// Normally injected by Spring via @Value
+		set("jwtSecret", SECRET);
+		set("jwtExpirationMs", 86_400_000);
+		token = jwtUtils.generateTokenFromUsername("bench");
+	}
+
+	@Benchmark
+	public boolean validateJwtToken() {
+		return jwtUtils.validateJwtToken(token);
+	}
+
+	@Benchmark
+	public String getUserNameFromJwtToken() {
+		return jwtUtils.getUserNameFromJwtToken(token);
+	}
+
+	private void set(String name, Object value) throws ReflectiveOperationException {
+		Field field = JwtUtils.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(jwtUtils, value);
+	}
+}
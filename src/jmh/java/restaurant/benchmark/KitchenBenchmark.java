@@ -0,0 +1,70 @@
+package restaurant.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.kitchen.model.KitchenScheduler;
+import restaurant.core.kitchen.model.QueueScheduler;
+import restaurant.core.kitchen.model.VirtualThreadScheduler;
+import restaurant.core.kitchen.model.WorkStealingScheduler;
+import restaurant.core.order.model.Order;
+
+/**
+ * Round trip of an order through the kitchen with zero cooking time: accept,
+ * hand-off to a chef, completion of the future.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KitchenBenchmark {
+
+	@Param({ "queue", "work-stealing", "virtual-threads" })
+	public String scheduler;
+
+	@Param({ "1", "4" })
+	public int dishes;
+
+	private Kitchen kitchen;
+
+	@Setup(Level.Trial)
+	public void openKitchen() {
+		BenchmarkSupport.silenceLogging();
+		kitchen = new Kitchen(createScheduler());
+	}
+
+	@TearDown(Level.Trial)
+	public void closeKitchen() {
+		kitchen.close();
+	}
+
+	@Benchmark
+	public Order acceptOrderUntilPrepared() {
+		return kitchen.acceptOrder(BenchmarkSupport.order(1, dishes)).join();
+	}
+
+	private KitchenScheduler createScheduler() {
+		return switch (scheduler) {
+		case "queue" -> new QueueScheduler(4, BenchmarkSupport.ZERO_TIME);
+		case "work-stealing" -> new WorkStealingScheduler(4, BenchmarkSupport.ZERO_TIME);
+		case "virtual-threads" -> new VirtualThreadScheduler(4, BenchmarkSupport.ZERO_TIME);
+		default -> throw new IllegalArgumentException("Unknown scheduler: " + scheduler);
+		};
+	}
+}
@@ -0,0 +1,44 @@
+package restaurant.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.Menu;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Grouping and partitioning of the demo menu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuBenchmark {
+
+	private final Menu menu = Restaurant.MENU;
+
+	@Benchmark
+	public Map<Category, List<Dish>> byCategory() {
+		return menu.byCategory();
+	}
+
+	@Benchmark
+	public Map<Boolean, List<Dish>> byPrice() {
+		return menu.byPrice(5.0);
+	}
+}
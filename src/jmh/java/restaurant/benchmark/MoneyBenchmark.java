@@ -0,0 +1,102 @@
+package restaurant.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import restaurant.core.model.Dish;
+import restaurant.core.model.Money;
+import restaurant.core.order.model.Order;
+
+/**
+ * Order totals as they were computed before {@link Money}, a double stream
+ * over the dish prices on every call, against the cached total in cents, for
+ * one order and for the revenue of a day. The double prices are taken from the
+ * dishes once in the setup, so the baseline does not pay for the conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+	private static final int ORDERS_PER_DAY = 1000;
+
+	@Param({ "1", "4", "8" })
+	public int dishes;
+
+	private Order order;
+	private List<Order> day;
+	private double[] orderPrices;
+	private double[][] dayPrices;
+
+	@Setup
+	public void createOrders() {
+		BenchmarkSupport.silenceLogging();
+		order = BenchmarkSupport.order(1, dishes);
+		orderPrices = doublePrices(order);
+		day = new ArrayList<>(ORDERS_PER_DAY);
+		dayPrices = new double[ORDERS_PER_DAY][];
+		for (int i = 0; i < ORDERS_PER_DAY; i++) {
+			Order o = BenchmarkSupport.order(i % 20 + 1, dishes);
+			day.add(o);
+			dayPrices[i] = doublePrices(o);
+		}
+	}
+
+	private static double[] doublePrices(Order order) {
+		return order.getDishes().stream().mapToDouble(d -> d.price().toDouble()).toArray();
+	}
+
+	@Benchmark
+	public double orderTotalDoubleStream() {
+		return Arrays.stream(orderPrices).sum();
+	}
+
+	@Benchmark
+	public Money orderTotalCached() {
+		return order.getTotal();
+	}
+
+	@Benchmark
+	public long orderTotalCentsLoop() {
+		long cents = 0;
+		for (Dish dish : order.getDishes()) {
+			cents += dish.price().minorUnits();
+		}
+		return cents;
+	}
+
+	@Benchmark
+	public double revenueDoubleStream() {
+		double revenue = 0;
+		for (double[] prices : dayPrices) {
+			revenue += Arrays.stream(prices).sum();
+		}
+		return revenue;
+	}
+
+	@Benchmark
+	public Money revenueCents() {
+		long cents = 0;
+		for (Order o : day) {
+			cents += o.getTotal().minorUnits();
+		}
+		return Money.ofCents(cents);
+	}
+}
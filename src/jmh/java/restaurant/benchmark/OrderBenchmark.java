@@ -0,0 +1,50 @@
+package restaurant.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import restaurant.core.order.model.Order;
+
+/**
+ * Price calculation and text rendering of a single order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+	@Param({ "1", "4", "8" })
+	public int dishes;
+
+	private Order order;
+
+	@Setup
+	public void createOrder() {
+		BenchmarkSupport.silenceLogging();
+		order = BenchmarkSupport.order(1, dishes);
+	}
+
+	@Benchmark
+	public double getTotalPrice() {
+		return order.getTotalPrice();
+	}
+
+	@Benchmark
+	public String orderToString() {
+		return order.toString();
+	}
+}
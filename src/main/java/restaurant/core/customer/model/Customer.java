@@ -5,6 +5,7 @@ import java.util.concurrent.CompletableFuture;
 import restaurant.core.order.model.Order;
 import restaurant.core.waiter.model.Waiter;
 import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.PaymentResult;
 import restaurant.payment.model.Payment;
 
 /**
@@ -33,11 +34,12 @@ public class Customer {
 	 * 
 	 * @param waiter The waiter handling the order
 	 * @param order  The order placed by the customer
-	 * @return CompletableFuture representing the asynchronous order processing
+	 * @return CompletableFuture representing the asynchronous order processing;
+	 *         failed if the kitchen did not accept the order
 	 */
 	public CompletableFuture<Order> placeOrder(Waiter waiter, Order order) {
 		this.order = order;
-		return waiter.takeOrder(this, order);
+		return waiter.takeOrder(this, order).toFuture();
 	}
 
 	/**
@@ -46,14 +48,15 @@ public class Customer {
 	 * 
 	 * @param waiter  The waiter handling the payment
 	 * @param payment The payment method (e.g., cash, card)
+	 * @return completes with the result once the payment is answered
 	 */
-	public void pay(Waiter waiter, Payment payment) {
+	public CompletableFuture<PaymentResult> pay(Waiter waiter, Payment payment) {
 		if (order == null) {
 			Toolkit.logTime.accept(name + " has not ordered anything and cannot pay.");
-			return;
+			return CompletableFuture.completedFuture(new PaymentResult.Declined("Nothing ordered"));
 		}
 		Toolkit.logTime.accept(name + " wants to pay.");
-		waiter.processPayment(this, order, payment);
+		return waiter.processPayment(this, order, payment);
 	}
 
 	/** @return The table number assigned to the customer */
@@ -79,7 +82,7 @@ public class Customer {
 	@Override
 	public String toString() {
 		return String.format("Customer [Name: %s | Table %d | Order: %s]", name, tableNumber,
-				order != null ? String.format("Amount: %.2f € | Status: %s", order.getTotalPrice(),
+				order != null ? String.format("Amount: %s | Status: %s", order.getTotal(),
 						order.getStatus().toString().toLowerCase()) : "no order");
 	}
 }
@@ -0,0 +1,44 @@
+package restaurant.core.kitchen.model;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import restaurant.core.order.model.Order;
+
+/**
+ * Outcome of handing an order to the kitchen. Only an accepted order is
+ * prepared; the other outcomes tell the waiter why not.
+ */
+public sealed interface Admission {
+
+	/** The kitchen took the order; the future completes once it is prepared. */
+	record Accepted(CompletableFuture<Order> future) implements Admission {
+	}
+
+	/** The kitchen is full and does not take the order. */
+	record Rejected(String reason) implements Admission {
+	}
+
+	/** The kitchen is full; the order may be offered again after the given time. */
+	record Deferred(Duration retryAfter) implements Admission {
+	}
+
+	/** @return true if the kitchen took the order */
+	default boolean isAccepted() {
+		return this instanceof Accepted;
+	}
+
+	/**
+	 * @return the preparation future of an accepted order, or a failed future for
+	 *         any other outcome
+	 */
+	default CompletableFuture<Order> toFuture() {
+		return switch (this) {
+		case Accepted a -> a.future();
+		case Rejected r -> CompletableFuture.failedFuture(new RejectedExecutionException(r.reason()));
+		case Deferred d -> CompletableFuture
+				.failedFuture(new RejectedExecutionException("Kitchen busy, retry after " + d.retryAfter().toMillis() + " ms"));
+		};
+	}
+}
@@ -0,0 +1,15 @@
+package restaurant.core.kitchen.model;
+
+/**
+ * What the kitchen intake does with a new order when it is full.
+ */
+public enum AdmissionPolicy {
+	/** Wait until an order in the kitchen is finished */
+	BLOCK,
+	/** Turn the order away immediately */
+	REJECT,
+	/** Drop the least important waiting order if the new one is more important */
+	SHED_LOWEST_PRIORITY,
+	/** Ask the waiter to come back after a while */
+	DEFER
+}
@@ -0,0 +1,288 @@
+package restaurant.core.kitchen.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Scheduler that cooks identical dishes of different orders together. Every
+ * order is split into dishes; a dish waits at most {@code window} for equal
+ * dishes of other tables, and a batch goes to the chefs as soon as it is full.
+ * A batch takes as long as one dish, after which every order in it gets its
+ * dish.
+ */
+public class BatchingScheduler implements KitchenScheduler {
+	private final ExecutorService chefPool;
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+	private final Map<Dish, Batch> openBatches = new HashMap<>();
+	private final Duration window;
+	private final int maxBatchSize;
+	private final Function<Order, Long> estimatedDuration;
+	private final SimulationClock clock;
+	/** Submits hold the read lock, so close() cannot slip in between their check and their batch. */
+	private final ReadWriteLock closeGuard = new ReentrantReadWriteLock();
+	private volatile boolean running = true;
+
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder batchedDishes = new LongAdder();
+	private final LongAdder lingerNanos = new LongAdder();
+
+	/**
+	 * Create a batching scheduler with the default preparation estimate.
+	 *
+	 * @param numberOfChefs how many chefs to run in parallel
+	 * @param window        how long a dish may wait for equal dishes
+	 * @param maxBatchSize  how many equal dishes are cooked together at most
+	 */
+	public BatchingScheduler(int numberOfChefs, Duration window, int maxBatchSize) {
+		this(numberOfChefs, window, maxBatchSize, Toolkit.estimatedDuration);
+	}
+
+	/**
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param window            how long a dish may wait for equal dishes
+	 * @param maxBatchSize      how many equal dishes are cooked together at most
+	 * @param estimatedDuration estimates the preparation time of a whole order
+	 */
+	public BatchingScheduler(int numberOfChefs, Duration window, int maxBatchSize,
+			Function<Order, Long> estimatedDuration) {
+		this(numberOfChefs, window, maxBatchSize, estimatedDuration, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * Create a batching scheduler whose chefs cook on the given clock, e.g. in
+	 * virtual time. The batching window stays in real time.
+	 *
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param window            how long a dish may wait for equal dishes
+	 * @param maxBatchSize      how many equal dishes are cooked together at most
+	 * @param estimatedDuration estimates the preparation time of a whole order
+	 * @param clock             the clock the cooking time passes on
+	 */
+	public BatchingScheduler(int numberOfChefs, Duration window, int maxBatchSize,
+			Function<Order, Long> estimatedDuration, SimulationClock clock) {
+		if (numberOfChefs <= 0) {
+			throw new IllegalArgumentException("Number of chefs must be greater than 0.");
+		}
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be greater than 0.");
+		}
+		this.chefPool = Executors.newFixedThreadPool(numberOfChefs);
+		this.window = window;
+		this.maxBatchSize = maxBatchSize;
+		this.estimatedDuration = estimatedDuration;
+		this.clock = clock;
+	}
+
+	@Override
+	public void submit(Order order) {
+		closeGuard.readLock().lock();
+		try {
+			if (!running) {
+				throw new IllegalStateException("Kitchen is closed.");
+			}
+			split(order);
+		} finally {
+			closeGuard.readLock().unlock();
+		}
+	}
+
+	private void split(Order order) {
+		List<Dish> dishes = order.getDishes();
+		long orderDuration = estimatedDuration.apply(order);
+		Toolkit.logger.accept(order, "Start processing (estimated: " + orderDuration + " ms)");
+
+		OrderTicket ticket = new OrderTicket(order);
+		if (dishes.isEmpty()) {
+			ticket.complete();
+			return;
+		}
+		long durationPerDish = orderDuration / dishes.size();
+		for (Dish dish : dishes) {
+			add(new DishTask(ticket, dish, Station.of(dish.category()), durationPerDish));
+		}
+	}
+
+	/**
+	 * Put a dish into the open batch for equal dishes, opening one if needed.
+	 */
+	private void add(DishTask task) {
+		Batch full = null;
+		synchronized (openBatches) {
+			Batch batch = openBatches.get(task.dish());
+			if (batch == null) {
+				batch = new Batch(task.dish(), clock);
+				openBatches.put(task.dish(), batch);
+				Batch opened = batch;
+				try {
+					timer.schedule(() -> flush(opened), window.toNanos(), TimeUnit.NANOSECONDS);
+				} catch (RejectedExecutionException e) {
+					// No window can close it any more; it goes out with this dish
+					openBatches.remove(task.dish());
+					full = batch;
+				}
+			}
+			batch.tasks.add(task);
+			if (full == null && batch.tasks.size() >= maxBatchSize) {
+				openBatches.remove(task.dish());
+				full = batch;
+			}
+		}
+		if (full != null) {
+			dispatch(full);
+		}
+	}
+
+	/**
+	 * Send a batch to the chefs when its window ends, unless it was already sent
+	 * because it was full.
+	 */
+	private void flush(Batch batch) {
+		boolean due;
+		synchronized (openBatches) {
+			due = openBatches.remove(batch.dish, batch);
+		}
+		if (due) {
+			dispatch(batch);
+		}
+	}
+
+	private void dispatch(Batch batch) {
+		batches.increment();
+		batchedDishes.add(batch.tasks.size());
+		lingerNanos.add(System.nanoTime() - batch.openedAt);
+		try {
+			chefPool.execute(batch);
+		} catch (RejectedExecutionException e) {
+			batch.fail(new IllegalStateException("Kitchen closed before the batch was cooked."));
+		}
+	}
+
+	/**
+	 * Send the batches that are still waiting to the chefs and give them a
+	 * second to cook what they have. Batches the chefs cannot finish by then
+	 * fail their orders.
+	 */
+	@Override
+	public void close() {
+		closeGuard.writeLock().lock();
+		try {
+			running = false;
+		} finally {
+			closeGuard.writeLock().unlock();
+		}
+		List<Batch> remaining;
+		synchronized (openBatches) {
+			remaining = new ArrayList<>(openBatches.values());
+			openBatches.clear();
+		}
+		remaining.forEach(this::dispatch);
+		timer.shutdownNow();
+
+		try {
+			// A window may have been closing just now; it only dispatches, so it ends quickly
+			timer.awaitTermination(1, TimeUnit.SECONDS);
+			chefPool.shutdown();
+			if (!chefPool.awaitTermination(1, TimeUnit.SECONDS)) {
+				failUncooked();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failUncooked();
+		}
+	}
+
+	/**
+	 * Stop the chefs; a batch being cooked fails when its chef is interrupted,
+	 * the batches nobody started fail here.
+	 */
+	private void failUncooked() {
+		IllegalStateException closed = new IllegalStateException("Kitchen closed before the batch was cooked.");
+		for (Runnable waiting : chefPool.shutdownNow()) {
+			((Batch) waiting).fail(closed);
+		}
+	}
+
+	@Override
+	public boolean isClosed() {
+		return chefPool.isTerminated() && timer.isTerminated();
+	}
+
+	/** @return number of batches sent to the chefs so far */
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/** @return average number of dishes per batch, or 0 if there was none */
+	public double getAverageBatchSize() {
+		long count = batches.sum();
+		return count == 0 ? 0 : (double) batchedDishes.sum() / count;
+	}
+
+	/**
+	 * @return average time in ms a batch stayed open before it went to the chefs,
+	 *         or 0 if there was none
+	 */
+	public double getAverageLingerMillis() {
+		long count = batches.sum();
+		return count == 0 ? 0 : lingerNanos.sum() / 1e6 / count;
+	}
+
+	/**
+	 * Equal dishes of several orders that are cooked in one go.
+	 */
+	private static final class Batch implements Runnable {
+		private final Dish dish;
+		private final SimulationClock clock;
+		private final List<DishTask> tasks = new ArrayList<>();
+		private final long openedAt = System.nanoTime();
+
+		Batch(Dish dish, SimulationClock clock) {
+			this.dish = dish;
+			this.clock = clock;
+		}
+
+		/** Cook all dishes at once and hand one to every order that still wants it. */
+		@Override
+		public void run() {
+			List<DishTask> wanted = tasks.stream().filter(t -> t.ticket().start()).toList();
+			if (wanted.isEmpty()) {
+				return;
+			}
+			long duration = wanted.stream().mapToLong(DishTask::durationMs).max().orElse(0);
+			try {
+				clock.sleep(duration);
+			} catch (InterruptedException e) {
+				wanted.forEach(t -> t.ticket().fail(e));
+				Thread.currentThread().interrupt();
+				return;
+			}
+			for (DishTask task : wanted) {
+				Toolkit.logger.accept(task.ticket().order(),
+						"Dish prepared in a batch of " + wanted.size() + ": " + dish);
+				task.ticket().dishDone();
+			}
+		}
+
+		/** Fail every order in the batch; orders already done are not affected. */
+		void fail(Throwable cause) {
+			tasks.forEach(t -> t.ticket().fail(cause));
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package restaurant.core.kitchen.model;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import restaurant.core.model.Preparation;
 import restaurant.core.order.model.Order;
 import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.clock.SimulationClock;
 import restaurant.infrastructure.util.Toolkit;
 
 /**
@@ -12,9 +15,53 @@ import restaurant.infrastructure.util.Toolkit;
  */
 public class Chef implements Runnable {
 	private final BlockingQueue<Order> queue;
+	private final Function<Order, Long> estimator;
+	private final Executor dishExecutor;
+	private final int maxFanOut;
+	private final SimulationClock clock;
 
 	public Chef(BlockingQueue<Order> queue) {
+		this(queue, Toolkit.estimatedDuration);
+	}
+
+	/**
+	 * @param queue     the queue to take orders from
+	 * @param estimator estimates the preparation time of an order
+	 */
+	public Chef(BlockingQueue<Order> queue, Function<Order, Long> estimator) {
+		this(queue, estimator, null, 1);
+	}
+
+	/**
+	 * Create a chef that prepares the dishes of an order in parallel.
+	 * 
+	 * @param queue        the queue to take orders from
+	 * @param estimator    estimates the preparation time of an order
+	 * @param dishExecutor executor running the dish subtasks, or null to cook
+	 *                     sequentially
+	 * @param maxFanOut    how many dishes of one order may be cooked at once
+	 */
+	public Chef(BlockingQueue<Order> queue, Function<Order, Long> estimator, Executor dishExecutor, int maxFanOut) {
+		this(queue, estimator, dishExecutor, maxFanOut, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * Create a chef whose cooking time passes on the given clock.
+	 * 
+	 * @param queue        the queue to take orders from
+	 * @param estimator    estimates the preparation time of an order
+	 * @param dishExecutor executor running the dish subtasks, or null to cook
+	 *                     sequentially
+	 * @param maxFanOut    how many dishes of one order may be cooked at once
+	 * @param clock        the clock the cooking time passes on
+	 */
+	public Chef(BlockingQueue<Order> queue, Function<Order, Long> estimator, Executor dishExecutor, int maxFanOut,
+			SimulationClock clock) {
 		this.queue = queue;
+		this.estimator = estimator;
+		this.dishExecutor = dishExecutor;
+		this.maxFanOut = maxFanOut;
+		this.clock = clock;
 	}
 
 	@Override
@@ -26,18 +73,25 @@ public class Chef implements Runnable {
 					Toolkit.logTime.accept("Chef ends his shift.");
 					break;
 				}
+				if (order.getFuture().isDone() || !order.startPreparation()) {
+					// Withdrawn while waiting, e.g. shed by the kitchen intake
+					Toolkit.logger.accept(order, "Skipped: order was withdrawn.");
+					continue;
+				}
 
-				long estimatedDuration = Toolkit.estimatedDuration.apply(order);
+				long estimatedDuration = estimator.apply(order);
 				Toolkit.logger.accept(order, "Start processing (estimated: " + estimatedDuration + " ms)");
 
-				Preparation task = new Preparation(order, estimatedDuration);
+				// The estimate covers the whole order, preparation works per dish
+				long durationPerDish = order.getDishes().isEmpty() ? 0 : estimatedDuration / order.getDishes().size();
+				Preparation task = new Preparation(order, durationPerDish, dishExecutor, maxFanOut, clock);
 
-				long start = System.currentTimeMillis();
+				long start = clock.millis();
 				try {
 					task.call();
-					long end = System.currentTimeMillis();
+					long end = clock.millis();
 					long actualDuration = end - start;
-					order.setStatus(OrderStatus.PREPARED);
+					order.compareAndSetStatus(OrderStatus.IN_PREPARATION, OrderStatus.PREPARED);
 					Toolkit.logger.accept(order, "Order completed in " + actualDuration + " ms");
 
 					// Complete the future successfully
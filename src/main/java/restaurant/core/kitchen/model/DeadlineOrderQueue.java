@@ -0,0 +1,67 @@
+package restaurant.core.kitchen.model;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Function;
+
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Order queue for a {@link QueueScheduler} that hands out the most urgent order
+ * first instead of the oldest one.
+ * <ul>
+ * <li>An order with a promised-by time is ranked by the latest time it can be
+ * started and still be ready in time (earliest deadline first).</li>
+ * <li>Any other order gets a virtual deadline of its creation time plus
+ * {@code agingFactor} times its estimated duration (shortest job first). The
+ * creation time ages the order: once it has waited that long, no newer order
+ * overtakes it, so long orders cannot starve.</li>
+ * </ul>
+ * Ties are served in creation order; poison pills come last.
+ * <p>
+ * Creation and promise times must come from the clock the day runs on, as the
+ * restaurants stamp their orders; otherwise aging is measured in real time
+ * while the orders wait in scaled or virtual time.
+ */
+public class DeadlineOrderQueue extends PriorityBlockingQueue<Order> {
+	private static final long serialVersionUID = 1L;
+
+	/** Default aging: an order waits at most about twice its own duration. */
+	public static final double DEFAULT_AGING_FACTOR = 2.0;
+
+	/**
+	 * Create a deadline queue with the default estimate and aging factor.
+	 */
+	public DeadlineOrderQueue() {
+		this(Toolkit.estimatedDuration, DEFAULT_AGING_FACTOR);
+	}
+
+	/**
+	 * @param estimatedDuration estimates the preparation time of an order
+	 * @param agingFactor       how many times its own duration an order without
+	 *                          a promise may be overtaken by shorter ones
+	 */
+	public DeadlineOrderQueue(Function<Order, Long> estimatedDuration, double agingFactor) {
+		super(11, urgency(estimatedDuration, agingFactor));
+	}
+
+	/**
+	 * The ranking only uses values fixed before the order is queued, so it does
+	 * not change while the order waits.
+	 */
+	private static Comparator<Order> urgency(Function<Order, Long> estimatedDuration, double agingFactor) {
+		if (agingFactor < 0) {
+			throw new IllegalArgumentException("Aging factor must not be negative.");
+		}
+		Comparator<Order> byDeadline = Comparator.comparingLong(o -> {
+			if (!Toolkit.isValidOrder.test(o)) {
+				return Long.MAX_VALUE;
+			}
+			long estimate = estimatedDuration.apply(o);
+			return o.getPromisedBy() > 0 ? o.getPromisedBy() - estimate
+					: o.getCreatedAt() + (long) (agingFactor * estimate);
+		});
+		return byDeadline.thenComparingLong(Order::getId);
+	}
+}
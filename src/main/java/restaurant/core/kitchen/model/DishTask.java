@@ -0,0 +1,31 @@
+package restaurant.core.kitchen.model;
+
+import restaurant.core.model.Dish;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * A single dish of an order, routed to the station of its category.
+ */
+record DishTask(OrderTicket ticket, Dish dish, Station station, long durationMs) {
+
+	/**
+	 * Prepare the dish and report it to the order ticket. Dishes of a withdrawn
+	 * order are not cooked.
+	 *
+	 * @param clock the clock the cooking time passes on
+	 */
+	void prepare(SimulationClock clock) {
+		if (!ticket.start()) {
+			return;
+		}
+		try {
+			clock.sleep(durationMs);
+			Toolkit.logger.accept(ticket.order(), "Dish prepared at " + station + ": " + dish);
+			ticket.dishDone();
+		} catch (InterruptedException e) {
+			ticket.fail(e);
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package restaurant.core.kitchen.model;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Function;
+
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.clock.EventClock;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Scheduler for event simulations: the chefs are counters instead of threads.
+ * An order that finds a free chef schedules its completion on the
+ * {@link EventClock} after its estimated duration; otherwise it waits in FIFO
+ * order. Must only be used from the thread running the clock.
+ */
+public class EventScheduler implements KitchenScheduler {
+	private final EventClock clock;
+	private final Function<Order, Long> estimatedDuration;
+	private final Queue<Order> waiting = new ArrayDeque<>();
+	private final int numberOfChefs;
+	private int freeChefs;
+	private boolean running = true;
+
+	/**
+	 * Create an event scheduler with the default preparation estimate.
+	 *
+	 * @param numberOfChefs how many orders are prepared at the same time
+	 * @param clock         the clock the cooking is scheduled on
+	 */
+	public EventScheduler(int numberOfChefs, EventClock clock) {
+		this(numberOfChefs, clock, Toolkit.estimatedDuration);
+	}
+
+	/**
+	 * @param numberOfChefs     how many orders are prepared at the same time
+	 * @param clock             the clock the cooking is scheduled on
+	 * @param estimatedDuration estimates the preparation time of an order
+	 */
+	public EventScheduler(int numberOfChefs, EventClock clock, Function<Order, Long> estimatedDuration) {
+		if (numberOfChefs <= 0) {
+			throw new IllegalArgumentException("Number of chefs must be greater than 0.");
+		}
+		this.numberOfChefs = numberOfChefs;
+		this.freeChefs = numberOfChefs;
+		this.clock = clock;
+		this.estimatedDuration = estimatedDuration;
+	}
+
+	@Override
+	public void submit(Order order) {
+		if (!running) {
+			throw new IllegalStateException("Kitchen is closed.");
+		}
+		if (freeChefs > 0) {
+			start(order);
+		} else {
+			waiting.add(order);
+		}
+	}
+
+	private void start(Order order) {
+		if (order.getFuture().isDone() || !order.startPreparation()) {
+			Toolkit.logger.accept(order, "Skipped: order was withdrawn.");
+			return;
+		}
+		freeChefs--;
+		long duration = estimatedDuration.apply(order);
+		Toolkit.logger.accept(order, "Start processing (estimated: " + duration + " ms)");
+		long start = clock.millis();
+		clock.schedule(duration, () -> finish(order, start));
+	}
+
+	/** Hand the order out and give the chef the next one that is still wanted. */
+	private void finish(Order order, long start) {
+		if (!order.getFuture().isDone()) {
+			order.compareAndSetStatus(OrderStatus.IN_PREPARATION, OrderStatus.PREPARED);
+			Toolkit.logger.accept(order, "Order completed in " + (clock.millis() - start) + " ms");
+			order.getFuture().complete(order);
+		}
+		freeChefs++;
+		Order next;
+		while (freeChefs > 0 && (next = waiting.poll()) != null) {
+			start(next);
+		}
+	}
+
+	/**
+	 * Stop taking orders. Orders already submitted are still prepared as long as
+	 * the clock keeps running.
+	 */
+	@Override
+	public void close() {
+		running = false;
+	}
+
+	/** @return true once closed and every submitted order is done */
+	@Override
+	public boolean isClosed() {
+		return !running && waiting.isEmpty() && freeChefs == numberOfChefs;
+	}
+
+	/** @return number of orders waiting for a free chef */
+	public int getWaitingCount() {
+		return waiting.size();
+	}
+}
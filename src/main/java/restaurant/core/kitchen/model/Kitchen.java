@@ -1,94 +1,109 @@
 package restaurant.core.kitchen.model;
 
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 
 import restaurant.core.order.model.Order;
 import restaurant.core.order.model.OrderStatus;
 import restaurant.infrastructure.util.Toolkit;
 
 /**
- * Kitchen manages a pool of chefs and an order queue. Orders are taken from the
- * queue and processed asynchronously.
+ * Kitchen accepts orders and hands them to its chefs. How orders are
+ * distributed is decided by a pluggable {@link KitchenScheduler}; by default
+ * all chefs share one order queue. A {@link KitchenIntake} in front of the
+ * scheduler limits how many orders are in the kitchen at once.
  */
 public class Kitchen {
-	private final ExecutorService chefPool;
-	private final BlockingQueue<Order> orderQueue = new LinkedBlockingQueue<>();
-	private final int numberOfChefs;
+	private final KitchenScheduler scheduler;
+	private final KitchenIntake intake;
 
 	/**
-	 * Create a kitchen with a fixed number of chefs.
+	 * Create a kitchen with a fixed number of chefs sharing one order queue.
 	 * 
 	 * @param numberOfChefs how many chefs to run in parallel
 	 */
 	public Kitchen(int numberOfChefs) {
-		this.numberOfChefs = numberOfChefs;
-		this.chefPool = Executors.newFixedThreadPool(numberOfChefs);
+		this(new QueueScheduler(numberOfChefs));
+	}
 
-		// Start chefs
-		for (int i = 0; i < numberOfChefs; i++) {
-			chefPool.submit(new Chef(orderQueue));
-		}
+	/**
+	 * Create a kitchen that distributes orders with the given scheduler, e.g. a
+	 * {@link WorkStealingScheduler}.
+	 * 
+	 * @param scheduler the scheduler owning the chefs
+	 */
+	public Kitchen(KitchenScheduler scheduler) {
+		this(scheduler, KitchenIntake.unbounded());
+	}
+
+	/**
+	 * Create a kitchen with a bounded intake.
+	 * 
+	 * @param scheduler the scheduler owning the chefs
+	 * @param intake    decides which orders are let into the kitchen
+	 */
+	public Kitchen(KitchenScheduler scheduler, KitchenIntake intake) {
+		this.scheduler = scheduler;
+		this.intake = intake;
 	}
 
 	/**
-	 * Accept an order and put it into the queue. Returns a CompletableFuture
-	 * representing the asynchronous preparation.
+	 * Accept an order and hand it to the scheduler. Returns a CompletableFuture
+	 * representing the asynchronous preparation. An order the intake does not
+	 * let in gets a failed future; use {@link #admit(Order)} to see why.
 	 */
 	public CompletableFuture<Order> acceptOrder(Order order) {
+		return admit(order).toFuture();
+	}
+
+	/**
+	 * Offer an order to the kitchen. If the intake lets it in, it is handed to the
+	 * scheduler.
+	 * 
+	 * @param order the order to prepare
+	 * @return whether the order was accepted, rejected or deferred
+	 */
+	public Admission admit(Order order) {
+		if (order.getStatus() != OrderStatus.OPEN) {
+			return new Admission.Rejected("Order is already " + order.getStatus().toString().toLowerCase());
+		}
 		CompletableFuture<Order> future = new CompletableFuture<>();
 		order.setFuture(future);
 		try {
-			orderQueue.put(order);
-			order.setStatus(OrderStatus.IN_PREPARATION);
+			Admission admission = intake.enter(order);
+			if (!admission.isAccepted()) {
+				return admission;
+			}
+			// Stays open until a chef starts it, see Order#startPreparation()
+			scheduler.submit(order);
+			return admission;
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
+			intake.leave(order);
 			throw new RuntimeException("Could not accept order", e);
 		}
-		return future;
 	}
 
 	/**
-	 * Close the kitchen by sending poison pills and shutting down the thread pool.
+	 * Close the kitchen and stop all chefs.
 	 */
 	public void close() {
 		Toolkit.logTime.accept("Closing kitchen...");
-
-		sendPoisonPills();
-
-		chefPool.shutdown();
-		try {
-			if (!chefPool.awaitTermination(1, TimeUnit.SECONDS)) {
-				chefPool.shutdownNow();
-			}
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			chefPool.shutdownNow();
-		}
-
+		scheduler.close();
 		Toolkit.logTime.accept("Kitchen closed!");
 	}
 
-	/**
-	 * Send one poison pill for each chef to stop their infinite loop.
-	 */
-	private void sendPoisonPills() {
-		for (int i = 0; i < numberOfChefs; i++) {
-			try {
-				orderQueue.put(Order.poisonPill());
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				System.err.println("Error sending poison pill: " + e.getMessage());
-			}
-		}
+	/** @return the scheduler distributing the orders of this kitchen */
+	public KitchenScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/** @return the intake limiting the orders in this kitchen */
+	public KitchenIntake getIntake() {
+		return intake;
 	}
 
 	/** @return true if the kitchen is fully closed */
 	public boolean isClosed() {
-		return chefPool.isTerminated();
+		return scheduler.isClosed();
 	}
 }
@@ -0,0 +1,189 @@
+package restaurant.core.kitchen.model;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Bounded entrance of the kitchen. At most {@code capacity} orders are in the
+ * kitchen at once (accepted but not yet prepared); what happens to further
+ * orders is decided by the {@link AdmissionPolicy}. Counts every outcome so
+ * kitchens can be sized from data.
+ */
+public class KitchenIntake {
+
+	/** Default priority: short orders are more important than long ones. */
+	public static final Comparator<Order> SHORTEST_FIRST = Comparator.comparing(Toolkit.estimatedDuration).reversed();
+
+	private final int capacity;
+	private final AdmissionPolicy policy;
+	private final Duration retryAfter;
+	private final Comparator<Order> priority;
+	private final Semaphore slots;
+	private final Set<Order> pending = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder shed = new LongAdder();
+	private final LongAdder deferred = new LongAdder();
+
+	/**
+	 * @return an intake without limit, i.e. the kitchen takes every order
+	 */
+	public static KitchenIntake unbounded() {
+		return new KitchenIntake(Integer.MAX_VALUE, AdmissionPolicy.BLOCK);
+	}
+
+	/**
+	 * Create an intake that defers with a retry-after of one second and sheds
+	 * the longest orders first.
+	 *
+	 * @param capacity how many orders may be in the kitchen at once
+	 * @param policy   what to do with an order when the kitchen is full
+	 */
+	public KitchenIntake(int capacity, AdmissionPolicy policy) {
+		this(capacity, policy, Duration.ofSeconds(1), SHORTEST_FIRST);
+	}
+
+	/**
+	 * @param capacity   how many orders may be in the kitchen at once
+	 * @param policy     what to do with an order when the kitchen is full
+	 * @param retryAfter how long a deferred order should wait before it is
+	 *                   offered again
+	 * @param priority   orders comparing greater are more important
+	 */
+	public KitchenIntake(int capacity, AdmissionPolicy policy, Duration retryAfter, Comparator<Order> priority) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		}
+		this.capacity = capacity;
+		this.policy = policy;
+		this.retryAfter = retryAfter;
+		this.priority = priority;
+		this.slots = new Semaphore(capacity, true);
+	}
+
+	/**
+	 * Let an order into the kitchen if the policy allows it. The order's future
+	 * must already be set; its slot is freed when that future completes.
+	 *
+	 * @param order the new order
+	 * @return the outcome for the waiter
+	 * @throws InterruptedException if the caller is interrupted while blocking
+	 */
+	Admission enter(Order order) throws InterruptedException {
+		switch (policy) {
+		case BLOCK -> slots.acquire();
+		case REJECT -> {
+			if (!slots.tryAcquire()) {
+				rejected.increment();
+				return new Admission.Rejected("Kitchen is full (" + capacity + " orders).");
+			}
+		}
+		case DEFER -> {
+			if (!slots.tryAcquire()) {
+				deferred.increment();
+				return new Admission.Deferred(retryAfter);
+			}
+		}
+		case SHED_LOWEST_PRIORITY -> {
+			if (!slots.tryAcquire() && !shedFor(order)) {
+				rejected.increment();
+				return new Admission.Rejected("Kitchen is full and no waiting order is less important.");
+			}
+		}
+		}
+
+		if (!pending.add(order)) {
+			slots.release();
+			rejected.increment();
+			return new Admission.Rejected("Order is already in the kitchen.");
+		}
+		accepted.increment();
+		order.getFuture().whenComplete((o, e) -> leave(order));
+		return new Admission.Accepted(order.getFuture());
+	}
+
+	/**
+	 * Free the slot of an order, e.g. because it could not be handed to the
+	 * chefs. Does nothing if the slot was already freed or taken over.
+	 */
+	void leave(Order order) {
+		if (pending.remove(order)) {
+			slots.release();
+		}
+	}
+
+	/**
+	 * Drop the least important waiting order if it is less important than the
+	 * new one. Only orders no chef has started yet can be dropped; the victim
+	 * becomes {@link OrderStatus#CANCELLED} and its slot goes straight to the new
+	 * order.
+	 *
+	 * @return true if a slot was freed for the new order
+	 */
+	private boolean shedFor(Order order) {
+		while (true) {
+			Order victim = pending.stream().filter(o -> o.getStatus() == OrderStatus.OPEN).min(priority).orElse(null);
+			if (victim == null || priority.compare(victim, order) >= 0) {
+				return false;
+			}
+			// Races with the chef starting it, see Order#startPreparation()
+			if (!victim.compareAndSetStatus(OrderStatus.OPEN, OrderStatus.CANCELLED)) {
+				continue;
+			}
+			shed.increment();
+			Toolkit.logger.accept(victim, "Order shed for a more important order.");
+			// Whoever removes the victim owns its slot
+			boolean owned = pending.remove(victim);
+			victim.getFuture()
+					.completeExceptionally(new RejectedExecutionException("Order shed for a more important order."));
+			if (owned || slots.tryAcquire()) {
+				return true;
+			}
+		}
+	}
+
+	/** @return how many orders may be in the kitchen at once */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/** @return the policy applied when the kitchen is full */
+	public AdmissionPolicy getPolicy() {
+		return policy;
+	}
+
+	/** @return number of orders currently in the kitchen */
+	public int getQueueDepth() {
+		return pending.size();
+	}
+
+	/** @return number of orders let into the kitchen so far */
+	public long getAcceptedCount() {
+		return accepted.sum();
+	}
+
+	/** @return number of orders turned away so far */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/** @return number of waiting orders dropped for more important ones */
+	public long getShedCount() {
+		return shed.sum();
+	}
+
+	/** @return number of orders asked to come back later */
+	public long getDeferredCount() {
+		return deferred.sum();
+	}
+}
@@ -0,0 +1,28 @@
+package restaurant.core.kitchen.model;
+
+import restaurant.core.order.model.Order;
+
+/**
+ * Strategy that decides how accepted orders are distributed to the chefs of a
+ * {@link Kitchen}. Implementations own their worker threads and must complete
+ * the order's future once it is prepared.
+ */
+public interface KitchenScheduler {
+
+	/**
+	 * Hand an accepted order to the chefs. The order's future is already set.
+	 * 
+	 * @param order the order to prepare
+	 * @throws InterruptedException if the caller is interrupted while waiting for
+	 *                              capacity
+	 */
+	void submit(Order order) throws InterruptedException;
+
+	/**
+	 * Stop all chefs after the already submitted work has been handed out.
+	 */
+	void close();
+
+	/** @return true if all chef threads have terminated */
+	boolean isClosed();
+}
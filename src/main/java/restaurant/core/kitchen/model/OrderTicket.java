@@ -0,0 +1,66 @@
+package restaurant.core.kitchen.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Tracks the dishes of one order that are prepared independently of each other.
+ * The order's future completes when the last dish is done.
+ */
+final class OrderTicket {
+	private final Order order;
+	private final AtomicInteger remaining;
+	private final AtomicBoolean failed = new AtomicBoolean();
+	private final long start = System.currentTimeMillis();
+
+	OrderTicket(Order order) {
+		this.order = order;
+		this.remaining = new AtomicInteger(order.getDishes().size());
+	}
+
+	Order order() {
+		return order;
+	}
+
+	/** Mark one dish as prepared and complete the order if it was the last one. */
+	void dishDone() {
+		if (remaining.decrementAndGet() == 0) {
+			complete();
+		}
+	}
+
+	/**
+	 * Claim the order before cooking one of its dishes.
+	 * 
+	 * @return false if the order was withdrawn, so the dish is not cooked
+	 * @see Order#startPreparation()
+	 */
+	boolean start() {
+		return !failed.get() && !isWithdrawn() && order.startPreparation();
+	}
+
+	/** @return true if the order's future completed before all dishes were done */
+	boolean isWithdrawn() {
+		return order.getFuture().isDone();
+	}
+
+	/** Mark the order as prepared, e.g. directly for an order without dishes. */
+	void complete() {
+		if (start()) {
+			order.compareAndSetStatus(OrderStatus.IN_PREPARATION, OrderStatus.PREPARED);
+			Toolkit.logger.accept(order, "Order completed in " + (System.currentTimeMillis() - start) + " ms");
+			order.getFuture().complete(order);
+		}
+	}
+
+	/** Fail the whole order; later dishes of it are ignored. */
+	void fail(Throwable cause) {
+		if (failed.compareAndSet(false, true)) {
+			order.getFuture().completeExceptionally(cause);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package restaurant.core.kitchen.model;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Classic scheduler: all chefs take whole orders from one shared queue.
+ */
+public class QueueScheduler implements KitchenScheduler {
+	private final ExecutorService chefPool;
+	private final ExecutorService dishPool;
+	private final BlockingQueue<Order> orderQueue;
+	private final int numberOfChefs;
+
+	/**
+	 * Create a scheduler with a fixed number of chefs sharing one FIFO queue.
+	 * 
+	 * @param numberOfChefs how many chefs to run in parallel
+	 */
+	public QueueScheduler(int numberOfChefs) {
+		this(numberOfChefs, Toolkit.estimatedDuration);
+	}
+
+	/**
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param estimatedDuration estimates the preparation time of an order
+	 */
+	public QueueScheduler(int numberOfChefs, Function<Order, Long> estimatedDuration) {
+		this(numberOfChefs, estimatedDuration, new LinkedBlockingQueue<>());
+	}
+
+	/**
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param estimatedDuration estimates the preparation time of an order
+	 * @param orderQueue        the queue shared by all chefs
+	 */
+	public QueueScheduler(int numberOfChefs, Function<Order, Long> estimatedDuration, BlockingQueue<Order> orderQueue) {
+		this(numberOfChefs, estimatedDuration, orderQueue, 1);
+	}
+
+	/**
+	 * Create a scheduler whose chefs prepare the dishes of an order in parallel.
+	 * The dishes of all orders share one cook line with {@code numberOfChefs}
+	 * places; a single order never uses more than {@code maxFanOut} of them.
+	 * 
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param estimatedDuration estimates the preparation time of an order
+	 * @param orderQueue        the queue shared by all chefs
+	 * @param maxFanOut         dishes of one order prepared at once; 1 cooks
+	 *                          sequentially
+	 */
+	public QueueScheduler(int numberOfChefs, Function<Order, Long> estimatedDuration, BlockingQueue<Order> orderQueue,
+			int maxFanOut) {
+		this(numberOfChefs, estimatedDuration, orderQueue, maxFanOut, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * Create a scheduler whose chefs cook on the given clock, e.g. in virtual
+	 * time.
+	 * 
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param estimatedDuration estimates the preparation time of an order
+	 * @param orderQueue        the queue shared by all chefs
+	 * @param maxFanOut         dishes of one order prepared at once; 1 cooks
+	 *                          sequentially
+	 * @param clock             the clock the cooking time passes on
+	 */
+	public QueueScheduler(int numberOfChefs, Function<Order, Long> estimatedDuration, BlockingQueue<Order> orderQueue,
+			int maxFanOut, SimulationClock clock) {
+		this.numberOfChefs = numberOfChefs;
+		this.orderQueue = orderQueue;
+		this.chefPool = Executors.newFixedThreadPool(numberOfChefs);
+		this.dishPool = maxFanOut > 1 ? Executors.newFixedThreadPool(numberOfChefs) : null;
+
+		// Start chefs
+		for (int i = 0; i < numberOfChefs; i++) {
+			chefPool.submit(new Chef(orderQueue, estimatedDuration, dishPool, maxFanOut, clock));
+		}
+	}
+
+	@Override
+	public void submit(Order order) throws InterruptedException {
+		orderQueue.put(order);
+	}
+
+	/**
+	 * Send poison pills and shut down the thread pool.
+	 */
+	@Override
+	public void close() {
+		sendPoisonPills();
+
+		shutdown(chefPool);
+		if (dishPool != null) {
+			shutdown(dishPool);
+		}
+	}
+
+	private static void shutdown(ExecutorService pool) {
+		pool.shutdown();
+		try {
+			if (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+				pool.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Send one poison pill for each chef to stop their infinite loop.
+	 */
+	private void sendPoisonPills() {
+		for (int i = 0; i < numberOfChefs; i++) {
+			try {
+				orderQueue.put(Order.poisonPill());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				System.err.println("Error sending poison pill: " + e.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public boolean isClosed() {
+		return chefPool.isTerminated() && (dishPool == null || dishPool.isTerminated());
+	}
+}
@@ -0,0 +1,24 @@
+package restaurant.core.kitchen.model;
+
+import restaurant.core.model.Category;
+
+/**
+ * Work stations of the kitchen. Every dish is prepared at the station that
+ * matches its category.
+ */
+public enum Station {
+	GRILL, COLD, BAR, DESSERT;
+
+	/**
+	 * @param category the category of a dish
+	 * @return the station responsible for that category
+	 */
+	public static Station of(Category category) {
+		return switch (category) {
+		case MAIN_COURSE -> GRILL;
+		case STARTER -> COLD;
+		case DRINK -> BAR;
+		case DESSERT -> DESSERT;
+		};
+	}
+}
@@ -0,0 +1,139 @@
+package restaurant.core.kitchen.model;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Scheduler that gives every order its own virtual-thread chef. The dishes of
+ * an order are forked in a scope that the chef closes before it is done, so no
+ * dish outlives its order. Kitchen capacity is not the number of threads but a
+ * number of stove slots: a dish is only cooked while it holds one.
+ */
+public class VirtualThreadScheduler implements KitchenScheduler {
+	private final ExecutorService chefPool = Executors.newVirtualThreadPerTaskExecutor();
+	private final Semaphore stoveSlots;
+	private final Function<Order, Long> estimatedDuration;
+	private final SimulationClock clock;
+	private volatile boolean running = true;
+
+	/**
+	 * Create a scheduler with a fixed number of stove slots.
+	 *
+	 * @param numberOfStoveSlots how many dishes can be cooked at the same time
+	 */
+	public VirtualThreadScheduler(int numberOfStoveSlots) {
+		this(numberOfStoveSlots, Toolkit.estimatedDuration);
+	}
+
+	/**
+	 * @param numberOfStoveSlots how many dishes can be cooked at the same time
+	 * @param estimatedDuration  estimates the preparation time of a whole order
+	 */
+	public VirtualThreadScheduler(int numberOfStoveSlots, Function<Order, Long> estimatedDuration) {
+		this(numberOfStoveSlots, estimatedDuration, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * Create a scheduler whose chefs cook on the given clock, e.g. in virtual
+	 * time.
+	 *
+	 * @param numberOfStoveSlots how many dishes can be cooked at the same time
+	 * @param estimatedDuration  estimates the preparation time of a whole order
+	 * @param clock              the clock the cooking time passes on
+	 */
+	public VirtualThreadScheduler(int numberOfStoveSlots, Function<Order, Long> estimatedDuration,
+			SimulationClock clock) {
+		if (numberOfStoveSlots <= 0) {
+			throw new IllegalArgumentException("Number of stove slots must be greater than 0.");
+		}
+		// Fair, so dishes get a stove in the order they asked for one
+		this.stoveSlots = new Semaphore(numberOfStoveSlots, true);
+		this.estimatedDuration = estimatedDuration;
+		this.clock = clock;
+	}
+
+	@Override
+	public void submit(Order order) {
+		if (!running) {
+			throw new IllegalStateException("Kitchen is closed.");
+		}
+		chefPool.submit(() -> prepare(order));
+	}
+
+	/**
+	 * Runs on the chef's virtual thread: forks one subtask per dish and waits for
+	 * all of them before returning.
+	 */
+	private void prepare(Order order) {
+		List<Dish> dishes = order.getDishes();
+		long orderDuration = estimatedDuration.apply(order);
+		Toolkit.logger.accept(order, "Start processing (estimated: " + orderDuration + " ms)");
+
+		OrderTicket ticket = new OrderTicket(order);
+		if (dishes.isEmpty()) {
+			ticket.complete();
+			return;
+		}
+		long durationPerDish = orderDuration / dishes.size();
+		try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Dish dish : dishes) {
+				DishTask task = new DishTask(ticket, dish, Station.of(dish.category()), durationPerDish);
+				scope.submit(() -> cook(task));
+			}
+		} // close() joins all dishes of this order
+	}
+
+	/**
+	 * Cook one dish as soon as a stove slot is free.
+	 */
+	private void cook(DishTask task) {
+		try {
+			stoveSlots.acquire();
+		} catch (InterruptedException e) {
+			task.ticket().fail(e);
+			Thread.currentThread().interrupt();
+			return;
+		}
+		try {
+			task.prepare(clock);
+		} finally {
+			stoveSlots.release();
+		}
+	}
+
+	/**
+	 * Let the chefs finish the accepted orders, then stop them.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		chefPool.shutdown();
+		try {
+			if (!chefPool.awaitTermination(1, TimeUnit.SECONDS)) {
+				chefPool.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			chefPool.shutdownNow();
+		}
+	}
+
+	@Override
+	public boolean isClosed() {
+		return chefPool.isTerminated();
+	}
+
+	/** @return number of stove slots not in use right now */
+	public int availableStoveSlots() {
+		return stoveSlots.availablePermits();
+	}
+}
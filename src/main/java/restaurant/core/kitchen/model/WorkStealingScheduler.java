@@ -0,0 +1,250 @@
+package restaurant.core.kitchen.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Scheduler that splits every order into dish-level tasks and routes them to
+ * the chefs of the matching {@link Station}. Each chef owns a deque; idle chefs
+ * steal from the tail of other chefs' deques, so there is no single lock all
+ * chefs contend on.
+ */
+public class WorkStealingScheduler implements KitchenScheduler {
+
+	/** How long an idle chef parks before looking for work to steal again. */
+	private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+	private final ExecutorService chefPool;
+	private final Worker[] workers;
+	private final int[][] stationWorkers = new int[Station.values().length][];
+	private final AtomicInteger[] nextWorker = new AtomicInteger[Station.values().length];
+	private final Function<Order, Long> estimatedDuration;
+	private final SimulationClock clock;
+	/** Submits hold the read lock, so close() cannot slip in between their check and their push. */
+	private final ReadWriteLock closeGuard = new ReentrantReadWriteLock();
+	private volatile boolean running = true;
+
+	/**
+	 * Create a work-stealing scheduler with a fixed number of chefs.
+	 *
+	 * @param numberOfChefs how many chefs to run in parallel
+	 */
+	public WorkStealingScheduler(int numberOfChefs) {
+		this(numberOfChefs, Toolkit.estimatedDuration);
+	}
+
+	/**
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param estimatedDuration estimates the preparation time of a whole order
+	 */
+	public WorkStealingScheduler(int numberOfChefs, Function<Order, Long> estimatedDuration) {
+		this(numberOfChefs, estimatedDuration, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * Create a scheduler whose chefs cook on the given clock, e.g. in virtual
+	 * time.
+	 *
+	 * @param numberOfChefs     how many chefs to run in parallel
+	 * @param estimatedDuration estimates the preparation time of a whole order
+	 * @param clock             the clock the cooking time passes on
+	 */
+	public WorkStealingScheduler(int numberOfChefs, Function<Order, Long> estimatedDuration,
+			SimulationClock clock) {
+		if (numberOfChefs <= 0) {
+			throw new IllegalArgumentException("Number of chefs must be greater than 0.");
+		}
+		this.estimatedDuration = estimatedDuration;
+		this.clock = clock;
+		this.workers = new Worker[numberOfChefs];
+		this.chefPool = Executors.newFixedThreadPool(numberOfChefs);
+
+		// Chef i is at home at station i % stations; stations without a chef of
+		// their own share one.
+		Station[] stations = Station.values();
+		for (Station station : stations) {
+			List<Integer> homes = new ArrayList<>();
+			for (int i = station.ordinal(); i < numberOfChefs; i += stations.length) {
+				homes.add(i);
+			}
+			if (homes.isEmpty()) {
+				homes.add(station.ordinal() % numberOfChefs);
+			}
+			stationWorkers[station.ordinal()] = homes.stream().mapToInt(Integer::intValue).toArray();
+			nextWorker[station.ordinal()] = new AtomicInteger();
+		}
+
+		for (int i = 0; i < numberOfChefs; i++) {
+			workers[i] = new Worker(i);
+		}
+		for (Worker worker : workers) {
+			chefPool.submit(worker);
+		}
+	}
+
+	@Override
+	public void submit(Order order) {
+		closeGuard.readLock().lock();
+		try {
+			if (!running) {
+				throw new IllegalStateException("Kitchen is closed.");
+			}
+			dispatch(order);
+		} finally {
+			closeGuard.readLock().unlock();
+		}
+	}
+
+	private void dispatch(Order order) {
+		List<Dish> dishes = order.getDishes();
+		long orderDuration = estimatedDuration.apply(order);
+		Toolkit.logger.accept(order, "Start processing (estimated: " + orderDuration + " ms)");
+
+		OrderTicket ticket = new OrderTicket(order);
+		if (dishes.isEmpty()) {
+			ticket.complete();
+			return;
+		}
+		long durationPerDish = orderDuration / dishes.size();
+		for (Dish dish : dishes) {
+			Station station = Station.of(dish.category());
+			int[] homes = stationWorkers[station.ordinal()];
+			int index = homes[Math.floorMod(nextWorker[station.ordinal()].getAndIncrement(), homes.length)];
+			workers[index].push(new DishTask(ticket, dish, station, durationPerDish));
+		}
+	}
+
+	/**
+	 * Let the chefs finish all queued dishes, then stop them. Dishes that are
+	 * still queued when the chefs have to stop fail their orders.
+	 */
+	@Override
+	public void close() {
+		closeGuard.writeLock().lock();
+		try {
+			running = false;
+		} finally {
+			closeGuard.writeLock().unlock();
+		}
+		for (Worker worker : workers) {
+			worker.wake();
+		}
+		chefPool.shutdown();
+		try {
+			if (!chefPool.awaitTermination(1, TimeUnit.SECONDS)) {
+				chefPool.shutdownNow();
+				failQueuedDishes();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			chefPool.shutdownNow();
+			failQueuedDishes();
+		}
+	}
+
+	private void failQueuedDishes() {
+		IllegalStateException closed = new IllegalStateException("Kitchen closed before the dish was cooked.");
+		for (Worker worker : workers) {
+			for (DishTask task; (task = worker.deque.pollFirst()) != null;) {
+				task.ticket().fail(closed);
+			}
+		}
+	}
+
+	@Override
+	public boolean isClosed() {
+		return chefPool.isTerminated();
+	}
+
+	/** @return number of dish tasks waiting in all chef deques */
+	public int pendingDishes() {
+		int pending = 0;
+		for (Worker worker : workers) {
+			pending += worker.deque.size();
+		}
+		return pending;
+	}
+
+	/**
+	 * A chef with its own deque. The owner takes from the head, thieves from the
+	 * tail.
+	 */
+	private final class Worker implements Runnable {
+		private final int index;
+		private final ConcurrentLinkedDeque<DishTask> deque = new ConcurrentLinkedDeque<>();
+		private volatile Thread thread;
+
+		Worker(int index) {
+			this.index = index;
+		}
+
+		void push(DishTask task) {
+			deque.addLast(task);
+			wake();
+		}
+
+		void wake() {
+			Thread t = thread;
+			if (t != null) {
+				LockSupport.unpark(t);
+			}
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			while (!Thread.currentThread().isInterrupted()) {
+				// Read before looking for work: once closed, every pushed dish is visible
+				boolean open = running;
+				DishTask task = deque.pollFirst();
+				if (task == null) {
+					task = steal();
+				}
+				if (task != null) {
+					task.prepare(clock);
+				} else if (open) {
+					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				} else {
+					break;
+				}
+			}
+			Toolkit.logTime.accept("Chef ends his shift.");
+		}
+
+		/** Try to take the newest task of another chef, starting at a random victim. */
+		private DishTask steal() {
+			int n = workers.length;
+			int start = ThreadLocalRandom.current().nextInt(n);
+			for (int i = 0; i < n; i++) {
+				Worker victim = workers[(start + i) % n];
+				if (victim != this) {
+					DishTask task = victim.deque.pollLast();
+					if (task != null) {
+						return task;
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return "Chef-" + index;
+		}
+	}
+}
@@ -6,7 +6,7 @@ import java.util.Objects;
  * Represents a dish on the menu with a name, category, and price.
  * This class is a record and provides built-in immutability.
  */
-public record Dish(String name, Category category, double price) {
+public record Dish(String name, Category category, Money price) {
 
     /**
      * Compact constructor with validation logic.
@@ -14,13 +14,23 @@ public record Dish(String name, Category category, double price) {
      */
     public Dish {
         Objects.requireNonNull(category, "Category must not be null.");
-        if (price <= 0) {
+        Objects.requireNonNull(price, "Price must not be null.");
+        if (!price.isPositive()) {
             throw new IllegalArgumentException("Price must be greater than 0.");
         }
     }
 
+    /**
+     * Create a dish priced in euros.
+     *
+     * @param price the price in euros, rounded to whole cents
+     */
+    public Dish(String name, Category category, double price) {
+        this(name, category, Money.of(price));
+    }
+
     @Override
     public String toString() {
-        return name + " (" + category + ") - " + price + " €";
+        return name + " (" + category + ") - " + price;
     }
 }
@@ -50,12 +50,13 @@ public class Menu {
 	 *         expensive
 	 */
 	public Map<Boolean, List<Dish>> byPrice(double threshold) {
-		return dishes.stream().collect(partitioningBy(d -> d.price() <= threshold));
+		Money limit = Money.of(threshold);
+		return dishes.stream().collect(partitioningBy(d -> d.price().compareTo(limit) <= 0));
 	}
 
 	@Override
 	public String toString() {
-		return dishes.stream().map(d -> String.format("%s (%.2f €)", d.name(), d.price()))
+		return dishes.stream().map(d -> d.name() + " (" + d.price() + ")")
 				.collect(joining(", ", "[Menu: ", "]"));
 	}
 }
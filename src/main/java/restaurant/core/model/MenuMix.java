@@ -0,0 +1,75 @@
+package restaurant.core.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Describes what customers like to order: every dish is picked with the weight
+ * of its category. Categories without a weight count as 1, so {@link #EVEN}
+ * picks every dish of the menu equally often.
+ */
+public record MenuMix(String name, Map<Category, Double> weights) {
+
+	/** Every dish equally often */
+	public static final MenuMix EVEN = new MenuMix("even", Map.of());
+	/** Three times as many drinks */
+	public static final MenuMix DRINKS = new MenuMix("drinks", Map.of(Category.DRINK, 3.0));
+	/** Three times as many main courses */
+	public static final MenuMix MAINS = new MenuMix("mains", Map.of(Category.MAIN_COURSE, 3.0));
+
+	/**
+	 * Compact constructor with validation logic.
+	 */
+	public MenuMix {
+		Objects.requireNonNull(name, "Name must not be null.");
+		weights = Map.copyOf(weights);
+		if (weights.values().stream().anyMatch(w -> w < 0)) {
+			throw new IllegalArgumentException("Weights must not be negative.");
+		}
+	}
+
+	/**
+	 * @param name one of "even", "drinks" or "mains"
+	 * @return the predefined mix with that name
+	 */
+	public static MenuMix named(String name) {
+		return switch (name.toLowerCase()) {
+		case "even" -> EVEN;
+		case "drinks" -> DRINKS;
+		case "mains" -> MAINS;
+		default -> throw new IllegalArgumentException("Unknown menu mix: " + name);
+		};
+	}
+
+	/** @return the weight of dishes of the given category */
+	public double weight(Category category) {
+		return weights.getOrDefault(category, 1.0);
+	}
+
+	/**
+	 * Pick a random dish according to this mix.
+	 *
+	 * @param dishes the dishes to choose from
+	 * @param random source of randomness
+	 * @return the chosen dish
+	 */
+	public Dish pick(List<Dish> dishes, RandomGenerator random) {
+		double total = 0;
+		for (Dish dish : dishes) {
+			total += weight(dish.category());
+		}
+		if (total <= 0) {
+			throw new IllegalStateException("Menu mix " + name + " excludes every dish.");
+		}
+		double target = random.nextDouble(total);
+		for (Dish dish : dishes) {
+			target -= weight(dish.category());
+			if (target < 0) {
+				return dish;
+			}
+		}
+		return dishes.get(dishes.size() - 1);
+	}
+}
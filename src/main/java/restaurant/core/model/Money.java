@@ -0,0 +1,149 @@
+package restaurant.core.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An amount of money in whole minor units of its currency, e.g. cents. Adding
+ * amounts is exact and allocates nothing but the result, unlike summing
+ * doubles, which drifts by fractions of a cent.
+ *
+ * @param minorUnits the amount in minor units, e.g. 1250 for 12.50 €
+ * @param currency   the currency of the amount
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+	/** Currency of the restaurant */
+	public static final Currency EUR = Currency.getInstance("EUR");
+	/** No money, in euros */
+	public static final Money ZERO = new Money(0, EUR);
+
+	public Money {
+		Objects.requireNonNull(currency, "Currency must not be null.");
+	}
+
+	/** @return the given number of cents in euros */
+	public static Money ofCents(long cents) {
+		return new Money(cents, EUR);
+	}
+
+	/**
+	 * Convert a decimal amount in euros, rounding half up to whole cents.
+	 *
+	 * @param euros e.g. 12.5
+	 */
+	public static Money of(double euros) {
+		return of(BigDecimal.valueOf(euros), EUR);
+	}
+
+	/**
+	 * Convert a decimal amount, rounding half up to whole minor units.
+	 *
+	 * @param amount   e.g. 12.50
+	 * @param currency currency of the amount
+	 */
+	public static Money of(BigDecimal amount, Currency currency) {
+		return new Money(amount.setScale(digits(currency), RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+				currency);
+	}
+
+	private static int digits(Currency currency) {
+		return Math.max(0, currency.getDefaultFractionDigits());
+	}
+
+	/** @return the sum of both amounts */
+	public Money plus(Money other) {
+		checkCurrency(other);
+		return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+	}
+
+	/** @return this amount less the other */
+	public Money minus(Money other) {
+		checkCurrency(other);
+		return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+	}
+
+	/** @return this amount the given number of times */
+	public Money times(long factor) {
+		return new Money(Math.multiplyExact(minorUnits, factor), currency);
+	}
+
+	/**
+	 * Split this amount into parts that differ by at most one minor unit and add
+	 * up to exactly this amount; the first parts get the extra units.
+	 *
+	 * @param parts number of parts, at least 1
+	 * @return e.g. 3.34, 3.33, 3.33 for 10.00 in three parts
+	 */
+	public List<Money> allocate(int parts) {
+		if (parts <= 0) {
+			throw new IllegalArgumentException("Parts must be greater than 0.");
+		}
+		long share = minorUnits / parts;
+		long remainder = minorUnits % parts;
+		List<Money> allocated = new ArrayList<>(parts);
+		for (int i = 0; i < parts; i++) {
+			allocated.add(new Money(share + (i < Math.abs(remainder) ? Long.signum(remainder) : 0), currency));
+		}
+		return List.copyOf(allocated);
+	}
+
+	public boolean isZero() {
+		return minorUnits == 0;
+	}
+
+	public boolean isPositive() {
+		return minorUnits > 0;
+	}
+
+	public boolean isNegative() {
+		return minorUnits < 0;
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		checkCurrency(other);
+		return Long.compare(minorUnits, other.minorUnits);
+	}
+
+	/** @return the exact decimal amount, e.g. 12.50 */
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(minorUnits, digits(currency));
+	}
+
+	/** @return the amount as a double, for code that has not moved to Money yet */
+	public double toDouble() {
+		return toBigDecimal().doubleValue();
+	}
+
+	/** @return the plain decimal amount without currency, e.g. 12.50 */
+	public String format() {
+		int digits = digits(currency);
+		if (digits == 0) {
+			return Long.toString(minorUnits);
+		}
+		long scale = (long) Math.pow(10, digits);
+		long whole = Math.abs(minorUnits / scale);
+		long fraction = Math.abs(minorUnits % scale);
+		String sign = minorUnits < 0 ? "-" : "";
+		String cents = Long.toString(fraction);
+		return sign + whole + "." + "0".repeat(digits - cents.length()) + cents;
+	}
+
+	private void checkCurrency(Money other) {
+		if (!currency.equals(other.currency)) {
+			throw new IllegalArgumentException(
+					"Cannot mix " + currency.getCurrencyCode() + " and " + other.currency.getCurrencyCode() + ".");
+		}
+	}
+
+	/** @return the amount with its currency, e.g. 12.50 € */
+	@Override
+	public String toString() {
+		return format() + " " + (currency.equals(EUR) ? "€" : currency.getCurrencyCode());
+	}
+}
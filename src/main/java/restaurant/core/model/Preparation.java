@@ -2,41 +2,128 @@ package restaurant.core.model;
 
 import static restaurant.infrastructure.util.Toolkit.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.SimulationClock;
 
 /**
- * Represents the preparation of an order in the kitchen. Each dish is processed
- * sequentially with a fixed duration.
+ * Represents the preparation of an order in the kitchen. By default each dish
+ * is processed sequentially with a fixed duration. In parallel mode every dish
+ * becomes its own subtask on a shared executor, so the order takes about as
+ * long as its slowest dish.
  */
 public class Preparation implements Callable<Order> {
 	private final Order order;
 	private final long durationPerDish;
+	private final Executor dishExecutor;
+	private final int maxFanOut;
+	private final SimulationClock clock;
 
 	/**
-	 * Create a preparation task for an order.
-	 * 
+	 * Create a sequential preparation task for an order.
+	 *
 	 * @param order           the order to be prepared
 	 * @param durationPerDish the time (in ms) needed to prepare each dish
 	 */
 	public Preparation(Order order, long durationPerDish) {
+		this(order, durationPerDish, null, 1);
+	}
+
+	/**
+	 * Create a parallel preparation task for an order.
+	 *
+	 * @param order           the order to be prepared
+	 * @param durationPerDish the time (in ms) needed to prepare each dish
+	 * @param dishExecutor    executor running the dish subtasks, or null to
+	 *                        prepare sequentially
+	 * @param maxFanOut       how many dishes of this order may be prepared at the
+	 *                        same time
+	 */
+	public Preparation(Order order, long durationPerDish, Executor dishExecutor, int maxFanOut) {
+		this(order, durationPerDish, dishExecutor, maxFanOut, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * Create a preparation task whose cooking time passes on the given clock.
+	 *
+	 * @param order           the order to be prepared
+	 * @param durationPerDish the time (in simulated ms) needed to prepare each dish
+	 * @param dishExecutor    executor running the dish subtasks, or null to
+	 *                        prepare sequentially
+	 * @param maxFanOut       how many dishes of this order may be prepared at the
+	 *                        same time
+	 * @param clock           the clock the cooking time passes on
+	 */
+	public Preparation(Order order, long durationPerDish, Executor dishExecutor, int maxFanOut,
+			SimulationClock clock) {
+		if (maxFanOut <= 0) {
+			throw new IllegalArgumentException("Fan-out must be greater than 0.");
+		}
 		this.order = order;
 		this.durationPerDish = durationPerDish;
+		this.dishExecutor = dishExecutor;
+		this.maxFanOut = maxFanOut;
+		this.clock = clock;
 	}
 
 	/**
 	 * Prepares all dishes in the order. Each dish takes {@code durationPerDish}
 	 * milliseconds.
-	 * 
+	 *
 	 * @return the completed order
 	 */
 	@Override
 	public Order call() throws Exception {
+		if (dishExecutor == null || maxFanOut == 1 || order.getDishes().size() <= 1) {
+			for (Dish dish : order.getDishes()) {
+				prepare(dish);
+			}
+			return order;
+		}
+		return callParallel();
+	}
+
+	/**
+	 * Forks one subtask per dish, but never more than {@code maxFanOut} at once,
+	 * and joins them before returning.
+	 */
+	private Order callParallel() throws Exception {
+		Semaphore fanOut = new Semaphore(maxFanOut);
+		List<CompletableFuture<Void>> subtasks = new ArrayList<>(order.getDishes().size());
 		for (Dish dish : order.getDishes()) {
-			Thread.sleep(durationPerDish);
-			logger.accept(order, "Dish prepared: " + dish);
+			fanOut.acquire();
+			subtasks.add(CompletableFuture.runAsync(() -> {
+				try {
+					prepare(dish);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CompletionException(e);
+				} finally {
+					fanOut.release();
+				}
+			}, dishExecutor));
+		}
+
+		try {
+			CompletableFuture.allOf(subtasks.toArray(new CompletableFuture[0])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw e;
 		}
 		return order;
 	}
+
+	private void prepare(Dish dish) throws InterruptedException {
+		clock.sleep(durationPerDish);
+		logger.accept(order, "Dish prepared: " + dish);
+	}
 }
@@ -3,12 +3,18 @@ package restaurant.core.order.model;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import restaurant.core.customer.model.Customer;
 import restaurant.core.model.Dish;
+import restaurant.core.model.Money;
+import restaurant.infrastructure.clock.TimeSource;
 import restaurant.infrastructure.util.Toolkit;
 
 /**
@@ -18,28 +24,52 @@ import restaurant.infrastructure.util.Toolkit;
 //@Entity
 //@Table(name = "orders")
 public class Order {
+	private static final AtomicLong NEXT_ID = new AtomicLong();
+	/** Notified of every status of every order, e.g. to journal it */
+	private static final List<BiConsumer<Order, OrderStatus>> statusListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Status and statistics of an order, swapped together so that every status
+	 * change is counted exactly once without locking.
+	 *
+	 * @param statistics null if the order is not counted
+	 */
+	private record State(OrderStatus status, OrderStatistics statistics) {
+	}
+
+	private final long id;
+	private final long createdAt;
+	private final TimeSource clock;
 	@Id
 	private final int tableNumber; // mandatory field
 	private Customer customer;
 	private final List<Dish> dishes;
-	private OrderStatus status = OrderStatus.OPEN;
+	private final Money total; // dishes never change, so neither does the total
 	private CompletableFuture<Order> future;
+	private volatile long promisedBy; // 0 = no promise
+	private final AtomicReference<State> state = new AtomicReference<>(new State(OrderStatus.OPEN, null));
 
 	/**
 	 * Private constructor used internally to create orders.
 	 * 
-	 * @param table    the table number
-	 * @param customer the customer who placed the order
-	 * @param dishes   the list of ordered dishes
+	 * @param table     the table number
+	 * @param customer  the customer who placed the order
+	 * @param dishes    the list of ordered dishes
+	 * @param clock     the clock the order lives on
 	 */
-	private Order(int table, Customer customer, List<Dish> dishes) {
+	private Order(int table, Customer customer, List<Dish> dishes, TimeSource clock) {
+		this.id = NEXT_ID.incrementAndGet();
 		this.tableNumber = table;
+		this.clock = clock;
+		this.createdAt = clock.millis();
 		this.customer = Objects.requireNonNull(customer, "Customer must not be null");
-		this.dishes = Objects.requireNonNull(dishes, "Dishes must not be null");
+		this.dishes = List.copyOf(Objects.requireNonNull(dishes, "Dishes must not be null"));
+		this.total = sum(this.dishes);
 
 		// Only log normal orders, not poison pills
 		if (table != -1) {
 			Toolkit.logger.accept(this, "New order created: " + this);
+			notifyListeners(OrderStatus.OPEN);
 		}
 	}
 
@@ -47,16 +77,79 @@ public class Order {
 	 * Factory method to create a new order. Also links the order to the customer.
 	 */
 	public static Order create(Customer customer, List<Dish> dishes) {
-		Order order = new Order(customer.getTableNumber(), customer, dishes);
+		return create(customer, dishes, TimeSource.SYSTEM);
+	}
+
+	/**
+	 * Create a new order on the given clock, e.g. the simulation clock, so that
+	 * its age and its status changes are measured in the same time as the
+	 * kitchen's. Also links the order to the customer.
+	 * 
+	 * @param clock the clock the order is created and changes status on
+	 */
+	public static Order create(Customer customer, List<Dish> dishes, TimeSource clock) {
+		Order order = new Order(customer.getTableNumber(), customer, dishes, clock);
 		customer.setOrder(order);
 		return order;
 	}
 
+	/**
+	 * Rebuild an order of an earlier run, e.g. from the order journal. Only its
+	 * id, table, status and creation time are known, so it has no dishes and
+	 * its customer is named after the table. Listeners are not notified and the
+	 * order's future is already complete, since no kitchen works on it.
+	 * 
+	 * @param id          the id the order had
+	 * @param tableNumber the table of the order
+	 * @param status      the last known status
+	 * @param createdAt   creation time in epoch milliseconds
+	 * @see #continueIdsAfter(long)
+	 */
+	public static Order restore(long id, int tableNumber, OrderStatus status, long createdAt) {
+		Order order = new Order(id, tableNumber, status, createdAt);
+		order.customer.setOrder(order);
+		return order;
+	}
+
+	private Order(long id, int table, OrderStatus status, long createdAt) {
+		this.id = id;
+		this.tableNumber = table;
+		this.createdAt = createdAt;
+		this.clock = TimeSource.SYSTEM;
+		this.customer = new Customer("Table " + table, table);
+		this.dishes = List.of();
+		this.total = Money.ZERO;
+		this.future = CompletableFuture.completedFuture(this);
+		this.state.set(new State(status, null));
+	}
+
 	/**
 	 * Special order used as a poison pill to stop processing threads.
 	 */
 	public static Order poisonPill() {
-		return new Order(-1, new Customer("POISON", -1), List.of());
+		return new Order(-1, new Customer("POISON", -1), List.of(), TimeSource.SYSTEM);
+	}
+
+	/**
+	 * Register a listener that is called with the order and its new status
+	 * whenever an order is created or changes its status. Listeners run on the
+	 * thread changing the status and should be quick.
+	 */
+	public static void addStatusListener(BiConsumer<Order, OrderStatus> listener) {
+		statusListeners.add(listener);
+	}
+
+	/** Remove a listener registered with {@link #addStatusListener}. */
+	public static void removeStatusListener(BiConsumer<Order, OrderStatus> listener) {
+		statusListeners.remove(listener);
+	}
+
+	/**
+	 * Make sure new orders get ids greater than the given one, e.g. after
+	 * restoring orders of an earlier run.
+	 */
+	public static void continueIdsAfter(long lastId) {
+		NEXT_ID.accumulateAndGet(lastId, Math::max);
 	}
 
 	public void setFuture(CompletableFuture<Order> future) {
@@ -67,6 +160,37 @@ public class Order {
 		return future;
 	}
 
+	/** @return unique, increasing number of this order */
+	public long getId() {
+		return id;
+	}
+
+	/** @return creation time in epoch milliseconds */
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	/** @return the clock the order was created on; status changes happen on it too */
+	public TimeSource getClock() {
+		return clock;
+	}
+
+	/** @return time (epoch ms) the order was promised to be ready by, or 0 */
+	public long getPromisedBy() {
+		return promisedBy;
+	}
+
+	/**
+	 * Promise the customer that the order is ready by the given time. Must be set
+	 * before the order is handed to the kitchen.
+	 * 
+	 * @param promisedBy epoch milliseconds of the same clock as
+	 *                   {@link #getCreatedAt()}, or 0 for no promise
+	 */
+	public void setPromisedBy(long promisedBy) {
+		this.promisedBy = promisedBy;
+	}
+
 	public int getTableNumber() {
 		return tableNumber;
 	}
@@ -82,26 +206,124 @@ public class Order {
 	/**
 	 * @return the total price of all dishes in this order
 	 */
+	public Money getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return the total price of all dishes in this order, in euros
+	 * @see #getTotal()
+	 */
 	public double getTotalPrice() {
-		return dishes.stream().mapToDouble(Dish::price).sum();
+		return total.toDouble();
+	}
+
+	private static Money sum(List<Dish> dishes) {
+		if (dishes.isEmpty()) {
+			return Money.ZERO;
+		}
+		long minorUnits = 0;
+		for (Dish dish : dishes) {
+			if (!dish.price().currency().equals(dishes.get(0).price().currency())) {
+				throw new IllegalArgumentException("All dishes of an order must have the same currency.");
+			}
+			minorUnits = Math.addExact(minorUnits, dish.price().minorUnits());
+		}
+		return new Money(minorUnits, dishes.get(0).price().currency());
 	}
 
 	public OrderStatus getStatus() {
-		return status;
+		return state.get().status();
 	}
 
 	/**
-	 * Update the order status and log the change.
+	 * Update the order status, whatever it was, and log the change.
+	 * 
+	 * @see #compareAndSetStatus(OrderStatus, OrderStatus)
 	 */
 	public void setStatus(OrderStatus status) {
 		Toolkit.logTime.accept("Status changed: " + status.toString().toLowerCase());
-		this.status = status;
+		State previous = state.getAndUpdate(s -> new State(status, s.statistics()));
+		changed(previous, status);
+	}
+
+	/**
+	 * Update the order status only if it is still the expected one. Of several
+	 * threads moving the order on from the same status, exactly one succeeds.
+	 * 
+	 * @return false if the order was in another status; nothing changed then
+	 */
+	public boolean compareAndSetStatus(OrderStatus expected, OrderStatus status) {
+		State current;
+		do {
+			current = state.get();
+			if (current.status() != expected) {
+				return false;
+			}
+		} while (!state.compareAndSet(current, new State(status, current.statistics())));
+		Toolkit.logTime.accept("Status changed: " + status.toString().toLowerCase());
+		changed(current, status);
+		return true;
+	}
+
+	/**
+	 * Claim an accepted order for cooking by moving it from
+	 * {@link OrderStatus#OPEN} to {@link OrderStatus#IN_PREPARATION}. Further
+	 * dishes of an order already in preparation may start as well. The kitchen
+	 * withdraws only orders that are still open, so a started order is never
+	 * withdrawn.
+	 * 
+	 * @return false if the order was withdrawn or is done with the kitchen
+	 */
+	public boolean startPreparation() {
+		return compareAndSetStatus(OrderStatus.OPEN, OrderStatus.IN_PREPARATION)
+				|| getStatus() == OrderStatus.IN_PREPARATION;
+	}
+
+	/**
+	 * Claim a prepared order for a payment by moving it to
+	 * {@link OrderStatus#PAYING}. Only one payment is ever started for an order,
+	 * however many callers race, and never before the kitchen is done with it.
+	 * 
+	 * @return false if the order is not prepared or a payment was already started
+	 */
+	public boolean startPayment() {
+		return compareAndSetStatus(OrderStatus.PREPARED, OrderStatus.PAYING);
+	}
+
+	private void changed(State previous, OrderStatus status) {
+		if (previous.statistics() != null) {
+			previous.statistics().statusChanged(this, previous.status(), status);
+		}
+		notifyListeners(status);
+	}
+
+	/**
+	 * Count this order in the given statistics. The current status and the
+	 * attachment are swapped together, so a concurrent status change is counted
+	 * exactly once.
+	 */
+	void countIn(OrderStatistics statistics) {
+		State current;
+		do {
+			current = state.get();
+			if (current.statistics() != null) {
+				throw new IllegalStateException("Order " + id + " is already counted.");
+			}
+		} while (!state.compareAndSet(current, new State(current.status(), statistics)));
+		statistics.statusChanged(this, null, current.status());
+	}
+
+	private void notifyListeners(OrderStatus status) {
+		for (BiConsumer<Order, OrderStatus> listener : statusListeners) {
+			listener.accept(this, status);
+		}
 	}
 
 	@Override
 	public String toString() {
-		return String.format("Order [Table %d | Customer: %s | Dishes: %s | Total: %.2f € | Status: %s]", tableNumber,
-				customer.getName(), dishes.stream().map(Dish::name).toList(), getTotalPrice(),
-				status.toString().toLowerCase());
+		return String.format("Order [Table %d | Customer: %s | Dishes: %s | Total: %s | Status: %s]", tableNumber,
+				customer.getName(), dishes.stream().map(Dish::name).toList(), total,
+				getStatus().toString().toLowerCase());
 	}
 }
@@ -0,0 +1,41 @@
+package restaurant.core.order.model;
+
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * One step in the life of an order, e.g. to show it on a dashboard.
+ *
+ * @param orderId     id of the order
+ * @param tableNumber table the order belongs to
+ * @param customer    name of the customer
+ * @param status      the status the order just reached
+ * @param timeMillis  when it reached it, in epoch milliseconds
+ */
+public record OrderEvent(long orderId, int tableNumber, String customer, OrderStatus status, long timeMillis) {
+
+	/** @return the event of an order reaching the given status now, on the order's clock */
+	public static OrderEvent of(Order order, OrderStatus status) {
+		return new OrderEvent(order.getId(), order.getTableNumber(), order.getCustomer().getName(), status,
+				order.getClock().millis());
+	}
+
+	/** @return what happened: created, in-preparation, prepared, paying, paid, failed or cancelled */
+	public String type() {
+		return switch (status) {
+		case OPEN -> "created";
+		case IN_PREPARATION -> "in-preparation";
+		case PREPARED -> "prepared";
+		case PAYING -> "paying";
+		case PAID -> "paid";
+		case PAYMENT_FAILED -> "failed";
+		case CANCELLED -> "cancelled";
+		};
+	}
+
+	/** @return the event as one JSON object */
+	public String toJson() {
+		return new StringBuilder(96).append("{\"orderId\":").append(orderId).append(",\"table\":").append(tableNumber)
+				.append(",\"customer\":").append(Toolkit.quote(customer)).append(",\"type\":\"").append(type())
+				.append("\",\"time\":").append(timeMillis).append('}').toString();
+	}
+}
@@ -0,0 +1,140 @@
+package restaurant.core.order.model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe store of the orders of a restaurant, indexed by order id and by
+ * table. Both indexes are concurrent hash maps: lookups never lock, and
+ * threads registering orders for different tables rarely touch the same bin.
+ * <p>
+ * Every order is kept together with the future that completes when the
+ * customer is done with it, so completed orders can be read without waiting
+ * for the ones still in progress, and finalized orders can be evicted.
+ * Evicted orders stay in the running {@link OrderStatistics} of the registry.
+ */
+public final class OrderRegistry {
+
+	private final ConcurrentHashMap<Long, Entry> byId = new ConcurrentHashMap<>();
+	/** Latest order of every table that is still registered */
+	private final ConcurrentHashMap<Integer, Entry> byTable = new ConcurrentHashMap<>();
+	private final OrderStatistics statistics = new OrderStatistics();
+
+	/**
+	 * Register an order. A later order of the same table replaces it in the table
+	 * index but stays available by id.
+	 *
+	 * @param order  the order
+	 * @param future completes when the customer is done with the order
+	 */
+	public void register(Order order, CompletableFuture<Order> future) {
+		Entry entry = new Entry(order, future);
+		byId.put(order.getId(), entry);
+		byTable.put(order.getTableNumber(), entry);
+		statistics.add(order);
+	}
+
+	/** @return the order with the given id, if registered */
+	public Optional<Order> find(long orderId) {
+		Entry entry = byId.get(orderId);
+		return entry == null ? Optional.empty() : Optional.of(entry.order);
+	}
+
+	/** @return the latest registered order of the given table */
+	public Optional<Order> findByTable(int tableNumber) {
+		Entry entry = byTable.get(tableNumber);
+		return entry == null ? Optional.empty() : Optional.of(entry.order);
+	}
+
+	/** @return the future of the order with the given id, if registered */
+	public Optional<CompletableFuture<Order>> futureOf(long orderId) {
+		Entry entry = byId.get(orderId);
+		return entry == null ? Optional.empty() : Optional.of(entry.future);
+	}
+
+	/**
+	 * Call the action for every order whose future completed successfully.
+	 * Orders still in progress or failed are skipped; nothing blocks.
+	 */
+	public void forEachCompleted(Consumer<Order> action) {
+		for (Entry entry : byId.values()) {
+			if (entry.future.isDone() && !entry.future.isCompletedExceptionally()) {
+				action.accept(entry.future.join());
+			}
+		}
+	}
+
+	/** @return all registered orders, in no particular order */
+	public Stream<Order> orders() {
+		return byId.values().stream().map(Entry::order);
+	}
+
+	/** @return the futures of all registered orders, sorted by order id */
+	public List<CompletableFuture<Order>> futures() {
+		return byId.values().stream().sorted(Comparator.comparingLong(e -> e.order.getId())).map(Entry::future)
+				.toList();
+	}
+
+	/**
+	 * One page of the registered orders, sorted by order id.
+	 *
+	 * @param page zero-based page number
+	 * @param size orders per page
+	 * @return the orders of that page; empty after the last page
+	 */
+	public List<Order> page(int page, int size) {
+		if (page < 0 || size <= 0) {
+			throw new IllegalArgumentException("Page must not be negative and size must be greater than 0.");
+		}
+		return orders().sorted(Comparator.comparingLong(Order::getId)).skip((long) page * size).limit(size).toList();
+	}
+
+	/**
+	 * @return a future completing once every order registered so far is done,
+	 *         successfully or not
+	 */
+	public CompletableFuture<Void> allDone() {
+		return CompletableFuture.allOf(byId.values().stream().map(Entry::future).toArray(CompletableFuture[]::new))
+				.handle((v, e) -> null);
+	}
+
+	/**
+	 * Remove the orders that are done and finalized, e.g. paid, to keep memory
+	 * flat over a long day.
+	 *
+	 * @return number of evicted orders
+	 */
+	public int evictFinalized() {
+		int evicted = 0;
+		for (Entry entry : byId.values()) {
+			if (entry.future.isDone() && entry.order.getStatus().isFinalized() && byId.remove(entry.order.getId(), entry)) {
+				byTable.remove(entry.order.getTableNumber(), entry);
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+
+	/** @return running totals of every order registered so far */
+	public OrderStatistics getStatistics() {
+		return statistics;
+	}
+
+	/** @return number of registered orders */
+	public int size() {
+		return byId.size();
+	}
+
+	/** @return number of registered orders whose future is not done yet */
+	public long pendingCount() {
+		return byId.values().stream().filter(e -> !e.future.isDone()).count();
+	}
+
+	private record Entry(Order order, CompletableFuture<Order> future) {
+	}
+}
@@ -0,0 +1,131 @@
+package restaurant.core.order.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.Money;
+
+/**
+ * Running totals of the orders of a restaurant, updated whenever one of its
+ * orders changes status. Every total is an adder, so threads changing
+ * different orders do not contend, and reading the totals costs the same
+ * after ten orders as after a million. Amounts are added in whole cents of
+ * {@link Money#EUR}, so the totals are exact.
+ * <p>
+ * An order counts towards revenue and dish sales once it is prepared, and
+ * towards the paid total once it is paid, as in the daily report.
+ */
+public final class OrderStatistics {
+
+	private final Map<OrderStatus, LongAdder> byStatus = new EnumMap<>(OrderStatus.class);
+	private final Map<Category, LongAdder> byCategory = new EnumMap<>(Category.class);
+	private final Map<String, DishSales> byDish = new ConcurrentHashMap<>();
+	private final LongAdder orders = new LongAdder();
+	private final LongAdder revenue = new LongAdder();
+	private final LongAdder paid = new LongAdder();
+
+	public OrderStatistics() {
+		// Filled once, so concurrent readers never see the maps change
+		for (OrderStatus status : OrderStatus.values()) {
+			byStatus.put(status, new LongAdder());
+		}
+		for (Category category : Category.values()) {
+			byCategory.put(category, new LongAdder());
+		}
+	}
+
+	/**
+	 * Count an order from now on. Its current status is counted, and every later
+	 * change is reported by the order itself.
+	 */
+	public void add(Order order) {
+		order.countIn(this);
+	}
+
+	/**
+	 * Move an order from one status to another.
+	 *
+	 * @param order the order
+	 * @param from  its previous status, or null if it was not counted yet
+	 * @param to    its new status
+	 */
+	void statusChanged(Order order, OrderStatus from, OrderStatus to) {
+		if (from == null) {
+			orders.increment();
+		} else {
+			byStatus.get(from).decrement();
+		}
+		byStatus.get(to).increment();
+
+		if (isServed(to) && (from == null || !isServed(from))) {
+			revenue.add(order.getTotal().minorUnits());
+			for (Dish dish : order.getDishes()) {
+				byCategory.get(dish.category()).add(dish.price().minorUnits());
+				byDish.computeIfAbsent(dish.name(), n -> new DishSales()).add(dish.price().minorUnits());
+			}
+		}
+		if (to == OrderStatus.PAID && from != OrderStatus.PAID) {
+			paid.add(order.getTotal().minorUnits());
+		}
+	}
+
+	/** The kitchen finished the order, whether it was paid or not. */
+	private static boolean isServed(OrderStatus status) {
+		return status == OrderStatus.PREPARED || status.isPaymentStarted();
+	}
+
+	/** @return number of counted orders */
+	public long getOrderCount() {
+		return orders.sum();
+	}
+
+	/** @return number of counted orders currently in the given status */
+	public long getCount(OrderStatus status) {
+		return byStatus.get(status).sum();
+	}
+
+	/** @return sum of all prepared orders */
+	public Money getRevenue() {
+		return Money.ofCents(revenue.sum());
+	}
+
+	/** @return sum of all paid orders */
+	public Money getPaid() {
+		return Money.ofCents(paid.sum());
+	}
+
+	/** @return sales of prepared dishes of the given category */
+	public Money getSales(Category category) {
+		return Money.ofCents(byCategory.get(category).sum());
+	}
+
+	/** @return number of prepared dishes by dish name, sorted by name */
+	public Map<String, Long> getDishCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		byDish.forEach((name, sales) -> counts.put(name, sales.count.sum()));
+		return Collections.unmodifiableMap(counts);
+	}
+
+	/** @return sales of prepared dishes by dish name, sorted by name */
+	public Map<String, Money> getDishSales() {
+		Map<String, Money> sales = new TreeMap<>();
+		byDish.forEach((name, dish) -> sales.put(name, Money.ofCents(dish.cents.sum())));
+		return Collections.unmodifiableMap(sales);
+	}
+
+	private static final class DishSales {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder cents = new LongAdder();
+
+		void add(long price) {
+			count.increment();
+			cents.add(price);
+		}
+	}
+}
@@ -9,13 +9,20 @@ public enum OrderStatus {
 	PREPARED, // Kitchen finished preparing the order
 //	SERVED, // Customer has received the food #STILL NEED IMPLEMENTATION
 	PAYMENT_FAILED, // Payment attempt failed
-	PAID; // Payment completed successfully
+	PAID, // Payment completed successfully
+	PAYING, // A payment is being processed
+	CANCELLED; // Withdrawn before the kitchen started it; appended because the journal stores ordinals
 
 	/** Returns true if payment is allowed in this state. */
 	public boolean canBePaid() {
 		return this == PREPARED;
 	}
 
+	/** Returns true once a payment was started; an order is only charged once. */
+	public boolean isPaymentStarted() {
+		return this == PAYING || this == PAID || this == PAYMENT_FAILED;
+	}
+
 	/** Returns true if order is already finished (no further actions allowed) */
 	public boolean isFinalized() {
 		return this == PAID;
@@ -0,0 +1,249 @@
+package restaurant.core.table.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out free tables without locks. Tables are grouped by their number of
+ * seats; every group keeps one bit per table in an atomic bitset, and a table
+ * is taken by setting its bit with compare-and-set. A party gets a table of
+ * the smallest group that fits it and only moves on to larger tables when
+ * that group is full.
+ * <p>
+ * Within a group the search starts at a random table, so parties arriving at
+ * the same time rarely compete for the same bits.
+ */
+public final class TableAllocator {
+
+	/** Returned by {@link #acquire} when no table fits the party */
+	public static final int NO_TABLE = -1;
+
+	/** Seats of a table created by {@link #uniform} */
+	public static final int DEFAULT_SEATS = 4;
+
+	/** Seats of table number i + 1 */
+	private final int[] seats;
+	/** Table groups by number of seats, smallest first */
+	private final Group[] groups;
+	/** Group and position in that group of table number i + 1 */
+	private final int[] groupOf;
+	private final int[] slotOf;
+
+	/**
+	 * @param seatsPerTable seats of table 1, 2, 3, ...
+	 */
+	public TableAllocator(int... seatsPerTable) {
+		if (seatsPerTable.length == 0) {
+			throw new IllegalArgumentException("Restaurant needs at least one table.");
+		}
+		if (Arrays.stream(seatsPerTable).anyMatch(s -> s <= 0)) {
+			throw new IllegalArgumentException("Every table needs at least one seat.");
+		}
+		this.seats = seatsPerTable.clone();
+		this.groupOf = new int[seats.length];
+		this.slotOf = new int[seats.length];
+
+		int[] sizes = Arrays.stream(seats).distinct().sorted().toArray();
+		this.groups = new Group[sizes.length];
+		for (int g = 0; g < sizes.length; g++) {
+			int size = sizes[g];
+			int[] tables = new int[(int) Arrays.stream(seats).filter(s -> s == size).count()];
+			int slot = 0;
+			for (int i = 0; i < seats.length; i++) {
+				if (seats[i] == size) {
+					tables[slot] = i + 1;
+					groupOf[i] = g;
+					slotOf[i] = slot++;
+				}
+			}
+			groups[g] = new Group(size, tables);
+		}
+	}
+
+	/**
+	 * @param numTables how many tables the restaurant has
+	 * @return tables numbered 1 to numTables with {@link #DEFAULT_SEATS} seats
+	 *         each
+	 */
+	public static TableAllocator uniform(int numTables) {
+		return uniform(numTables, DEFAULT_SEATS);
+	}
+
+	/**
+	 * @param numTables how many tables the restaurant has
+	 * @param seats     seats of every table
+	 * @return tables numbered 1 to numTables with the same number of seats
+	 */
+	public static TableAllocator uniform(int numTables, int seats) {
+		if (numTables <= 0) {
+			throw new IllegalArgumentException("Restaurant needs at least one table.");
+		}
+		int[] seatsPerTable = new int[numTables];
+		Arrays.fill(seatsPerTable, seats);
+		return new TableAllocator(seatsPerTable);
+	}
+
+	/**
+	 * Take a free table for one guest.
+	 *
+	 * @return the table number, or {@link #NO_TABLE} if all tables are taken
+	 */
+	public int acquire() {
+		return acquire(1);
+	}
+
+	/**
+	 * Take the smallest free table that seats the party.
+	 *
+	 * @param partySize number of guests
+	 * @return the table number, or {@link #NO_TABLE} if no free table fits
+	 */
+	public int acquire(int partySize) {
+		return acquire(partySize, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Take the smallest free table that seats the party, choosing among equal
+	 * tables with the given generator, e.g. a seeded one.
+	 *
+	 * @param partySize number of guests
+	 * @param random    picks where the search starts
+	 * @return the table number, or {@link #NO_TABLE} if no free table fits
+	 */
+	public int acquire(int partySize, RandomGenerator random) {
+		if (partySize <= 0) {
+			throw new IllegalArgumentException("Party size must be greater than 0.");
+		}
+		for (Group group : groups) {
+			if (group.seats >= partySize) {
+				int slot = group.acquire(random.nextInt(group.tables.length));
+				if (slot >= 0) {
+					return group.tables[slot];
+				}
+			}
+		}
+		return NO_TABLE;
+	}
+
+	/**
+	 * Give a table back when its guests leave.
+	 *
+	 * @param tableNumber a table taken with {@link #acquire}
+	 * @throws IllegalStateException if the table is not taken
+	 */
+	public void release(int tableNumber) {
+		checkTable(tableNumber);
+		if (!groups[groupOf[tableNumber - 1]].release(slotOf[tableNumber - 1])) {
+			throw new IllegalStateException("Table " + tableNumber + " is not taken.");
+		}
+	}
+
+	/** @return true if the table is currently taken */
+	public boolean isTaken(int tableNumber) {
+		checkTable(tableNumber);
+		return groups[groupOf[tableNumber - 1]].isTaken(slotOf[tableNumber - 1]);
+	}
+
+	/** @return number of tables that are free right now */
+	public int freeTables() {
+		int free = 0;
+		for (Group group : groups) {
+			free += group.tables.length - group.taken();
+		}
+		return free;
+	}
+
+	/** @return number of tables of the restaurant */
+	public int getTableCount() {
+		return seats.length;
+	}
+
+	/** @return seats of the given table */
+	public int getSeats(int tableNumber) {
+		checkTable(tableNumber);
+		return seats[tableNumber - 1];
+	}
+
+	private void checkTable(int tableNumber) {
+		if (tableNumber < 1 || tableNumber > seats.length) {
+			throw new IllegalArgumentException("No table " + tableNumber + ".");
+		}
+	}
+
+	/**
+	 * Tables with the same number of seats and one bit per table.
+	 */
+	private static final class Group {
+		private final int seats;
+		private final int[] tables;
+		private final AtomicLongArray taken;
+
+		Group(int seats, int[] tables) {
+			this.seats = seats;
+			this.tables = tables;
+			this.taken = new AtomicLongArray((tables.length + 63) >>> 6);
+		}
+
+		/**
+		 * Set the first clear bit at or after the start, wrapping around once.
+		 *
+		 * @return the slot taken, or -1 if all were taken
+		 */
+		int acquire(int start) {
+			int words = taken.length();
+			int firstWord = start >>> 6;
+			for (int i = 0; i <= words; i++) {
+				int w = (firstWord + i) % words;
+				// Only the first word starts in the middle; it is looked at again at the end
+				long mask = i == 0 ? -1L << (start & 63) : -1L;
+				while (true) {
+					long bits = taken.get(w);
+					long free = ~bits & mask & validBits(w);
+					if (free == 0) {
+						break;
+					}
+					long bit = Long.lowestOneBit(free);
+					if (taken.compareAndSet(w, bits, bits | bit)) {
+						return (w << 6) + Long.numberOfTrailingZeros(bit);
+					}
+				}
+			}
+			return -1;
+		}
+
+		/** @return false if the slot was not taken */
+		boolean release(int slot) {
+			int w = slot >>> 6;
+			long bit = 1L << (slot & 63);
+			while (true) {
+				long bits = taken.get(w);
+				if ((bits & bit) == 0) {
+					return false;
+				}
+				if (taken.compareAndSet(w, bits, bits & ~bit)) {
+					return true;
+				}
+			}
+		}
+
+		boolean isTaken(int slot) {
+			return (taken.get(slot >>> 6) & (1L << (slot & 63))) != 0;
+		}
+
+		int taken() {
+			int count = 0;
+			for (int w = 0; w < taken.length(); w++) {
+				count += Long.bitCount(taken.get(w));
+			}
+			return count;
+		}
+
+		/** Bits of word w that belong to a table; the last word may be partly unused. */
+		private long validBits(int w) {
+			int remaining = tables.length - (w << 6);
+			return remaining >= 64 ? -1L : (1L << remaining) - 1;
+		}
+	}
+}
@@ -3,11 +3,14 @@ package restaurant.core.waiter.model;
 import java.util.concurrent.CompletableFuture;
 
 import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.Admission;
 import restaurant.core.kitchen.model.Kitchen;
 import restaurant.core.order.model.Order;
 import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.PaymentResult;
 import restaurant.payment.model.CashRegister;
 import restaurant.payment.model.Payment;
+import restaurant.payment.model.SplitBill;
 
 /**
  * Waiter acts as the interface between customer, kitchen, and cash register.
@@ -24,30 +27,67 @@ public class Waiter {
 
 	/**
 	 * Take an order from a customer and forward it to the kitchen.
+	 * 
+	 * @return whether the kitchen accepted, rejected or deferred the order
 	 */
-	public CompletableFuture<Order> takeOrder(Customer customer, Order order) {
+	public Admission takeOrder(Customer customer, Order order) {
 		Toolkit.logTime.accept("Waiter takes order from customer " + customer.getName());
-		return kitchen.acceptOrder(order);
+		Admission admission = kitchen.admit(order);
+		switch (admission) {
+		case Admission.Accepted a -> Toolkit.logger.accept(order, "Kitchen accepted the order.");
+		case Admission.Rejected r -> Toolkit.logger.accept(order, "Kitchen rejected the order: " + r.reason());
+		case Admission.Deferred d ->
+			Toolkit.logger.accept(order, "Kitchen is busy, retry after " + d.retryAfter().toMillis() + " ms");
+		}
+		return admission;
 	}
 
 	/**
-	 * Process a customer's payment for a given order.
+	 * Process a customer's payment for a given order. The waiter hands the payment
+	 * to the cash register and does not wait for the gateway to answer.
+	 * <p>
+	 * The status checks here only spare the register obvious mistakes; two
+	 * payments racing past them are still charged once, because the register
+	 * claims the order atomically. A payment for an order that is already being
+	 * paid or paid gets the result of the first payment.
+	 * 
+	 * @return completes once the payment is settled; an order that cannot be paid
+	 *         is declined right away
 	 */
-	public void processPayment(Customer customer, Order order, Payment payment) {
+	public CompletableFuture<PaymentResult> processPayment(Customer customer, Order order, Payment payment) {
 		Toolkit.logTime.accept("Waiter processes payment for customer " + customer.getName());
-		if (order.getStatus().isFinalized()) {
-			Toolkit.logger.accept(order, "Payment attempt ignored: Order already finalized.");
-			return;
+		if (order.getStatus().isPaymentStarted()) {
+			Toolkit.logger.accept(order, "Payment attempt repeated: Order already " + order.getStatus() + ".");
+			return cashRegister.payAsync(order, payment);
 		}
 		if (!order.getStatus().canBePaid()) {
 			Toolkit.logger.accept(order, "Payment attempt rejected: Order not ready yet (" + order.getStatus() + ")");
-			return;
+			return CompletableFuture
+					.completedFuture(new PaymentResult.Declined("Order not ready yet (" + order.getStatus() + ")"));
 		}
 
-		boolean success = cashRegister.pay(order, payment);
-		if (!success) {
-			Toolkit.logTime.accept("Payment failed. Call the manager...");
-			// error handling could be extended here
-		}
+		return cashRegister.payAsync(order, payment).whenComplete((result, e) -> {
+			if (result != null && !result.isApproved()) {
+				Toolkit.logTime.accept("Payment failed. Call the manager...");
+				// error handling could be extended here
+			}
+		});
+	}
+
+	/**
+	 * Process one guest's share of a split bill. The waiter does not wait for the
+	 * gateway, so all guests of a table can pay at the same time.
+	 * 
+	 * @param guest   the guest paying the share
+	 * @param bill    the split bill of the table's order
+	 * @param share   index of the share the guest pays
+	 * @param payment how the guest pays
+	 * @return completes once the share is settled
+	 */
+	public CompletableFuture<PaymentResult> processSharePayment(Customer guest, SplitBill bill, int share,
+			Payment payment) {
+		Toolkit.logTime.accept("Waiter processes share " + share + " of table " + bill.getOrder().getTableNumber()
+				+ " for " + guest.getName());
+		return cashRegister.payShare(bill, share, payment);
 	}
 }
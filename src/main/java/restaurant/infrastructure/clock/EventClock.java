@@ -0,0 +1,98 @@
+package restaurant.infrastructure.clock;
+
+import java.util.PriorityQueue;
+
+/**
+ * Clock of a discrete-event simulation. Instead of sleeping, the simulation
+ * schedules what should happen later; {@link #run()} then executes the events
+ * one after another on the calling thread and moves time straight to each of
+ * them. Nothing ever waits for real.
+ * <p>
+ * Not thread-safe: events must only be scheduled from the thread running the
+ * clock, usually from inside other events. It cannot let a thread wait, so it
+ * is a {@link TimeSource} and not a {@link SimulationClock}.
+ */
+public final class EventClock implements TimeSource {
+
+	private final PriorityQueue<Event> events = new PriorityQueue<>();
+	private long now;
+	private long sequence;
+	private long processed;
+
+	/**
+	 * Create an event clock starting at the current real time.
+	 */
+	public EventClock() {
+		this(System.currentTimeMillis());
+	}
+
+	/**
+	 * @param startMillis simulated time in epoch milliseconds before the first
+	 *                    event
+	 */
+	public EventClock(long startMillis) {
+		this.now = startMillis;
+	}
+
+	@Override
+	public long millis() {
+		return now;
+	}
+
+	/**
+	 * Run an action once the given amount of simulated time has passed. Events due
+	 * at the same time run in the order they were scheduled.
+	 *
+	 * @param delayMillis simulated milliseconds from now; 0 or less runs it after
+	 *                    the events already due now
+	 * @param action      what happens at that time
+	 */
+	public void schedule(long delayMillis, Runnable action) {
+		events.add(new Event(now + Math.max(0, delayMillis), sequence++, action));
+	}
+
+	/**
+	 * Run events until none are left, including those scheduled while running.
+	 */
+	public void run() {
+		runUntil(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Run all events due up to the given time and leave later ones queued.
+	 *
+	 * @param endMillis simulated time in epoch milliseconds to stop at
+	 */
+	public void runUntil(long endMillis) {
+		Event event;
+		while ((event = events.peek()) != null && event.time <= endMillis) {
+			events.poll();
+			now = event.time;
+			processed++;
+			event.action.run();
+		}
+	}
+
+	/** @return number of events waiting to run */
+	public int pending() {
+		return events.size();
+	}
+
+	/** @return number of events run so far */
+	public long processed() {
+		return processed;
+	}
+
+	@Override
+	public String toString() {
+		return "event time";
+	}
+
+	private record Event(long time, long sequence, Runnable action) implements Comparable<Event> {
+		@Override
+		public int compareTo(Event other) {
+			int byTime = Long.compare(time, other.time);
+			return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package restaurant.infrastructure.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock that runs {@code factor} times faster than real time. Simulated time
+ * starts at the real time of creation.
+ */
+public final class ScaledClock implements SimulationClock {
+	private final double factor;
+	private final long startMillis = System.currentTimeMillis();
+	private final long startNanos = System.nanoTime();
+
+	/**
+	 * @param factor how many times faster than real time; 1 is real time
+	 */
+	public ScaledClock(double factor) {
+		if (factor <= 0) {
+			throw new IllegalArgumentException("Factor must be greater than 0.");
+		}
+		this.factor = factor;
+	}
+
+	@Override
+	public long millis() {
+		return startMillis + (long) ((System.nanoTime() - startNanos) * factor / 1_000_000);
+	}
+
+	@Override
+	public void sleep(long millis) throws InterruptedException {
+		if (millis <= 0) {
+			return;
+		}
+		if (factor == 1.0) {
+			Thread.sleep(millis);
+		} else {
+			long nanos = (long) (TimeUnit.MILLISECONDS.toNanos(millis) / factor);
+			Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return factor == 1.0 ? "real time" : factor + "x real time";
+	}
+}
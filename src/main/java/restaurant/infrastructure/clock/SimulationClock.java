@@ -0,0 +1,39 @@
+package restaurant.infrastructure.clock;
+
+/**
+ * Source of time for the simulation. All simulated delays (customers arriving,
+ * cooking, paying) go through a clock, so the same day can run in real time,
+ * faster than real time or in virtual time without any real waiting.
+ * <p>
+ * A single-threaded event simulation cannot let a thread wait; its
+ * {@link EventClock} is only a {@link TimeSource}.
+ */
+public interface SimulationClock extends TimeSource {
+
+	/** Clock that waits for real, as the simulation always did */
+	SimulationClock REAL_TIME = new ScaledClock(1.0);
+
+	/**
+	 * Let the given amount of simulated time pass for the calling thread.
+	 *
+	 * @param millis simulated milliseconds to wait; nothing happens for 0 or less
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	void sleep(long millis) throws InterruptedException;
+
+	/**
+	 * @param factor how many times faster than real time, e.g. 100
+	 * @return a clock that shortens every delay by the factor
+	 */
+	static SimulationClock scaled(double factor) {
+		return new ScaledClock(factor);
+	}
+
+	/**
+	 * @return a new discrete-event clock that jumps to the next wake-up as soon as
+	 *         the simulation is idle
+	 */
+	static VirtualClock virtual() {
+		return new VirtualClock();
+	}
+}
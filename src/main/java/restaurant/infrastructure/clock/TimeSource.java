@@ -0,0 +1,26 @@
+package restaurant.infrastructure.clock;
+
+import java.time.Instant;
+
+/**
+ * Where the simulation reads the time from. Reading the time never waits, so
+ * this is all a single-threaded {@link EventClock} offers; clocks that can also
+ * let a thread wait are {@link SimulationClock}s.
+ */
+public interface TimeSource {
+
+	/** Real time, as the system clock tells it */
+	TimeSource SYSTEM = System::currentTimeMillis;
+
+	/**
+	 * @return the current simulated time in epoch milliseconds
+	 */
+	long millis();
+
+	/**
+	 * @return the current simulated time
+	 */
+	default Instant now() {
+		return Instant.ofEpochMilli(millis());
+	}
+}
@@ -0,0 +1,150 @@
+package restaurant.infrastructure.clock;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Discrete-event clock: sleeping threads are queued by wake-up time, and as
+ * soon as the simulation has been idle for a short real-time quiet period the
+ * clock jumps straight to the next wake-up. A simulated day therefore takes
+ * only as long as the work done in it.
+ * <p>
+ * The clock cannot see threads that are busy without sleeping; the quiet
+ * period gives them time to reach their next sleep before time moves on.
+ */
+public final class VirtualClock implements SimulationClock, AutoCloseable {
+
+	/** Default real time without any sleep or wake-up before time jumps */
+	public static final long DEFAULT_QUIET_MICROS = 1000;
+
+	private final Object lock = new Object();
+	private final PriorityQueue<Wakeup> wakeups = new PriorityQueue<>();
+	private final long quietNanos;
+	private final Thread advancer;
+	private volatile long now = System.currentTimeMillis();
+	private long lastActivity = System.nanoTime();
+	private long sequence;
+
+	/**
+	 * Create a virtual clock with the default quiet period.
+	 */
+	public VirtualClock() {
+		this(DEFAULT_QUIET_MICROS, TimeUnit.MICROSECONDS);
+	}
+
+	/**
+	 * @param quietPeriod real time without activity after which time jumps
+	 * @param unit        unit of the quiet period
+	 */
+	public VirtualClock(long quietPeriod, TimeUnit unit) {
+		this.quietNanos = unit.toNanos(quietPeriod);
+		this.advancer = Thread.ofPlatform().daemon().name("virtual-clock").start(this::advance);
+	}
+
+	@Override
+	public long millis() {
+		return now;
+	}
+
+	@Override
+	public void sleep(long millis) throws InterruptedException {
+		if (millis <= 0) {
+			return;
+		}
+		Wakeup wakeup;
+		synchronized (lock) {
+			wakeup = new Wakeup(now + millis, sequence++, Thread.currentThread());
+			wakeups.add(wakeup);
+			lastActivity = System.nanoTime();
+			lock.notifyAll();
+		}
+		while (!wakeup.released) {
+			LockSupport.park(this);
+			if (Thread.interrupted()) {
+				synchronized (lock) {
+					if (wakeups.remove(wakeup)) {
+						throw new InterruptedException();
+					}
+				}
+				// Released at the same moment; keep the interrupt for later
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/** @return number of threads waiting for their wake-up */
+	public int sleepers() {
+		synchronized (lock) {
+			return wakeups.size();
+		}
+	}
+
+	/**
+	 * Stop the clock thread. Threads still sleeping are not woken up any more.
+	 */
+	@Override
+	public void close() {
+		advancer.interrupt();
+	}
+
+	/**
+	 * Runs on the clock thread: wait for a quiet simulation, then jump to the
+	 * next wake-up time and release every thread due at it.
+	 */
+	private void advance() {
+		try {
+			while (true) {
+				synchronized (lock) {
+					while (wakeups.isEmpty()) {
+						lock.wait();
+					}
+					long idle = System.nanoTime() - lastActivity;
+					if (idle < quietNanos) {
+						long remaining = quietNanos - idle;
+						lock.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+						continue;
+					}
+					long next = wakeups.peek().time;
+					now = Math.max(now, next);
+					while (!wakeups.isEmpty() && wakeups.peek().time <= next) {
+						Wakeup wakeup = wakeups.poll();
+						wakeup.released = true;
+						LockSupport.unpark(wakeup.thread);
+					}
+					lastActivity = System.nanoTime();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "virtual time";
+	}
+
+	/**
+	 * A sleeping thread and when it wants to wake up; equal times keep their
+	 * order of arrival.
+	 */
+	private static final class Wakeup implements Comparable<Wakeup> {
+		private final long time;
+		private final long sequence;
+		private final Thread thread;
+		private volatile boolean released;
+
+		Wakeup(long time, long sequence, Thread thread) {
+			this.time = time;
+			this.sequence = sequence;
+			this.thread = thread;
+		}
+
+		@Override
+		public int compareTo(Wakeup other) {
+			int byTime = Long.compare(time, other.time);
+			return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+		}
+	}
+}
@@ -14,6 +14,7 @@ import jakarta.validation.constraints.Positive;
 public class AppProperties {
 
 	private Simulation simulation = new Simulation();
+	private Journal journal = new Journal();
 	private Auth auth = new Auth();
 
 	public static class Simulation {
@@ -22,6 +23,70 @@ public class AppProperties {
 		 */
 		private boolean enabled;
 
+		/**
+		 * Number of tables of a simulated restaurant.
+		 */
+		@Positive(message = "app.simulation.tables must be greater than 0")
+		private int tables = 20;
+
+		/**
+		 * Number of chefs of the default restaurant.
+		 */
+		@Positive(message = "app.simulation.chefs must be greater than 0")
+		private int chefs = 3;
+
+		/**
+		 * How many arriving customers of one restaurant may have a thread at once.
+		 * Keeps one very large day from starving the other restaurants.
+		 */
+		@Positive(message = "app.simulation.customerBudget must be greater than 0")
+		private int customerBudget = 1000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getTables() {
+			return tables;
+		}
+
+		public void setTables(int tables) {
+			this.tables = tables;
+		}
+
+		public int getChefs() {
+			return chefs;
+		}
+
+		public void setChefs(int chefs) {
+			this.chefs = chefs;
+		}
+
+		public int getCustomerBudget() {
+			return customerBudget;
+		}
+
+		public void setCustomerBudget(int customerBudget) {
+			this.customerBudget = customerBudget;
+		}
+	}
+
+	public static class Journal {
+		/**
+		 * Whether order status changes are journaled and restored on the start.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Directory of the journal segment files.
+		 */
+		@NotBlank(message = "app.journal.directory must not be blank")
+		private String directory = "data/journal";
+
 		public boolean isEnabled() {
 			return enabled;
 		}
@@ -29,6 +94,14 @@ public class AppProperties {
 		public void setEnabled(boolean enabled) {
 			this.enabled = enabled;
 		}
+
+		public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
 	}
 
 	public static class Auth {
@@ -104,4 +177,8 @@ public class AppProperties {
 	public Simulation getSimulation() {
 		return simulation;
 	}
+
+	public Journal getJournal() {
+		return journal;
+	}
 }
@@ -8,6 +8,9 @@ import org.springframework.web.context.request.WebRequest;
 
 import restaurant.auth.exception.RoleNotFoundException;
 import restaurant.auth.exception.UserNotFoundException;
+import restaurant.simulation.exception.RestaurantConflictException;
+import restaurant.simulation.exception.RestaurantNotFoundException;
+import restaurant.simulation.exception.SimulationJobNotFoundException;
 
 import java.util.Collections;
 
@@ -27,6 +30,21 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, "AUTH-4002", ex.getMessage(), request, null);
     }
 
+    @ExceptionHandler(RestaurantNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleRestaurantNotFound(RestaurantNotFoundException ex, WebRequest request) {
+        return buildResponse(HttpStatus.NOT_FOUND, "SIM-4041", ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(SimulationJobNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleJobNotFound(SimulationJobNotFoundException ex, WebRequest request) {
+        return buildResponse(HttpStatus.NOT_FOUND, "SIM-4042", ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(RestaurantConflictException.class)
+    public ResponseEntity<ApiErrorResponse> handleRestaurantConflict(RestaurantConflictException ex, WebRequest request) {
+        return buildResponse(HttpStatus.CONFLICT, "SIM-4091", ex.getMessage(), request, null);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleAllExceptions(Exception ex, WebRequest request) {
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "GEN-5000",
@@ -0,0 +1,255 @@
+package restaurant.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderRegistry;
+import restaurant.core.order.model.OrderStatus;
+
+/**
+ * Append-only journal of order status changes in memory-mapped segment files.
+ * Every event is a fixed-size binary record, so appending only writes into the
+ * mapped buffer and allocates nothing. A full segment is forced to disk and
+ * the next one is mapped.
+ * <p>
+ * An application starts it with {@link #recover}, which brings back the orders
+ * of earlier runs and then journals every order until the journal is closed.
+ * {@link #replay} and {@link #restore} read a journal without opening it.
+ */
+public final class OrderJournal implements BiConsumer<Order, OrderStatus>, AutoCloseable {
+
+	/** Bytes per event: id, timestamp, table, status, padding */
+	static final int RECORD_SIZE = 24;
+	/** Default segment size: 64 MB, about 2.8 million events */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final String PREFIX = "orders-";
+	private static final String SUFFIX = ".journal";
+	private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+	private final Path directory;
+	private final int segmentSize;
+	private int segmentIndex;
+	private MappedByteBuffer segment;
+	private int position;
+
+	private OrderJournal(Path directory, int segmentSize) {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Open the journal in a directory with the default segment size.
+	 *
+	 * @param directory where the segment files are kept; created if missing
+	 * @return the journal, positioned after the last event
+	 */
+	public static OrderJournal open(Path directory) {
+		return open(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param directory   where the segment files are kept; created if missing
+	 * @param segmentSize size of a segment file in bytes
+	 * @return the journal, positioned after the last event
+	 */
+	public static OrderJournal open(Path directory, int segmentSize) {
+		if (segmentSize < RECORD_SIZE) {
+			throw new IllegalArgumentException("Segment must hold at least one event.");
+		}
+		OrderJournal journal = new OrderJournal(directory, segmentSize - segmentSize % RECORD_SIZE);
+		try {
+			Files.createDirectories(directory);
+			List<Path> segments = segments(directory);
+			journal.segmentIndex = segments.isEmpty() ? 0 : segments.size() - 1;
+			journal.map();
+			// Continue behind the last complete event of the newest segment
+			while (journal.position < journal.segmentSize && journal.segment.getLong(journal.position) != 0) {
+				journal.position += RECORD_SIZE;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not open order journal in " + directory, e);
+		}
+		return journal;
+	}
+
+	/**
+	 * Journal the current status of an order at the time of its clock.
+	 */
+	@Override
+	public void accept(Order order, OrderStatus status) {
+		append(order.getId(), order.getTableNumber(), status, order.getClock().millis());
+	}
+
+	/**
+	 * Append one event. The order id is written last so that a half-written
+	 * event is never replayed.
+	 *
+	 * @param orderId     id of the order, must not be 0
+	 * @param tableNumber table of the order
+	 * @param status      the new status
+	 * @param timestamp   epoch milliseconds of the change
+	 */
+	public synchronized void append(long orderId, int tableNumber, OrderStatus status, long timestamp) {
+		if (position == segmentSize) {
+			roll();
+		}
+		MappedByteBuffer buffer = segment;
+		int at = position;
+		buffer.putLong(at + 8, timestamp);
+		buffer.putInt(at + 16, tableNumber);
+		buffer.put(at + 20, (byte) status.ordinal());
+		buffer.putLong(at, orderId);
+		position = at + RECORD_SIZE;
+	}
+
+	/**
+	 * Write all events to disk.
+	 */
+	public synchronized void flush() {
+		segment.force();
+	}
+
+	/**
+	 * Stop journaling orders and write all events to disk.
+	 */
+	@Override
+	public synchronized void close() {
+		Order.removeStatusListener(this);
+		flush();
+	}
+
+	/**
+	 * Start journaling on application startup: put the orders of earlier runs
+	 * into the registry, then journal the status changes of all orders until the
+	 * journal is closed.
+	 *
+	 * @param directory where the segment files are kept; created if missing
+	 * @param registry  receives the orders of earlier runs
+	 * @return the journal, registered with all orders
+	 * @see #restoreOrders(Path, OrderRegistry)
+	 */
+	public static OrderJournal recover(Path directory, OrderRegistry registry) {
+		restoreOrders(directory, registry);
+		OrderJournal journal = open(directory);
+		Order.addStatusListener(journal);
+		return journal;
+	}
+
+	/**
+	 * Read all events of a journal directory in the order they were appended.
+	 *
+	 * @param directory the journal directory
+	 * @param handler   called once per event
+	 */
+	public static void replay(Path directory, Consumer<JournalRecord> handler) {
+		try {
+			for (Path file : segments(directory)) {
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+					MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+					for (int at = 0; at + RECORD_SIZE <= buffer.limit(); at += RECORD_SIZE) {
+						long orderId = buffer.getLong(at);
+						if (orderId == 0) {
+							break;
+						}
+						handler.accept(new JournalRecord(orderId, buffer.getInt(at + 16), STATUSES[buffer.get(at + 20)],
+								buffer.getLong(at + 8)));
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not replay order journal in " + directory, e);
+		}
+	}
+
+	/**
+	 * Rebuild the last known status of every order and make sure new orders do
+	 * not reuse their ids.
+	 *
+	 * @param directory the journal directory
+	 * @return the newest event per order id
+	 */
+	public static Map<Long, JournalRecord> restore(Path directory) {
+		Map<Long, JournalRecord> orders = new HashMap<>();
+		replay(directory, event -> orders.put(event.orderId(), event));
+		orders.keySet().stream().mapToLong(Long::longValue).max().ifPresent(Order::continueIdsAfter);
+		return orders;
+	}
+
+	/**
+	 * Rebuild every order of a journal with its last known status and register
+	 * it. The journal keeps statuses, not dishes, so the orders are rebuilt as in
+	 * {@link Order#restore}. New orders do not reuse their ids.
+	 *
+	 * @param directory the journal directory
+	 * @param registry  receives the rebuilt orders
+	 * @return number of rebuilt orders
+	 */
+	public static int restoreOrders(Path directory, OrderRegistry registry) {
+		Map<Long, JournalRecord> created = new HashMap<>();
+		Map<Long, JournalRecord> latest = new HashMap<>();
+		replay(directory, event -> {
+			created.putIfAbsent(event.orderId(), event);
+			latest.put(event.orderId(), event);
+		});
+		for (JournalRecord event : latest.values()) {
+			Order order = Order.restore(event.orderId(), event.tableNumber(), event.status(),
+					created.get(event.orderId()).timestamp());
+			registry.register(order, order.getFuture());
+		}
+		latest.keySet().stream().mapToLong(Long::longValue).max().ifPresent(Order::continueIdsAfter);
+		return latest.size();
+	}
+
+	/** Force the full segment to disk and map the next one. */
+	private void roll() {
+		segment.force();
+		segmentIndex++;
+		try {
+			map();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not roll order journal in " + directory, e);
+		}
+	}
+
+	private void map() throws IOException {
+		Path file = directory.resolve(String.format("%s%05d%s", PREFIX, segmentIndex, SUFFIX));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			// The mapping stays valid after the channel is closed
+			segment = channel.map(MapMode.READ_WRITE, 0, segmentSize);
+		}
+		position = 0;
+	}
+
+	private static List<Path> segments(Path directory) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(f -> {
+				String name = f.getFileName().toString();
+				return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+			}).sorted().toList();
+		}
+	}
+
+	/**
+	 * One journaled status change of an order.
+	 */
+	public record JournalRecord(long orderId, int tableNumber, OrderStatus status, long timestamp) {
+	}
+}
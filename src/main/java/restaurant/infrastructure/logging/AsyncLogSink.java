@@ -0,0 +1,240 @@
+package restaurant.infrastructure.logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Log sink that takes lines off the caller's thread. Callers only claim a slot
+ * in a ring buffer and store the time, table and message there; one writer
+ * thread formats the lines into a reused builder and prints them in batches.
+ * The timestamp text is cached and only rebuilt when the millisecond changes.
+ * An idle writer parks until a caller publishes a line and wakes it.
+ */
+public class AsyncLogSink implements LogSink, AutoCloseable {
+
+	/** How long a caller waits for a free slot before looking again */
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+	private static final int LINE_CAPACITY = 128;
+
+	private final PrintStream out;
+	private final OverflowPolicy policy;
+	private final int mask;
+	private final long[] times;
+	private final int[] tables;
+	private final String[] messages;
+	/** Sequence stored in each slot once it is readable */
+	private final AtomicLongArray published;
+	/** Next sequence a caller claims */
+	private final AtomicLong tail = new AtomicLong();
+	/** Next sequence the writer reads */
+	private volatile long head;
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder late = new LongAdder();
+	private final Thread writer;
+	private volatile boolean running = true;
+	/** Set by the writer before it parks; callers that see it wake the writer */
+	private volatile boolean sleeping;
+	/** Hands the buffer over from the stopped writer to callers that log after close */
+	private final Object exitLock = new Object();
+	private boolean exited;
+
+	// Only used by the writer thread
+	private final StringBuilder batch;
+	private final ZoneId zone = ZoneId.systemDefault();
+	private final char[] timeText = new char[9]; // mm:ss.SSS
+	private long cachedMillis = Long.MIN_VALUE;
+
+	/**
+	 * Create a sink printing to the given stream.
+	 *
+	 * @param out      where the lines are printed
+	 * @param capacity how many lines may wait; rounded up to a power of two
+	 * @param policy   what to do with a line when all slots are taken
+	 */
+	public AsyncLogSink(PrintStream out, int capacity, OverflowPolicy policy) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		}
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		size = Math.max(size, 1);
+		this.out = out;
+		this.policy = policy;
+		this.mask = size - 1;
+		this.times = new long[size];
+		this.tables = new int[size];
+		this.messages = new String[size];
+		this.published = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			published.set(i, -1);
+		}
+		this.batch = new StringBuilder(Math.min(size, 1024) * LINE_CAPACITY);
+		this.writer = Thread.ofPlatform().daemon().name("log-writer").start(this::drainLoop);
+	}
+
+	@Override
+	public void log(long timeMillis, int tableNumber, String message) {
+		long sequence;
+		while (true) {
+			sequence = tail.get();
+			if (sequence - head > mask) {
+				if (policy == OverflowPolicy.DROP || !running) {
+					dropped.increment();
+					return;
+				}
+				LockSupport.parkNanos(FULL_PARK_NANOS);
+			} else if (tail.compareAndSet(sequence, sequence + 1)) {
+				break;
+			}
+		}
+		int slot = (int) (sequence & mask);
+		times[slot] = timeMillis;
+		tables[slot] = tableNumber;
+		messages[slot] = message;
+		// A full write, so either this caller sees the writer sleeping or the writer sees the line
+		published.set(slot, sequence);
+		if (sleeping) {
+			LockSupport.unpark(writer);
+		}
+		if (!running) {
+			printAfterClose();
+		}
+	}
+
+	/**
+	 * Once the writer has stopped, the caller prints its line itself.
+	 */
+	private void printAfterClose() {
+		synchronized (exitLock) {
+			if (exited) {
+				late.add(drain());
+			}
+		}
+	}
+
+	/** @return number of lines discarded because the buffer was full */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/** @return number of lines logged after close, printed by the caller's thread */
+	public long getLateCount() {
+		return late.sum();
+	}
+
+	/** @return number of lines waiting to be printed */
+	public int getPendingCount() {
+		return (int) (tail.get() - head);
+	}
+
+	/**
+	 * Print all lines logged so far and stop the writer thread. Lines logged
+	 * later are printed by the thread that logs them.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		LockSupport.unpark(writer);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void drainLoop() {
+		while (true) {
+			boolean stopping = !running;
+			if (drain() == 0) {
+				if (stopping) {
+					synchronized (exitLock) {
+						// A line claimed later is printed by its caller
+						if (head == tail.get()) {
+							exited = true;
+							return;
+						}
+					}
+				}
+				idle();
+			}
+		}
+	}
+
+	/**
+	 * Park until a caller publishes the next line or the sink is closed.
+	 */
+	private void idle() {
+		sleeping = true;
+		if (published.get((int) (head & mask)) != head && running) {
+			LockSupport.park(this);
+		}
+		sleeping = false;
+	}
+
+	/** @return number of lines printed */
+	private int drain() {
+		long next = head;
+		int count = 0;
+		batch.setLength(0);
+		while (true) {
+			int slot = (int) (next & mask);
+			if (published.get(slot) != next) {
+				break;
+			}
+			append(times[slot], tables[slot], messages[slot]);
+			messages[slot] = null;
+			next++;
+			count++;
+			// Free the slots early if the batch gets long
+			if ((count & 1023) == 0) {
+				head = next;
+				flush();
+			}
+		}
+		head = next;
+		if (batch.length() > 0) {
+			flush();
+		}
+		return count;
+	}
+
+	private void flush() {
+		out.append(batch);
+		out.flush();
+		batch.setLength(0);
+	}
+
+	/** Same layout as the console output of {@link Toolkit#logTime} and {@link Toolkit#logger}. */
+	private void append(long timeMillis, int tableNumber, String message) {
+		batch.append(timeText(timeMillis)).append(": ");
+		if (tableNumber != NO_TABLE) {
+			batch.append("Table ").append(tableNumber).append(" | ");
+		}
+		batch.append(message).append(System.lineSeparator());
+	}
+
+	private char[] timeText(long millis) {
+		if (millis != cachedMillis) {
+			if (millis / 1000 == cachedMillis / 1000) {
+				// Same second: only the milliseconds change
+				int ms = (int) (millis % 1000);
+				timeText[6] = (char) ('0' + ms / 100);
+				timeText[7] = (char) ('0' + ms / 10 % 10);
+				timeText[8] = (char) ('0' + ms % 10);
+			} else {
+				LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone).format(Toolkit.FORMATTER).getChars(0, 9,
+						timeText, 0);
+			}
+			cachedMillis = millis;
+		}
+		return timeText;
+	}
+}
@@ -0,0 +1,24 @@
+package restaurant.infrastructure.logging;
+
+/**
+ * Destination of the log lines written through {@code Toolkit.logTime} and
+ * {@code Toolkit.logger}. The caller only hands over the raw parts; formatting
+ * is up to the sink.
+ */
+@FunctionalInterface
+public interface LogSink {
+
+	/** Table number of a line that does not belong to an order */
+	int NO_TABLE = -1;
+
+	/** Sink that drops every line */
+	LogSink DISCARD = (timeMillis, tableNumber, message) -> {
+	};
+
+	/**
+	 * @param timeMillis  when the line was logged, in epoch milliseconds
+	 * @param tableNumber table of the order, or {@link #NO_TABLE}
+	 * @param message     the text to log
+	 */
+	void log(long timeMillis, int tableNumber, String message);
+}
@@ -0,0 +1,11 @@
+package restaurant.infrastructure.logging;
+
+/**
+ * What an {@link AsyncLogSink} does with a line when its buffer is full.
+ */
+public enum OverflowPolicy {
+	/** Discard the line and count it */
+	DROP,
+	/** Wait until the writer has made room */
+	BLOCK
+}
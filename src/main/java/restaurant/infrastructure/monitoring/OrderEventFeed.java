@@ -0,0 +1,253 @@
+package restaurant.infrastructure.monitoring;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderEvent;
+import restaurant.core.order.model.OrderStatus;
+
+/**
+ * Hands order status changes to any number of live subscribers, e.g.
+ * dashboards. Register it with {@link Order#addStatusListener}.
+ * <p>
+ * The thread changing an order only offers the event to one bounded queue and
+ * never waits; the event is dropped if the queue is full. One dispatcher
+ * thread moves the events into a small buffer per subscriber, and every
+ * subscriber is sent its events by its own virtual thread. A slow subscriber
+ * therefore only falls behind itself: its buffer keeps only the latest event
+ * of every order and drops the oldest orders when it is full.
+ */
+public final class OrderEventFeed implements BiConsumer<Order, OrderStatus>, AutoCloseable {
+
+	/** Default number of events waiting for the dispatcher */
+	public static final int DEFAULT_CAPACITY = 65_536;
+	/** Default number of orders buffered per subscriber */
+	public static final int DEFAULT_SUBSCRIBER_CAPACITY = 1024;
+
+	private final BlockingQueue<OrderEvent> incoming;
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+	private final LongAdder dropped = new LongAdder();
+	private final Thread dispatcher;
+	private volatile boolean running = true;
+
+	public OrderEventFeed() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity how many events may wait for the dispatcher
+	 */
+	public OrderEventFeed(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		}
+		this.incoming = new LinkedBlockingQueue<>(capacity);
+		this.dispatcher = Thread.ofPlatform().daemon().name("order-feed").start(this::dispatchLoop);
+	}
+
+	@Override
+	public void accept(Order order, OrderStatus status) {
+		if (subscriptions.isEmpty() || !running) {
+			return;
+		}
+		if (!incoming.offer(OrderEvent.of(order, status))) {
+			dropped.increment();
+		}
+	}
+
+	/**
+	 * Subscribe with the default buffer size.
+	 *
+	 * @see #subscribe(Consumer, int)
+	 */
+	public Subscription subscribe(Consumer<OrderEvent> sink) {
+		return subscribe(sink, DEFAULT_SUBSCRIBER_CAPACITY);
+	}
+
+	/**
+	 * Start sending events to the sink. The sink is called on the subscriber's own
+	 * thread, one event after the other; if it throws, the subscription ends.
+	 *
+	 * @param sink     receives the events, may block
+	 * @param capacity how many orders may wait for the sink
+	 * @return the subscription; close it to stop
+	 */
+	public Subscription subscribe(Consumer<OrderEvent> sink, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		}
+		Subscription subscription = new Subscription(sink, capacity);
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+	/** @return number of live subscriptions */
+	public int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	/** @return number of events discarded because the dispatcher fell behind */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Stop the dispatcher and end all subscriptions. Events already buffered are
+	 * still sent.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		try {
+			dispatcher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		for (Subscription subscription : subscriptions) {
+			subscription.close();
+		}
+	}
+
+	private void dispatchLoop() {
+		List<OrderEvent> batch = new ArrayList<>();
+		while (running || !incoming.isEmpty()) {
+			try {
+				OrderEvent first = incoming.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				incoming.drainTo(batch);
+				for (Subscription subscription : subscriptions) {
+					subscription.offer(batch);
+				}
+				batch.clear();
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * One subscriber of the feed with its own buffer and sending thread.
+	 */
+	public final class Subscription implements AutoCloseable {
+		private final Consumer<OrderEvent> sink;
+		private final int capacity;
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition ready = lock.newCondition();
+		/** Latest waiting event of every order, oldest order first */
+		private LinkedHashMap<Long, OrderEvent> pending = new LinkedHashMap<>();
+		private long droppedEvents;
+		private long coalescedEvents;
+		private volatile boolean open = true;
+
+		private Subscription(Consumer<OrderEvent> sink, int capacity) {
+			this.sink = sink;
+			this.capacity = capacity;
+			Thread.ofVirtual().name("order-feed-subscriber").start(this::sendLoop);
+		}
+
+		private void offer(List<OrderEvent> events) {
+			lock.lock();
+			try {
+				if (!open) {
+					return;
+				}
+				for (OrderEvent event : events) {
+					if (pending.containsKey(event.orderId())) {
+						coalescedEvents++;
+					} else if (pending.size() >= capacity) {
+						Iterator<OrderEvent> oldest = pending.values().iterator();
+						oldest.next();
+						oldest.remove();
+						droppedEvents++;
+					}
+					pending.put(event.orderId(), event);
+				}
+				ready.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void sendLoop() {
+			while (true) {
+				LinkedHashMap<Long, OrderEvent> batch;
+				lock.lock();
+				try {
+					while (pending.isEmpty() && open) {
+						ready.await();
+					}
+					if (pending.isEmpty()) {
+						return;
+					}
+					batch = pending;
+					pending = new LinkedHashMap<>();
+				} catch (InterruptedException e) {
+					return;
+				} finally {
+					lock.unlock();
+				}
+				try {
+					batch.values().forEach(sink);
+				} catch (RuntimeException e) {
+					close();
+					return;
+				}
+			}
+		}
+
+		/** @return number of events replaced by a newer event of the same order */
+		public long getCoalescedCount() {
+			lock.lock();
+			try {
+				return coalescedEvents;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/** @return number of events discarded because the buffer was full */
+		public long getDroppedCount() {
+			lock.lock();
+			try {
+				return droppedEvents;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/** @return false once the subscription has ended */
+		public boolean isOpen() {
+			return open;
+		}
+
+		/**
+		 * Stop receiving events. Events already buffered are still sent.
+		 */
+		@Override
+		public void close() {
+			subscriptions.remove(this);
+			lock.lock();
+			try {
+				open = false;
+				ready.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package restaurant.infrastructure.monitoring;
+
+/**
+ * Fixed-size histogram of wait times with 100 ms resolution. Recording is a
+ * single array increment, memory does not grow with the number of values, and
+ * histograms of several runs can be merged to get percentiles over all of
+ * them. Waits of an hour or longer share the last bucket.
+ * <p>
+ * Not thread-safe; merge per-thread histograms instead.
+ */
+public final class WaitTimeHistogram {
+
+	/** Width of one bucket in milliseconds */
+	public static final long RESOLUTION_MILLIS = 100;
+	private static final int BUCKETS = 36_000; // one hour
+
+	private final long[] counts = new long[BUCKETS];
+	private long count;
+	private long totalMillis;
+
+	/**
+	 * Record one wait.
+	 *
+	 * @param millis the wait in milliseconds; negative values count as 0
+	 */
+	public void record(long millis) {
+		long wait = Math.max(0, millis);
+		counts[(int) Math.min(wait / RESOLUTION_MILLIS, BUCKETS - 1)]++;
+		count++;
+		totalMillis += wait;
+	}
+
+	/**
+	 * Add all waits of another histogram to this one.
+	 */
+	public void merge(WaitTimeHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		totalMillis += other.totalMillis;
+	}
+
+	/**
+	 * @param percentile between 0 and 100, e.g. 99
+	 * @return the upper bound in ms of the bucket holding that percentile, or 0
+	 *         if nothing was recorded
+	 */
+	public long percentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return (i + 1) * RESOLUTION_MILLIS;
+			}
+		}
+		return BUCKETS * RESOLUTION_MILLIS;
+	}
+
+	/** @return number of recorded waits */
+	public long count() {
+		return count;
+	}
+
+	/** @return average wait in ms, or 0 if nothing was recorded */
+	public double mean() {
+		return count == 0 ? 0 : (double) totalMillis / count;
+	}
+}
@@ -0,0 +1,131 @@
+package restaurant.infrastructure.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the first value stored under a key for a limited time, e.g. the
+ * result of a payment under its idempotency key, so that repeated requests get
+ * the same answer instead of being processed again.
+ * <p>
+ * Storing only locks the one hash bin of the key, so requests for different
+ * keys never wait for each other. Expired entries are replaced when their key
+ * comes again and are swept out every {@value #SWEEP_EVERY} stores; there is no
+ * background thread.
+ *
+ * @param <K> the key, e.g. an idempotency key
+ * @param <V> the remembered value
+ */
+public final class IdempotencyCache<K, V> {
+
+	/** A sweep for expired entries runs after this many stores */
+	static final int SWEEP_EVERY = 1024;
+
+	private record Entry<V>(V value, long expiresAt) {
+	}
+
+	private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+	private final long ttlNanos;
+	private final LongSupplier nanoClock;
+	private final AtomicInteger storesSinceSweep = new AtomicInteger();
+
+	/**
+	 * @param ttl how long a value is remembered
+	 */
+	public IdempotencyCache(Duration ttl) {
+		this(ttl, System::nanoTime);
+	}
+
+	/**
+	 * @param ttl       how long a value is remembered
+	 * @param nanoClock current time in nanoseconds, e.g. {@link System#nanoTime}
+	 */
+	public IdempotencyCache(Duration ttl, LongSupplier nanoClock) {
+		if (ttl.isNegative() || ttl.isZero()) {
+			throw new IllegalArgumentException("TTL must be positive.");
+		}
+		this.ttlNanos = ttl.toNanos();
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * Store the value unless a value for the key is still remembered. Of several
+	 * threads storing the same key, exactly one wins.
+	 *
+	 * @return the value remembered earlier, or null if the given value was stored
+	 */
+	public V putIfAbsent(K key, V value) {
+		long now = nanoClock.getAsLong();
+		Entry<V> fresh = new Entry<>(value, now + ttlNanos);
+		Entry<V> kept = entries.compute(key, (k, earlier) -> earlier == null || expired(earlier, now) ? fresh : earlier);
+		if (storesSinceSweep.incrementAndGet() >= SWEEP_EVERY) {
+			storesSinceSweep.set(0);
+			evictExpired();
+		}
+		return kept == fresh ? null : kept.value();
+	}
+
+	/** @return the value remembered for the key, or null */
+	public V get(K key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (expired(entry, nanoClock.getAsLong())) {
+			entries.remove(key, entry);
+			return null;
+		}
+		return entry.value();
+	}
+
+	/**
+	 * Replace the value remembered for the key if it is still the given one. The
+	 * entry keeps its expiry time.
+	 *
+	 * @return false if another value or none is remembered for the key
+	 */
+	public boolean replace(K key, V expected, V value) {
+		Entry<V> entry = entries.get(key);
+		return entry != null && entry.value() == expected && !expired(entry, nanoClock.getAsLong())
+				&& entries.replace(key, entry, new Entry<>(value, entry.expiresAt()));
+	}
+
+	/**
+	 * Forget the value stored under the key, e.g. for a request that was turned
+	 * away before it was processed, so that it can be made again.
+	 *
+	 * @return false if another value or none is remembered for the key
+	 */
+	public boolean remove(K key, V value) {
+		Entry<V> entry = entries.get(key);
+		return entry != null && entry.value() == value && entries.remove(key, entry);
+	}
+
+	/**
+	 * Drop all expired entries now.
+	 *
+	 * @return number of entries dropped
+	 */
+	public int evictExpired() {
+		long now = nanoClock.getAsLong();
+		int evicted = 0;
+		for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+			if (expired(entry.getValue(), now) && entries.remove(entry.getKey(), entry.getValue())) {
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+
+	/** @return number of remembered keys, including expired ones not swept yet */
+	public int size() {
+		return entries.size();
+	}
+
+	private static boolean expired(Entry<?> entry, long now) {
+		return now - entry.expiresAt() >= 0;
+	}
+}
@@ -1,19 +1,27 @@
 package restaurant.infrastructure.util;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 import restaurant.core.customer.model.Customer;
 import restaurant.core.model.Dish;
 import restaurant.core.order.model.Order;
+import restaurant.core.table.model.TableAllocator;
+import restaurant.infrastructure.clock.TimeSource;
+import restaurant.infrastructure.logging.LogSink;
 import restaurant.simulation.Restaurant;
 
 /**
@@ -25,9 +33,6 @@ public class Toolkit {
 	/** Formatter for timestamps (mm:ss.SSS) */
 	public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("mm:ss.SSS");
 
-	/** Supplies the current time as formatted string */
-	public static final Supplier<String> now = () -> LocalDateTime.now().format(FORMATTER);
-
 	/**
 	 * TriConsumer – accepts three arguments without return value.
 	 */
@@ -43,9 +48,67 @@ public class Toolkit {
 		}
 	}
 
+	/** Prints each line right away on the caller's thread to System.out */
+	public static final LogSink consoleSink = (time, table, msg) -> {
+		String text = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()).format(FORMATTER);
+		if (table == LogSink.NO_TABLE) {
+			System.out.printf("%s: %s%n", text, msg);
+		} else {
+			System.out.printf("%s: Table %d | %s%n", text, table, msg);
+		}
+	};
+
+	/** Where logTime and logger write to */
+	private static volatile LogSink logSink = consoleSink;
+
+	/** Replaces logSink for the current thread only, see {@link #withLogSink} */
+	private static final ThreadLocal<LogSink> threadSink = new ThreadLocal<>();
+
+	/**
+	 * Redirect logTime and logger, e.g. to an
+	 * {@link restaurant.infrastructure.logging.AsyncLogSink}.
+	 * 
+	 * @param sink the new destination of all log lines
+	 */
+	public static void setLogSink(LogSink sink) {
+		logSink = sink;
+	}
+
+	/** @return the current destination of all log lines */
+	public static LogSink getLogSink() {
+		return logSink;
+	}
+
+	/**
+	 * Run a task whose log lines on this thread go to the given sink instead,
+	 * e.g. to silence one of many simulations running in parallel without
+	 * touching the others.
+	 * 
+	 * @param sink destination of the task's log lines
+	 * @param task the task to run on the calling thread
+	 */
+	public static void withLogSink(LogSink sink, Runnable task) {
+		LogSink previous = threadSink.get();
+		threadSink.set(sink);
+		try {
+			task.run();
+		} finally {
+			if (previous == null) {
+				threadSink.remove();
+			} else {
+				threadSink.set(previous);
+			}
+		}
+	}
+
+	private static LogSink sink() {
+		LogSink sink = threadSink.get();
+		return sink != null ? sink : logSink;
+	}
+
 	/** Logs a message prefixed with the current time */
 	public static final Consumer<String> logTime = (s) -> {
-		System.out.printf("%s: %s%n", now.get(), s);
+		sink().log(System.currentTimeMillis(), LogSink.NO_TABLE, s);
 	};
 
 	/**
@@ -54,8 +117,7 @@ public class Toolkit {
 	 */
 	public static final BiConsumer<Order, String> logger = (o, msg) -> {
 		if (o.getTableNumber() != -1) {
-			String time = now.get();
-			System.out.printf("%s: Table %d | %s%n", time, o.getTableNumber(), msg);
+			sink().log(System.currentTimeMillis(), o.getTableNumber(), msg);
 		}
 	};
 
@@ -90,24 +152,56 @@ public class Toolkit {
 		return durationPerDish * numberOfDishes;
 	};
 
+	/** Algorithm of the generators handed out by {@link #newRandom} */
+	public static final String RANDOM_ALGORITHM = "L64X128MixRandom";
+
 	/**
-	 * Supplier: creates a random table number (1–20).
+	 * Create a generator for one simulation. Split it to give every thread of the
+	 * simulation its own generator; splitting in a fixed order makes the whole
+	 * simulation repeat for the same seed.
+	 * 
+	 * @param seed the seed of the simulation
+	 * @return a new splittable generator
 	 */
-	private static final Supplier<Integer> randomTable = () -> {
-		return ThreadLocalRandom.current().nextInt(1, 21);
+	public static SplittableGenerator newRandom(long seed) {
+		return RandomGeneratorFactory.<SplittableGenerator>of(RANDOM_ALGORITHM).create(seed);
+	}
+
+	/** @return a new splittable generator with a random seed */
+	public static SplittableGenerator newRandom() {
+		return RandomGeneratorFactory.<SplittableGenerator>of(RANDOM_ALGORITHM).create();
+	}
+
+	/** Seed of the test helpers, so the same calls give the same test data in every run */
+	public static final long TEST_SEED = 42;
+
+	private static final SplittableGenerator testRandom = newRandom(TEST_SEED);
+
+	/** @return a generator for one test helper call, split off in call order */
+	private static RandomGenerator nextTestRandom() {
+		synchronized (testRandom) {
+			return testRandom.split();
+		}
+	}
+
+	/**
+	 * Function: creates a random table number (1–20).
+	 */
+	private static final Function<RandomGenerator, Integer> randomTable = random -> {
+		return random.nextInt(1, 21);
 	};
 
 	/**
-	 * Supplier: creates a random number of dishes (1–4).
+	 * Function: creates a random number of dishes (1–4).
 	 */
-	private static final Supplier<Integer> randomDishes = () -> {
-		return ThreadLocalRandom.current().nextInt(1, 4);
+	private static final Function<RandomGenerator, Integer> randomDishes = random -> {
+		return random.nextInt(1, 4);
 	};
 	/**
 	 * Create a new test customer with random name and table number (1-20).
 	 */
 	public static final Supplier<Customer> testCustomer = () -> {
-		int tableNumber = randomTable.get();
+		int tableNumber = randomTable.apply(nextTestRandom());
 		return new Customer("TestCustomer-" + tableNumber, tableNumber);
 	};
 
@@ -129,52 +223,115 @@ public class Toolkit {
 //	};
 
 	/**
-	 * Function: creates a random Customer for a given list of free tables. Removes
-	 * the chosen table from the list (marks it as occupied).
+	 * Function: creates a Customer for a table picked from a given list of free
+	 * tables with the given generator. Removes the chosen table from the list
+	 * (marks it as occupied).
 	 */
-	public static final Function<List<Integer>, Customer> createCustomerForFreeTable = (freeTables) -> {
+	public static final BiFunction<List<Integer>, RandomGenerator, Customer> customerForFreeTable = (freeTables,
+			random) -> {
 		synchronized (freeTables) {
 			if (freeTables.isEmpty()) {
 				Toolkit.logTime.accept("No free tables available — cannot create customer.");
 				return null;
 			}
-			int index = ThreadLocalRandom.current().nextInt(freeTables.size());
+			int index = random.nextInt(freeTables.size());
 			int tableNumber = freeTables.remove(index);
 			String name = "Guest-" + tableNumber;
 			return new Customer(name, tableNumber);
 		}
 	};
 
+	/**
+	 * Function: seats a new Customer at a free table of the allocator, picked with
+	 * the given generator. Returns null if all tables are taken; the table must be
+	 * released when the customer leaves.
+	 */
+	public static final BiFunction<TableAllocator, RandomGenerator, Customer> seatCustomer = (tables, random) -> {
+		int tableNumber = tables.acquire(1, random);
+		if (tableNumber == TableAllocator.NO_TABLE) {
+			Toolkit.logTime.accept("No free tables available — cannot create customer.");
+			return null;
+		}
+		return new Customer("Guest-" + tableNumber, tableNumber);
+	};
+
+	/**
+	 * Function: creates a random Customer for a given list of free tables. Removes
+	 * the chosen table from the list (marks it as occupied).
+	 */
+	public static final Function<List<Integer>, Customer> createCustomerForFreeTable = (freeTables) -> {
+		return customerForFreeTable.apply(freeTables, nextTestRandom());
+	};
+
 	/**
 	 * Supplier: creates a random test order with 1–3 dishes and a random table
 	 * number (1–20). Also creates a test customer linked to that order.
 	 */
 	public static final Supplier<Order> testOrder = () -> {
-		int numberOfDishes = randomDishes.get();
-
-		List<Dish> dishes = new ArrayList<>();
-		for (int i = 0; i < numberOfDishes; i++) {
-			int index = ThreadLocalRandom.current().nextInt(Restaurant.MENU.getAllDishes().size());
-			dishes.add(Restaurant.MENU.getAllDishes().get(index));
-		}
-
+		List<Dish> dishes = randomDishList(nextTestRandom());
 		Customer customer = testCustomer.get();
 		return Order.create(customer, dishes);
 	};
 
+	/**
+	 * Function: creates a test order with 1–3 dishes for an existing customer,
+	 * drawn from the given generator.
+	 */
+	public static final BiFunction<Customer, RandomGenerator, Order> orderWithCustomer = (customer, random) -> {
+		return Order.create(customer, randomDishList(random));
+	};
+
 	/**
 	 * Function: creates a random test order with 1–3 dishes for an existing
 	 * customer.
 	 */
 	public static final Function<Customer, Order> testOrderWithCustomer = (customer) -> {
-		int numberOfDishes = randomDishes.get();
+		return orderWithCustomer.apply(customer, nextTestRandom());
+	};
+
+	/**
+	 * Creates an order with 1–3 dishes for an existing customer, drawn from the
+	 * given generator, at the given time.
+	 * 
+	 * @param clock the clock the order is created on, e.g. the simulation clock
+	 */
+	public static Order orderAt(Customer customer, RandomGenerator random, TimeSource clock) {
+		return Order.create(customer, randomDishList(random), clock);
+	}
+
+	/**
+	 * Quote a text as a JSON string, escaping quotes, backslashes and control
+	 * characters.
+	 */
+	public static String quote(String text) {
+		StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+		for (char c : text.toCharArray()) {
+			switch (c) {
+			case '"' -> quoted.append("\\\"");
+			case '\\' -> quoted.append("\\\\");
+			case '\n' -> quoted.append("\\n");
+			case '\r' -> quoted.append("\\r");
+			case '\t' -> quoted.append("\\t");
+			default -> {
+				if (c < 0x20) {
+					quoted.append(String.format("\\u%04x", (int) c));
+				} else {
+					quoted.append(c);
+				}
+			}
+			}
+		}
+		return quoted.append('"').toString();
+	}
+
+	private static List<Dish> randomDishList(RandomGenerator random) {
+		int numberOfDishes = randomDishes.apply(random);
 
 		List<Dish> dishes = new ArrayList<>();
 		for (int i = 0; i < numberOfDishes; i++) {
-			int index = ThreadLocalRandom.current().nextInt(Restaurant.MENU.getAllDishes().size());
+			int index = random.nextInt(Restaurant.MENU.getAllDishes().size());
 			dishes.add(Restaurant.MENU.getAllDishes().get(index));
 		}
-
-		return Order.create(customer, dishes);
-	};
+		return dishes;
+	}
 }
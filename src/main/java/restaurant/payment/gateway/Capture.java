@@ -0,0 +1,15 @@
+package restaurant.payment.gateway;
+
+import restaurant.core.order.model.Order;
+
+/**
+ * An authorized payment waiting to be captured, i.e. for the money to actually
+ * move.
+ *
+ * @param idempotencyKey identifies the payment; capturing it again has no
+ *                       further effect
+ * @param authorization  code the processor gave when authorizing
+ * @param order          the order that is paid
+ */
+public record Capture(String idempotencyKey, String authorization, Order order) {
+}
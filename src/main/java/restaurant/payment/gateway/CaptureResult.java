@@ -0,0 +1,21 @@
+package restaurant.payment.gateway;
+
+/**
+ * Outcome of capturing one payment of a settlement batch.
+ *
+ * @param idempotencyKey the payment this result belongs to
+ * @param captured       true if the money was moved
+ * @param reason         why it was not, or null
+ */
+public record CaptureResult(String idempotencyKey, boolean captured, String reason) {
+
+	/** @return the result of a captured payment */
+	public static CaptureResult captured(String idempotencyKey) {
+		return new CaptureResult(idempotencyKey, true, null);
+	}
+
+	/** @return the result of a payment the processor refused to capture */
+	public static CaptureResult rejected(String idempotencyKey, String reason) {
+		return new CaptureResult(idempotencyKey, false, reason);
+	}
+}
@@ -0,0 +1,154 @@
+package restaurant.payment.gateway;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Puts timeouts and hedged retries in front of another gateway.
+ * <p>
+ * If the processor has not answered after the hedge delay of the payment
+ * method, the same request is sent again and the first answer wins. An attempt
+ * that fails is retried right away. All attempts share the idempotency key of
+ * the request, so the processor charges at most once. If no attempt answers
+ * before the timeout, the payment completes as {@link PaymentResult.TimedOut};
+ * an attempt approved after that is refunded, since the caller already treats
+ * the payment as failed.
+ */
+public final class HedgingPaymentGateway implements PaymentGateway {
+
+	private final PaymentGateway delegate;
+	private final Function<? super PaymentRequest, PaymentPolicy> policies;
+	private final LongAdder hedges = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAdder lateApprovals = new LongAdder();
+
+	/**
+	 * Gateway with the default policy of every payment method.
+	 *
+	 * @see PaymentPolicy#of
+	 */
+	public HedgingPaymentGateway(PaymentGateway delegate) {
+		this(delegate, request -> PaymentPolicy.of(request.payment()));
+	}
+
+	/**
+	 * @param delegate the gateway that talks to the processor
+	 * @param policies the policy of each request
+	 */
+	public HedgingPaymentGateway(PaymentGateway delegate, Function<? super PaymentRequest, PaymentPolicy> policies) {
+		this.delegate = delegate;
+		this.policies = policies;
+	}
+
+	@Override
+	public CompletableFuture<PaymentResult> authorize(PaymentRequest request) {
+		PaymentPolicy policy = policies.apply(request);
+		CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+		Attempts attempts = new Attempts(request, policy, result);
+		attempts.start(null);
+		for (int i = 1; i < policy.maxAttempts(); i++) {
+			Executor later = CompletableFuture.delayedExecutor(policy.hedgeDelay().toMillis() * i, TimeUnit.MILLISECONDS);
+			later.execute(() -> attempts.start(hedges));
+		}
+		return result.completeOnTimeout(new PaymentResult.TimedOut(policy.timeout()), policy.timeout().toMillis(),
+				TimeUnit.MILLISECONDS).whenComplete((r, e) -> {
+					if (r instanceof PaymentResult.TimedOut) {
+						timeouts.increment();
+					}
+				});
+	}
+
+	@Override
+	public CompletableFuture<Boolean> refund(String idempotencyKey) {
+		return delegate.refund(idempotencyKey);
+	}
+
+	/** @return number of extra attempts started because the processor was slow */
+	public long getHedgeCount() {
+		return hedges.sum();
+	}
+
+	/** @return number of attempts started because an earlier one failed */
+	public long getRetryCount() {
+		return retries.sum();
+	}
+
+	/** @return number of payments that timed out */
+	public long getTimeoutCount() {
+		return timeouts.sum();
+	}
+
+	/** @return number of payments approved after they timed out, and refunded */
+	public long getLateApprovalCount() {
+		return lateApprovals.sum();
+	}
+
+	/**
+	 * The attempts of one payment.
+	 */
+	private final class Attempts {
+		private final PaymentRequest request;
+		private final PaymentPolicy policy;
+		private final CompletableFuture<PaymentResult> result;
+		private final AtomicInteger started = new AtomicInteger();
+		private final AtomicInteger failed = new AtomicInteger();
+		private final AtomicBoolean refunded = new AtomicBoolean();
+
+		Attempts(PaymentRequest request, PaymentPolicy policy, CompletableFuture<PaymentResult> result) {
+			this.request = request;
+			this.policy = policy;
+			this.result = result;
+		}
+
+		/**
+		 * Start another attempt unless the payment is over.
+		 *
+		 * @param counter counts the attempt before it is sent, or null
+		 */
+		void start(LongAdder counter) {
+			if (result.isDone() || started.incrementAndGet() > policy.maxAttempts()) {
+				return;
+			}
+			if (counter != null) {
+				counter.increment();
+			}
+			CompletableFuture<PaymentResult> attempt;
+			try {
+				attempt = delegate.authorize(request);
+			} catch (RuntimeException e) {
+				attempt = CompletableFuture.failedFuture(e);
+			}
+			attempt.whenComplete((answer, error) -> {
+				if (error == null) {
+					if (!result.complete(answer) && answer.isApproved() && !result.getNow(null).isApproved()) {
+						refundLate();
+					}
+				} else if (failed.incrementAndGet() >= policy.maxAttempts()) {
+					Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+							: error;
+					result.complete(new PaymentResult.Declined("Processor unavailable: " + cause.getMessage()));
+				} else {
+					start(retries);
+				}
+			});
+		}
+
+		/**
+		 * Give back a payment the processor approved after it had timed out. All
+		 * attempts share one charge, so it is refunded once.
+		 */
+		private void refundLate() {
+			if (refunded.compareAndSet(false, true)) {
+				lateApprovals.increment();
+				delegate.refund(request.idempotencyKey());
+			}
+		}
+	}
+}
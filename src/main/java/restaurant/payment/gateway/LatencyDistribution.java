@@ -0,0 +1,44 @@
+package restaurant.payment.gateway;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * How long a simulated processor takes to answer.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+	/** @return the next latency in milliseconds, never negative */
+	long sampleMillis(RandomGenerator random);
+
+	/** @return always the same latency */
+	static LatencyDistribution fixed(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("Latency must not be negative.");
+		}
+		return random -> millis;
+	}
+
+	/** @return a latency evenly spread between min and max, both included */
+	static LatencyDistribution uniform(long minMillis, long maxMillis) {
+		if (minMillis < 0 || maxMillis < minMillis) {
+			throw new IllegalArgumentException("Invalid latency range: " + minMillis + " - " + maxMillis);
+		}
+		return random -> random.nextLong(minMillis, maxMillis + 1);
+	}
+
+	/**
+	 * Log-normal latency: most answers come near the median, a few take much
+	 * longer. This is what real processors look like and what hedging is for.
+	 *
+	 * @param medianMillis half of the answers are faster than this
+	 * @param sigma        spread of the tail, e.g. 0.5; 0 means always the median
+	 */
+	static LatencyDistribution logNormal(long medianMillis, double sigma) {
+		if (medianMillis <= 0 || sigma < 0) {
+			throw new IllegalArgumentException("Invalid log-normal latency: " + medianMillis + " ms, sigma " + sigma);
+		}
+		double mu = Math.log(medianMillis);
+		return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+	}
+}
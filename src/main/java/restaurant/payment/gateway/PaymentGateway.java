@@ -0,0 +1,42 @@
+package restaurant.payment.gateway;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Authorizes payments without blocking the caller. Implementations talk to a
+ * payment processor and complete the future once it has answered.
+ */
+@FunctionalInterface
+public interface PaymentGateway {
+
+	/**
+	 * Gateway that asks the payment itself, on the calling thread. This is how the
+	 * cash register worked before gateways existed.
+	 */
+	PaymentGateway LOCAL = request -> CompletableFuture.completedFuture(request.payment().pay(request.order())
+			? new PaymentResult.Approved(request.idempotencyKey())
+			: new PaymentResult.Declined("Payment method refused"));
+
+	/**
+	 * Start authorizing a payment.
+	 *
+	 * @param request the payment to authorize
+	 * @return completes with the result; may complete exceptionally if the
+	 *         processor cannot be reached
+	 */
+	CompletableFuture<PaymentResult> authorize(PaymentRequest request);
+
+	/**
+	 * Give back an approved payment: release its authorization, or refund it if it
+	 * was captured already. Giving back the same payment again has no further
+	 * effect. By default there is nothing to give back, as with
+	 * {@link #LOCAL}.
+	 *
+	 * @param idempotencyKey the key the payment was authorized under
+	 * @return completes with true if the payment was given back, false if there
+	 *         was no approved payment under the key
+	 */
+	default CompletableFuture<Boolean> refund(String idempotencyKey) {
+		return CompletableFuture.completedFuture(true);
+	}
+}
@@ -0,0 +1,44 @@
+package restaurant.payment.gateway;
+
+import java.time.Duration;
+
+import restaurant.payment.model.ApplePay;
+import restaurant.payment.model.CashPayment;
+import restaurant.payment.model.CreditCard;
+import restaurant.payment.model.MobilePayment;
+import restaurant.payment.model.Payment;
+import restaurant.payment.model.VoucherPayment;
+
+/**
+ * How patiently a payment is authorized.
+ *
+ * @param timeout     the payment times out if no attempt has answered by then
+ * @param hedgeDelay  another attempt is started every time this passes without
+ *                    an answer
+ * @param maxAttempts most attempts for one payment, including the first
+ */
+public record PaymentPolicy(Duration timeout, Duration hedgeDelay, int maxAttempts) {
+
+	public PaymentPolicy {
+		if (timeout.isNegative() || timeout.isZero() || hedgeDelay.isNegative() || hedgeDelay.isZero()) {
+			throw new IllegalArgumentException("Timeout and hedge delay must be positive.");
+		}
+		if (maxAttempts <= 0) {
+			throw new IllegalArgumentException("At least one attempt is needed.");
+		}
+	}
+
+	/**
+	 * Default policy of a payment method. Cards are hedged early because their
+	 * processors have a long tail; wallets are slower and get more time.
+	 */
+	public static PaymentPolicy of(Payment payment) {
+		return switch (payment) {
+		case CashPayment cash -> new PaymentPolicy(Duration.ofSeconds(1), Duration.ofSeconds(1), 1);
+		case CreditCard card -> new PaymentPolicy(Duration.ofSeconds(3), Duration.ofMillis(400), 3);
+		case MobilePayment mobile -> new PaymentPolicy(Duration.ofSeconds(5), Duration.ofMillis(800), 2);
+		case ApplePay wallet -> new PaymentPolicy(Duration.ofSeconds(5), Duration.ofMillis(800), 2);
+		case VoucherPayment voucher -> new PaymentPolicy(Duration.ofSeconds(2), Duration.ofMillis(500), 2);
+		};
+	}
+}
@@ -0,0 +1,21 @@
+package restaurant.payment.gateway;
+
+import restaurant.core.order.model.Order;
+import restaurant.payment.model.Payment;
+
+/**
+ * One payment to authorize. Every attempt for the same payment carries the same
+ * idempotency key, so a processor charges it at most once even if it is asked
+ * several times.
+ *
+ * @param idempotencyKey identifies the payment across attempts
+ * @param order          the order to pay
+ * @param payment        how it is paid
+ */
+public record PaymentRequest(String idempotencyKey, Order order, Payment payment) {
+
+	/** @return the request for paying the order, keyed by the order id */
+	public static PaymentRequest of(Order order, Payment payment) {
+		return new PaymentRequest("order-" + order.getId(), order, payment);
+	}
+}
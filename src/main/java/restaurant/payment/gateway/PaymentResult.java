@@ -0,0 +1,35 @@
+package restaurant.payment.gateway;
+
+import java.time.Duration;
+
+/**
+ * Outcome of asking a payment gateway to authorize a payment.
+ */
+public sealed interface PaymentResult {
+
+	/** The payment was authorized under the given code. */
+	record Approved(String authorizationCode) implements PaymentResult {
+	}
+
+	/** The payment was refused, e.g. by the card issuer or because of an error. */
+	record Declined(String reason) implements PaymentResult {
+	}
+
+	/** No attempt was answered in time. */
+	record TimedOut(Duration after) implements PaymentResult {
+	}
+
+	/** @return true if the payment was authorized */
+	default boolean isApproved() {
+		return this instanceof Approved;
+	}
+
+	/** @return short description for the log */
+	default String describe() {
+		return switch (this) {
+		case Approved a -> "approved (" + a.authorizationCode() + ")";
+		case Declined d -> "declined: " + d.reason();
+		case TimedOut t -> "timed out after " + t.after().toMillis() + " ms";
+		};
+	}
+}
@@ -0,0 +1,227 @@
+package restaurant.payment.gateway;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects authorized payments and captures them in batches. A batch is sent
+ * when it is full or when its oldest payment has waited for the time window,
+ * and whatever is left is sent by {@link #flush()}, e.g. at the end of the day.
+ * <p>
+ * A batch that fails as a whole is sent again after a short pause, as are the
+ * payments the processor did not answer for; a payment is given up after the
+ * last retry. Every payment is submitted at most once per idempotency key, and
+ * every result is per payment, so one refused card does not fail the batch.
+ */
+public final class SettlementBatcher implements AutoCloseable {
+
+	/** Default number of payments per batch */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+	/** Default time a payment waits for its batch to fill */
+	public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(1);
+	/** Default number of times a batch is sent again */
+	public static final int DEFAULT_RETRIES = 3;
+
+	private static final long RETRY_PAUSE_MILLIS = 100;
+
+	private record Line(Capture capture, CompletableFuture<CaptureResult> result) {
+	}
+
+	private final SettlementGateway gateway;
+	private final int batchSize;
+	private final Duration window;
+	private final int maxRetries;
+	private final ScheduledExecutorService timer = Executors
+			.newSingleThreadScheduledExecutor(task -> Thread.ofPlatform().daemon().name("settlement").unstarted(task));
+	private final Map<String, CompletableFuture<CaptureResult>> submitted = new ConcurrentHashMap<>();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final ReentrantLock lock = new ReentrantLock();
+	private List<Line> pending = new ArrayList<>();
+	private ScheduledFuture<?> windowEnd;
+	private boolean closed;
+
+	public SettlementBatcher(SettlementGateway gateway) {
+		this(gateway, DEFAULT_BATCH_SIZE, DEFAULT_WINDOW, DEFAULT_RETRIES);
+	}
+
+	/**
+	 * @param gateway    captures the batches
+	 * @param batchSize  a batch is sent as soon as it holds this many payments
+	 * @param window     a batch is sent at the latest this long after its first
+	 *                   payment arrived
+	 * @param maxRetries how often a failed batch or an unanswered payment is sent
+	 *                   again
+	 */
+	public SettlementBatcher(SettlementGateway gateway, int batchSize, Duration window, int maxRetries) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be greater than 0.");
+		}
+		if (window.isNegative() || window.isZero()) {
+			throw new IllegalArgumentException("Window must be positive.");
+		}
+		if (maxRetries < 0) {
+			throw new IllegalArgumentException("Retries must not be negative.");
+		}
+		this.gateway = gateway;
+		this.batchSize = batchSize;
+		this.window = window;
+		this.maxRetries = maxRetries;
+	}
+
+	/**
+	 * Add a payment to the next batch. Submitting the same idempotency key again
+	 * returns the result of the first submission.
+	 *
+	 * @param capture the authorized payment
+	 * @return completes once the payment is captured or given up
+	 * @throws IllegalStateException if the batcher is closed
+	 */
+	public CompletableFuture<CaptureResult> submit(Capture capture) {
+		CompletableFuture<CaptureResult> result = new CompletableFuture<>();
+		CompletableFuture<CaptureResult> earlier = submitted.putIfAbsent(capture.idempotencyKey(), result);
+		if (earlier != null) {
+			return earlier;
+		}
+		List<Line> full = null;
+		lock.lock();
+		try {
+			if (closed) {
+				submitted.remove(capture.idempotencyKey());
+				throw new IllegalStateException("Settlement is closed.");
+			}
+			pending.add(new Line(capture, result));
+			if (pending.size() >= batchSize) {
+				full = takePending();
+			} else if (pending.size() == 1) {
+				windowEnd = timer.schedule(this::flush, window.toMillis(), TimeUnit.MILLISECONDS);
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (full != null) {
+			send(full, 0);
+		}
+		return result;
+	}
+
+	/**
+	 * Send the waiting payments now instead of waiting for the batch to fill.
+	 */
+	public void flush() {
+		List<Line> batch;
+		lock.lock();
+		try {
+			batch = takePending();
+		} finally {
+			lock.unlock();
+		}
+		if (!batch.isEmpty()) {
+			send(batch, 0);
+		}
+	}
+
+	private List<Line> takePending() {
+		List<Line> batch = pending;
+		pending = new ArrayList<>();
+		if (windowEnd != null) {
+			windowEnd.cancel(false);
+			windowEnd = null;
+		}
+		return batch;
+	}
+
+	private void send(List<Line> batch, int retry) {
+		batches.increment();
+		CompletableFuture<List<CaptureResult>> call;
+		try {
+			call = gateway.capture(batch.stream().map(Line::capture).toList());
+		} catch (RuntimeException e) {
+			call = CompletableFuture.failedFuture(e);
+		}
+		call.whenComplete((results, error) -> {
+			if (error != null) {
+				Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+						: error;
+				retryOrGiveUp(batch, retry, "Settlement failed: " + cause.getMessage());
+				return;
+			}
+			Map<String, CaptureResult> byKey = new HashMap<>();
+			for (CaptureResult result : results) {
+				byKey.put(result.idempotencyKey(), result);
+			}
+			List<Line> unanswered = new ArrayList<>();
+			for (Line line : batch) {
+				CaptureResult result = byKey.get(line.capture().idempotencyKey());
+				if (result == null) {
+					unanswered.add(line);
+				} else {
+					line.result().complete(result);
+				}
+			}
+			if (!unanswered.isEmpty()) {
+				retryOrGiveUp(unanswered, retry, "Not answered by the processor");
+			}
+		});
+	}
+
+	private void retryOrGiveUp(List<Line> lines, int retry, String reason) {
+		if (retry < maxRetries) {
+			retries.increment();
+			timer.schedule(() -> send(lines, retry + 1), RETRY_PAUSE_MILLIS * (retry + 1), TimeUnit.MILLISECONDS);
+		} else {
+			for (Line line : lines) {
+				line.result().complete(CaptureResult.rejected(line.capture().idempotencyKey(), reason));
+			}
+		}
+	}
+
+	/** @return number of payments waiting for their batch to be sent */
+	public int getPendingCount() {
+		lock.lock();
+		try {
+			return pending.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** @return number of batches sent, including retries */
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/** @return number of times a batch or part of it was sent again */
+	public long getRetryCount() {
+		return retries.sum();
+	}
+
+	/**
+	 * Send the waiting payments, wait until every submitted payment is captured or
+	 * given up, and stop accepting new ones.
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			closed = true;
+		} finally {
+			lock.unlock();
+		}
+		flush();
+		CompletableFuture.allOf(submitted.values().toArray(CompletableFuture[]::new)).join();
+		timer.shutdown();
+	}
+}
@@ -0,0 +1,21 @@
+package restaurant.payment.gateway;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Captures authorized payments in batches, one processor call per batch.
+ */
+@FunctionalInterface
+public interface SettlementGateway {
+
+	/**
+	 * Start capturing a batch.
+	 *
+	 * @param batch payments to capture
+	 * @return completes with a result per payment the processor answered for;
+	 *         payments without a result were not processed and may be sent again.
+	 *         Completes exceptionally if the whole batch failed.
+	 */
+	CompletableFuture<List<CaptureResult>> capture(List<Capture> batch);
+}
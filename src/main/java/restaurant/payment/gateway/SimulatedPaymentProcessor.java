@@ -0,0 +1,267 @@
+package restaurant.payment.gateway;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import restaurant.infrastructure.util.IdempotencyCache;
+import restaurant.payment.model.CashPayment;
+import restaurant.payment.model.Payment;
+
+/**
+ * Payment processor that runs in this process and answers after a random
+ * latency. No thread waits for the answer: the result is completed by a timer,
+ * so any number of authorizations can be in flight at once.
+ * <p>
+ * The processor decides once per idempotency key. Asking again with the same
+ * key, e.g. from a hedged attempt or a retried settlement batch, gives the same
+ * answer and does not charge or capture twice. A refunded payment is declined
+ * from then on. Decisions are remembered for a limited time only, so a long
+ * simulation does not keep every payment it ever saw.
+ */
+public final class SimulatedPaymentProcessor implements PaymentGateway, SettlementGateway {
+
+	/** Latency of a card network with a long tail */
+	public static final LatencyDistribution DEFAULT_LATENCY = LatencyDistribution.logNormal(120, 0.6);
+
+	/** Default time a decision or capture is remembered for repeated requests */
+	public static final Duration DEFAULT_MEMORY = Duration.ofHours(1);
+
+	private final LatencyDistribution defaultLatency;
+	private final Map<Class<?>, LatencyDistribution> latencies = new ConcurrentHashMap<>();
+	private final double declineRate;
+	private final double errorRate;
+	private final double captureFailureRate;
+	private final RandomGenerator random;
+	private final IdempotencyCache<String, PaymentResult> decisions;
+	private final IdempotencyCache<String, CaptureResult> captures;
+	private final LongAdder attempts = new LongAdder();
+	private final LongAdder charges = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder captured = new LongAdder();
+	private final LongAdder refunds = new LongAdder();
+
+	/**
+	 * Processor with the default latency that approves every payment. Cash is
+	 * answered right away.
+	 */
+	public SimulatedPaymentProcessor() {
+		this(DEFAULT_LATENCY, 0, 0, new Random());
+	}
+
+	/**
+	 * @param latency     latency of every payment method without its own
+	 * @param declineRate share of payments that are declined, 0 to 1
+	 * @param errorRate   share of attempts that fail without an answer, 0 to 1
+	 * @param random      source of latencies and decisions
+	 */
+	public SimulatedPaymentProcessor(LatencyDistribution latency, double declineRate, double errorRate,
+			RandomGenerator random) {
+		this(latency, declineRate, errorRate, 0, random);
+	}
+
+	/**
+	 * @param latency            latency of every payment method without its own,
+	 *                           and of every settlement batch
+	 * @param declineRate        share of payments that are declined, 0 to 1
+	 * @param errorRate          share of attempts and settlement batches that fail
+	 *                           without an answer, 0 to 1
+	 * @param captureFailureRate share of authorized payments that cannot be
+	 *                           captured, 0 to 1
+	 * @param random             source of latencies and decisions
+	 */
+	public SimulatedPaymentProcessor(LatencyDistribution latency, double declineRate, double errorRate,
+			double captureFailureRate, RandomGenerator random) {
+		this(latency, declineRate, errorRate, captureFailureRate, random, DEFAULT_MEMORY);
+	}
+
+	/**
+	 * @param latency            latency of every payment method without its own,
+	 *                           and of every settlement batch
+	 * @param declineRate        share of payments that are declined, 0 to 1
+	 * @param errorRate          share of attempts and settlement batches that fail
+	 *                           without an answer, 0 to 1
+	 * @param captureFailureRate share of authorized payments that cannot be
+	 *                           captured, 0 to 1
+	 * @param random             source of latencies and decisions
+	 * @param memory             how long a decision or capture is remembered; a
+	 *                           key asked again later is decided anew
+	 */
+	public SimulatedPaymentProcessor(LatencyDistribution latency, double declineRate, double errorRate,
+			double captureFailureRate, RandomGenerator random, Duration memory) {
+		if (declineRate < 0 || declineRate > 1 || errorRate < 0 || errorRate > 1 || captureFailureRate < 0
+				|| captureFailureRate > 1) {
+			throw new IllegalArgumentException("Rates must be between 0 and 1.");
+		}
+		this.defaultLatency = latency;
+		this.declineRate = declineRate;
+		this.errorRate = errorRate;
+		this.captureFailureRate = captureFailureRate;
+		this.random = random;
+		this.decisions = new IdempotencyCache<>(memory);
+		this.captures = new IdempotencyCache<>(memory);
+		latencies.put(CashPayment.class, LatencyDistribution.fixed(0));
+	}
+
+	/**
+	 * Use a different latency for one payment method and its subtypes.
+	 *
+	 * @param method  e.g. {@code CreditCard.class}
+	 * @param latency how long that method takes
+	 * @return this processor
+	 */
+	public SimulatedPaymentProcessor setLatency(Class<? extends Payment> method, LatencyDistribution latency) {
+		latencies.put(method, latency);
+		return this;
+	}
+
+	@Override
+	public CompletableFuture<PaymentResult> authorize(PaymentRequest request) {
+		attempts.increment();
+		long latency;
+		boolean error;
+		synchronized (random) {
+			latency = Math.max(0, latencyOf(request.payment()).sampleMillis(random));
+			error = errorRate > 0 && random.nextDouble() < errorRate;
+		}
+		CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+		Runnable answer = () -> {
+			if (error) {
+				result.completeExceptionally(new IllegalStateException("Processor unavailable"));
+			} else {
+				result.complete(decide(request.idempotencyKey()));
+			}
+		};
+		if (latency == 0) {
+			answer.run();
+		} else {
+			CompletableFuture.delayedExecutor(latency, TimeUnit.MILLISECONDS).execute(answer);
+		}
+		return result;
+	}
+
+	@Override
+	public CompletableFuture<List<CaptureResult>> capture(List<Capture> batch) {
+		batches.increment();
+		long latency;
+		boolean error;
+		synchronized (random) {
+			latency = Math.max(0, defaultLatency.sampleMillis(random));
+			error = errorRate > 0 && random.nextDouble() < errorRate;
+		}
+		CompletableFuture<List<CaptureResult>> result = new CompletableFuture<>();
+		Runnable answer = () -> {
+			if (error) {
+				result.completeExceptionally(new IllegalStateException("Settlement unavailable"));
+			} else {
+				result.complete(batch.stream().map(this::settle).toList());
+			}
+		};
+		if (latency == 0) {
+			answer.run();
+		} else {
+			CompletableFuture.delayedExecutor(latency, TimeUnit.MILLISECONDS).execute(answer);
+		}
+		return result;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> refund(String idempotencyKey) {
+		PaymentResult decision = decisions.get(idempotencyKey);
+		if (decision instanceof PaymentResult.Approved
+				&& decisions.replace(idempotencyKey, decision, new PaymentResult.Declined("Refunded"))) {
+			refunds.increment();
+			return CompletableFuture.completedFuture(true);
+		}
+		return CompletableFuture.completedFuture(false);
+	}
+
+	private CaptureResult settle(Capture capture) {
+		String key = capture.idempotencyKey();
+		CaptureResult earlier = captures.get(key);
+		if (earlier != null) {
+			return earlier;
+		}
+		CaptureResult result;
+		if (!(decisions.get(key) instanceof PaymentResult.Approved)) {
+			result = CaptureResult.rejected(key, "No authorization");
+		} else {
+			boolean failed;
+			synchronized (random) {
+				failed = captureFailureRate > 0 && random.nextDouble() < captureFailureRate;
+			}
+			result = failed ? CaptureResult.rejected(key, "Capture refused") : CaptureResult.captured(key);
+		}
+		earlier = captures.putIfAbsent(key, result);
+		if (earlier != null) {
+			return earlier;
+		}
+		if (result.captured()) {
+			captured.increment();
+		}
+		return result;
+	}
+
+	private LatencyDistribution latencyOf(Payment payment) {
+		for (Class<?> type = payment.getClass(); type != null; type = type.getSuperclass()) {
+			LatencyDistribution latency = latencies.get(type);
+			if (latency != null) {
+				return latency;
+			}
+		}
+		return defaultLatency;
+	}
+
+	private PaymentResult decide(String idempotencyKey) {
+		PaymentResult earlier = decisions.get(idempotencyKey);
+		if (earlier != null) {
+			return earlier;
+		}
+		boolean declined;
+		synchronized (random) {
+			declined = declineRate > 0 && random.nextDouble() < declineRate;
+		}
+		PaymentResult decision = declined ? new PaymentResult.Declined("Declined by issuer")
+				: new PaymentResult.Approved("AUTH-" + idempotencyKey);
+		// Of several attempts deciding the same key at once, only the first counts
+		earlier = decisions.putIfAbsent(idempotencyKey, decision);
+		if (earlier != null) {
+			return earlier;
+		}
+		if (!declined) {
+			charges.increment();
+		}
+		return decision;
+	}
+
+	/** @return number of authorization attempts received, including repeats */
+	public long getAttemptCount() {
+		return attempts.sum();
+	}
+
+	/** @return number of payments actually charged, at most one per key */
+	public long getChargeCount() {
+		return charges.sum();
+	}
+
+	/** @return number of settlement batches received, including retries */
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/** @return number of payments captured, at most one per key */
+	public long getCaptureCount() {
+		return captured.sum();
+	}
+
+	/** @return number of payments given back, at most one per key */
+	public long getRefundCount() {
+		return refunds.sum();
+	}
+}
@@ -1,5 +1,6 @@
 package restaurant.payment.model;
 
+import restaurant.core.model.Money;
 import restaurant.core.order.model.Order;
 import restaurant.payment.model.PaymentMethod;
 
@@ -13,6 +14,15 @@ public final class ApplePay extends PaymentMethod {
 	 * 
 	 * @param amount the payment amount
 	 */
+	public ApplePay(Money amount) {
+		super(amount);
+	}
+
+	/**
+	 * Create a new ApplePay instance.
+	 * 
+	 * @param amount the payment amount in euros
+	 */
 	public ApplePay(double amount) {
 		super(amount);
 	}
@@ -1,35 +1,302 @@
 package restaurant.payment.model;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
 import restaurant.core.order.model.Order;
 import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.util.IdempotencyCache;
 import restaurant.infrastructure.util.Toolkit;
-import restaurant.payment.model.Payment;
+import restaurant.payment.gateway.Capture;
+import restaurant.payment.gateway.PaymentGateway;
+import restaurant.payment.gateway.PaymentRequest;
+import restaurant.payment.gateway.PaymentResult;
+import restaurant.payment.gateway.SettlementBatcher;
 
 /**
  * Represents the cash register where payments are finalized.
+ * <p>
+ * An order is charged at most once: the register claims the order with
+ * {@link Order#startPayment()} before asking the gateway, and remembers every
+ * payment under its idempotency key while it is in flight, so a duplicate or
+ * racing payment for the same order gets the result of the first one instead
+ * of being charged again. Once the payment is final the order status alone
+ * refuses further charges and the payment is forgotten, so the register only
+ * holds the payments still in flight.
  */
 public final class CashRegister {
 
+	/** Default time an unfinished payment is remembered for duplicates */
+	public static final Duration DEFAULT_IDEMPOTENCY_TTL = Duration.ofMinutes(10);
+
+	private final PaymentGateway gateway;
+	private final SettlementBatcher settlement;
+	private final IdempotencyCache<String, CompletableFuture<PaymentResult>> payments;
+	private final LongAdder inFlight = new LongAdder();
+	private final LongAdder duplicates = new LongAdder();
+
+	/**
+	 * Cash register that lets every payment decide for itself.
+	 */
+	public CashRegister() {
+		this(PaymentGateway.LOCAL);
+	}
+
+	/**
+	 * Cash register that treats an authorized payment as paid.
+	 * 
+	 * @param gateway authorizes the payments
+	 */
+	public CashRegister(PaymentGateway gateway) {
+		this(gateway, null);
+	}
+
+	/**
+	 * Cash register that captures authorized payments in batches. An order is
+	 * only paid once its payment is captured.
+	 * 
+	 * @param gateway    authorizes the payments
+	 * @param settlement captures them, or null to treat an authorized payment as
+	 *                   paid
+	 */
+	public CashRegister(PaymentGateway gateway, SettlementBatcher settlement) {
+		this(gateway, settlement, DEFAULT_IDEMPOTENCY_TTL);
+	}
+
 	/**
-	 * Process a payment for a given order. Updates the order status and logs the
-	 * result.
+	 * @param gateway        authorizes the payments
+	 * @param settlement     captures them, or null to treat an authorized payment
+	 *                       as paid
+	 * @param idempotencyTtl how long an unfinished payment is returned for
+	 *                       duplicates
+	 */
+	public CashRegister(PaymentGateway gateway, SettlementBatcher settlement, Duration idempotencyTtl) {
+		this.gateway = gateway;
+		this.settlement = settlement;
+		this.payments = new IdempotencyCache<>(idempotencyTtl);
+	}
+
+	/**
+	 * Process a payment for a given order and wait for the result. Updates the
+	 * order status and logs the result. With settlement, this waits until the
+	 * batch of the payment is captured.
 	 * 
 	 * @param order   the order to finalize
 	 * @param payment the payment method used
 	 * @return true if payment succeeded, false otherwise
+	 * @see #payAsync(Order, Payment)
 	 */
 	public boolean pay(Order order, Payment payment) {
+		return payAsync(order, payment).join().isApproved();
+	}
+
+	/**
+	 * Start processing a payment for a given order. The caller does not wait for
+	 * the gateway; the order status is updated and the result logged once it has
+	 * answered and, with settlement, once the payment is captured.
+	 * <p>
+	 * Paying an order again returns the result of the first payment while that
+	 * is in flight, and is declined without a charge once it is final.
+	 * 
+	 * @param order   the order to finalize
+	 * @param payment the payment method used
+	 * @return completes with the result after the order status was updated
+	 */
+	public CompletableFuture<PaymentResult> payAsync(Order order, Payment payment) {
+		PaymentRequest request = PaymentRequest.of(order, payment);
+		CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+		CompletableFuture<PaymentResult> first = payments.putIfAbsent(request.idempotencyKey(), result);
+		if (first != null) {
+			duplicates.increment();
+			Toolkit.logger.accept(order, "Cash register: duplicate payment, returning the first result.");
+			return first;
+		}
+		if (!order.startPayment()) {
+			OrderStatus status = order.getStatus();
+			String reason;
+			if (status.isPaymentStarted()) {
+				duplicates.increment();
+				reason = "Payment already made (" + status + ")";
+			} else {
+				reason = "Order not prepared yet (" + status + ")";
+			}
+			// Nothing was charged; the order status answers any later attempt
+			payments.remove(request.idempotencyKey(), result);
+			Toolkit.logger.accept(order, "Cash register: " + reason);
+			result.complete(new PaymentResult.Declined(reason));
+			return result;
+		}
+
 		Toolkit.logger.accept(order, "Cash register: finalizing payment...");
-		boolean success = payment.pay(order);
-		String msg;
-		if (success) {
-			order.setStatus(OrderStatus.PAID);
-			msg = "Cash register: payment completed successfully.";
-		} else {
-			order.setStatus(OrderStatus.PAYMENT_FAILED);
-			msg = "Cash register: payment failed.";
-		}
-		Toolkit.logger.accept(order, msg);
-		return success;
+		return charge(request, result, settled -> {
+			OrderStatus status = settled.isApproved() ? OrderStatus.PAID : OrderStatus.PAYMENT_FAILED;
+			if (!order.compareAndSetStatus(OrderStatus.PAYING, status)) {
+				return "Cash register: order changed to " + order.getStatus() + " during payment.";
+			}
+			return settled.isApproved() ? "Cash register: payment completed successfully."
+					: "Cash register: payment failed, " + settled.describe() + ".";
+		}, () -> order.compareAndSetStatus(OrderStatus.PAYING, OrderStatus.PAYMENT_FAILED));
+	}
+
+	/**
+	 * Start paying one share of a split bill. Shares are paid independently, so
+	 * every guest can pay at the same time; the order is finished by the bill
+	 * once the shares add up to its total.
+	 * <p>
+	 * Paying a share again returns the result of its current attempt while that
+	 * is in flight, and is declined without a charge once it is paid. A failed share can be paid again; every attempt has its own
+	 * idempotency key, so the processor charges it afresh. A payment method that
+	 * tenders less than the share is declined without a charge.
+	 * 
+	 * @param bill    the split bill of the order
+	 * @param share   index of the share to pay
+	 * @param payment the payment method used for the share
+	 * @return completes with the result after the bill was updated
+	 * @throws IndexOutOfBoundsException if the bill has no such share
+	 * @see #abandon(SplitBill)
+	 */
+	public CompletableFuture<PaymentResult> payShare(SplitBill bill, int share, Payment payment) {
+		Order order = bill.getOrder();
+		Objects.checkIndex(share, bill.size());
+		if (payment instanceof PaymentMethod method && method.getAmount().compareTo(bill.getShare(share)) < 0) {
+			String reason = "Tendered " + method.getAmount() + " is less than the share of " + bill.getShare(share);
+			Toolkit.logger.accept(order, "Cash register: share " + share + ": " + reason);
+			return CompletableFuture.completedFuture(new PaymentResult.Declined(reason));
+		}
+		int attempt = bill.nextAttempt(share);
+		PaymentRequest request = new PaymentRequest(shareKey(order, share, attempt), order, payment);
+		CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+		CompletableFuture<PaymentResult> first = payments.putIfAbsent(request.idempotencyKey(), result);
+		if (first != null) {
+			duplicates.increment();
+			Toolkit.logger.accept(order,
+					"Cash register: duplicate payment of share " + share + ", returning the first result.");
+			return first;
+		}
+		if (!bill.startShare(share, attempt)) {
+			String reason = bill.isAbandoned() ? "Bill was abandoned" : "Share already " + bill.getStatus(share);
+			duplicates.increment();
+			payments.remove(request.idempotencyKey(), result);
+			Toolkit.logger.accept(order, "Cash register: share " + share + ": " + reason);
+			result.complete(new PaymentResult.Declined(reason));
+			return result;
+		}
+
+		Toolkit.logger.accept(order, "Cash register: finalizing share " + share + " of " + bill.getShare(share)
+				+ " (attempt " + attempt + ")...");
+		return charge(request, result, settled -> {
+			if (bill.settleShare(share, settled.isApproved())) {
+				gateway.refund(request.idempotencyKey());
+				return "Cash register: share " + share + " paid after the bill was abandoned, refunding it.";
+			}
+			return (settled.isApproved() ? "Cash register: share " + share + " paid"
+					: "Cash register: share " + share + " failed, " + settled.describe()) + ". Outstanding: "
+					+ bill.getOutstanding();
+		}, () -> bill.settleShare(share, false));
+	}
+
+	/**
+	 * Give up on a split bill, e.g. when a guest cannot pay their share. The order
+	 * becomes {@link OrderStatus#PAYMENT_FAILED} and the shares paid so far are
+	 * refunded; shares still being paid are refunded once they are approved.
+	 * 
+	 * @param bill the split bill of the order
+	 * @return completes once the paid shares are refunded
+	 * @throws IllegalStateException if the order is paid already
+	 */
+	public CompletableFuture<Void> abandon(SplitBill bill) {
+		Order order = bill.getOrder();
+		List<Integer> paid = bill.abandon();
+		Toolkit.logger.accept(order, "Cash register: bill abandoned, refunding " + paid.size() + " shares.");
+		return CompletableFuture.allOf(paid.stream()
+				.map(share -> gateway.refund(shareKey(order, share, bill.getAttempts(share))))
+				.toArray(CompletableFuture[]::new));
+	}
+
+	private static String shareKey(Order order, int share, int attempt) {
+		return "order-" + order.getId() + "-share-" + share + "-" + attempt;
+	}
+
+	/**
+	 * Authorize and capture a claimed payment and complete the result once it is
+	 * settled. A failing gateway or settlement counts as a declined payment. The
+	 * payment is forgotten once it is final.
+	 * 
+	 * @param settle applies the result to the order and returns the log message
+	 * @param abort  releases the claim on the order if settling it failed
+	 */
+	private CompletableFuture<PaymentResult> charge(PaymentRequest request, CompletableFuture<PaymentResult> result,
+			Function<PaymentResult, String> settle, Runnable abort) {
+		inFlight.increment();
+		CompletableFuture<PaymentResult> authorization;
+		try {
+			authorization = gateway.authorize(request);
+		} catch (RuntimeException e) {
+			authorization = CompletableFuture.failedFuture(e);
+		}
+		authorization.exceptionally(e -> new PaymentResult.Declined("Gateway error: " + e.getMessage()))
+				.thenCompose(authorized -> capture(request, authorized))
+				.exceptionally(e -> new PaymentResult.Declined("Settlement error: " + e.getMessage()))
+				.thenApply(settled -> {
+					Toolkit.logger.accept(request.order(), settle.apply(settled));
+					return settled;
+				}).whenComplete((settled, e) -> {
+					inFlight.decrement();
+					payments.remove(request.idempotencyKey(), result);
+					if (e != null) {
+						try {
+							abort.run();
+						} finally {
+							result.completeExceptionally(e);
+						}
+					} else {
+						result.complete(settled);
+					}
+				});
+		return result;
+	}
+
+	private CompletableFuture<PaymentResult> capture(PaymentRequest request, PaymentResult authorization) {
+		if (settlement == null || !(authorization instanceof PaymentResult.Approved approved)) {
+			return CompletableFuture.completedFuture(authorization);
+		}
+		Toolkit.logger.accept(request.order(), "Cash register: payment authorized, waiting for settlement...");
+		try {
+			return settlement
+					.submit(new Capture(request.idempotencyKey(), approved.authorizationCode(), request.order()))
+					.thenApply(captured -> captured.captured() ? authorization
+							: new PaymentResult.Declined("Capture failed: " + captured.reason()));
+		} catch (IllegalStateException e) {
+			return CompletableFuture.completedFuture(new PaymentResult.Declined(e.getMessage()));
+		}
+	}
+
+	/**
+	 * Capture the authorized payments waiting for their batch now, e.g. at the
+	 * end of the day.
+	 */
+	public void settle() {
+		if (settlement != null) {
+			settlement.flush();
+		}
+	}
+
+	/** @return number of payments waiting for the gateway or for settlement */
+	public long getInFlightCount() {
+		return inFlight.sum();
+	}
+
+	/** @return number of payments remembered for duplicates, i.e. still in flight */
+	public int getRememberedCount() {
+		return payments.size();
+	}
+
+	/** @return number of payments that were not charged because the order was paid already */
+	public long getDuplicateCount() {
+		return duplicates.sum();
 	}
 }
@@ -1,5 +1,6 @@
 package restaurant.payment.model;
 
+import restaurant.core.model.Money;
 import restaurant.core.order.model.Order;
 import restaurant.payment.model.PaymentMethod;
 
@@ -14,6 +15,15 @@ public non-sealed class CreditCard extends PaymentMethod {
 	 * 
 	 * @param amount the payment amount
 	 */
+	public CreditCard(Money amount) {
+		super(amount);
+	}
+
+	/**
+	 * Create a new credit card payment.
+	 * 
+	 * @param amount the payment amount in euros
+	 */
 	public CreditCard(double amount) {
 		super(amount);
 	}
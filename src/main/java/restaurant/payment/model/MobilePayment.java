@@ -1,5 +1,6 @@
 package restaurant.payment.model;
 
+import restaurant.core.model.Money;
 import restaurant.core.order.model.Order;
 import restaurant.payment.model.PaymentMethod;
 
@@ -8,6 +9,10 @@ import restaurant.payment.model.PaymentMethod;
  */
 public non-sealed class MobilePayment extends PaymentMethod {
 
+	public MobilePayment(Money amount) {
+		super(amount);
+	}
+
 	public MobilePayment(double amount) {
 		super(amount);
 	}
@@ -1,19 +1,37 @@
 package restaurant.payment.model;
 
+import java.util.Objects;
+
+import restaurant.core.model.Money;
+
 /**
  * Base class for different payment methods. This is a sealed abstract class,
  * allowing only specific implementations.
  */
 public sealed abstract class PaymentMethod implements Payment permits CreditCard, CashPayment, MobilePayment, ApplePay {
 
-	protected double amount;
+	protected Money amount;
 
 	/**
 	 * Create a new payment method with the given amount.
 	 * 
 	 * @param amount the payment amount
 	 */
+	public PaymentMethod(Money amount) {
+		this.amount = Objects.requireNonNull(amount, "Amount must not be null.");
+	}
+
+	/**
+	 * Create a new payment method with the given amount.
+	 * 
+	 * @param amount the payment amount in euros, rounded to whole cents
+	 */
 	public PaymentMethod(double amount) {
-		this.amount = amount;
+		this(Money.of(amount));
+	}
+
+	/** @return the payment amount */
+	public Money getAmount() {
+		return amount;
 	}
 }
@@ -0,0 +1,259 @@
+package restaurant.payment.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import restaurant.core.model.Dish;
+import restaurant.core.model.Money;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+
+/**
+ * The bill of one order split into shares that are paid separately and at the
+ * same time, e.g. one per guest at the table.
+ * <p>
+ * Splitting the bill starts the payment of the order. A share is paid at most
+ * once; a failed share can be paid again, each attempt under its own number.
+ * What has been paid so far is kept in atomic counters, so shares settling
+ * concurrently need no lock. The order becomes {@link OrderStatus#PAID} as soon
+ * as the paid shares add up to its total. It only becomes
+ * {@link OrderStatus#PAYMENT_FAILED} when the bill is abandoned; the shares paid
+ * until then are refunded.
+ */
+public final class SplitBill {
+
+	/** Where a share stands */
+	public enum ShareStatus {
+		OPEN, PAYING, PAID, FAILED, REFUNDED
+	}
+
+	/** Status and number of payment attempts of a share, changed together */
+	private record ShareState(ShareStatus status, int attempts) {
+	}
+
+	private final Order order;
+	private final List<Money> shares;
+	private final AtomicReferenceArray<ShareState> state;
+	private final AtomicLong paidMinorUnits = new AtomicLong();
+
+	private SplitBill(Order order, List<Money> shares) {
+		this.order = order;
+		this.shares = List.copyOf(shares);
+		this.state = new AtomicReferenceArray<>(shares.size());
+		for (int i = 0; i < shares.size(); i++) {
+			state.set(i, new ShareState(ShareStatus.OPEN, 0));
+		}
+		if (!order.compareAndSetStatus(OrderStatus.PREPARED, OrderStatus.PAYING)) {
+			throw new IllegalStateException("Order cannot be paid (" + order.getStatus() + ").");
+		}
+	}
+
+	/**
+	 * Split the bill into equal shares. Shares differ by at most one cent; the
+	 * first shares pay the extra cents.
+	 *
+	 * @param order the prepared order
+	 * @param ways  number of shares
+	 * @throws IllegalStateException if the order cannot be paid
+	 */
+	public static SplitBill equally(Order order, int ways) {
+		return new SplitBill(order, order.getTotal().allocate(ways));
+	}
+
+	/**
+	 * Split the bill by what everyone had. Every dish of the order must be in
+	 * exactly one share.
+	 *
+	 * @param order the prepared order
+	 * @param items the dishes of each share
+	 * @throws IllegalArgumentException if the dishes do not match the order
+	 * @throws IllegalStateException    if the order cannot be paid
+	 */
+	public static SplitBill byItems(Order order, List<List<Dish>> items) {
+		Map<Dish, Integer> unassigned = new HashMap<>();
+		order.getDishes().forEach(dish -> unassigned.merge(dish, 1, Integer::sum));
+		List<Money> shares = new ArrayList<>(items.size());
+		for (List<Dish> share : items) {
+			if (share.isEmpty()) {
+				throw new IllegalArgumentException("A share needs at least one dish.");
+			}
+			Money amount = new Money(0, order.getTotal().currency());
+			for (Dish dish : share) {
+				if (unassigned.merge(dish, -1, Integer::sum) < 0) {
+					throw new IllegalArgumentException(dish.name() + " is not on the order or in two shares.");
+				}
+				amount = amount.plus(dish.price());
+			}
+			shares.add(amount);
+		}
+		if (unassigned.values().stream().anyMatch(count -> count > 0)) {
+			throw new IllegalArgumentException("Every dish of the order must be in a share.");
+		}
+		return new SplitBill(order, shares);
+	}
+
+	/**
+	 * Split the bill into the given amounts.
+	 *
+	 * @param order   the prepared order
+	 * @param amounts the amount of each share; they must add up to the total
+	 * @throws IllegalArgumentException if the amounts do not add up to the total
+	 * @throws IllegalStateException    if the order cannot be paid
+	 */
+	public static SplitBill byAmounts(Order order, List<Money> amounts) {
+		if (amounts.isEmpty()) {
+			throw new IllegalArgumentException("At least one share is needed.");
+		}
+		Money sum = new Money(0, order.getTotal().currency());
+		for (Money amount : amounts) {
+			if (!amount.isPositive()) {
+				throw new IllegalArgumentException("Every share must be greater than 0.");
+			}
+			sum = sum.plus(amount);
+		}
+		if (!sum.equals(order.getTotal())) {
+			throw new IllegalArgumentException("Shares add up to " + sum + ", not " + order.getTotal() + ".");
+		}
+		return new SplitBill(order, amounts);
+	}
+
+	/**
+	 * @return the number of the attempt a payment of the share made now belongs
+	 *         to: the current one while the share is being paid or once it is
+	 *         paid, otherwise the next one
+	 */
+	int nextAttempt(int share) {
+		ShareState current = state.get(share);
+		return switch (current.status()) {
+		case OPEN, FAILED -> current.attempts() + 1;
+		case PAYING, PAID, REFUNDED -> current.attempts();
+		};
+	}
+
+	/**
+	 * Claim an open or failed share for the given payment attempt.
+	 *
+	 * @return false if the share was claimed by another attempt, is paid, or the
+	 *         bill is settled or abandoned
+	 */
+	boolean startShare(int share, int attempt) {
+		ShareState current = state.get(share);
+		if (order.getStatus() != OrderStatus.PAYING || current.attempts() != attempt - 1
+				|| (current.status() != ShareStatus.OPEN && current.status() != ShareStatus.FAILED)) {
+			return false;
+		}
+		return state.compareAndSet(share, current, new ShareState(ShareStatus.PAYING, attempt));
+	}
+
+	/**
+	 * Record the outcome of a share and finish the order once the paid shares add
+	 * up to its total.
+	 *
+	 * @return true if the share was paid after the bill was abandoned, so its
+	 *         payment must be refunded
+	 */
+	boolean settleShare(int share, boolean paid) {
+		ShareState current = state.get(share);
+		if (current.status() != ShareStatus.PAYING || !state.compareAndSet(share, current,
+				new ShareState(paid ? ShareStatus.PAID : ShareStatus.FAILED, current.attempts()))) {
+			throw new IllegalStateException("Share " + share + " is not being paid.");
+		}
+		if (!paid) {
+			return false;
+		}
+		if (paidMinorUnits.addAndGet(shares.get(share).minorUnits()) == order.getTotal().minorUnits()) {
+			order.compareAndSetStatus(OrderStatus.PAYING, OrderStatus.PAID);
+		}
+		// The bill may have been abandoned while the share was paid
+		return isAbandoned() && refund(share);
+	}
+
+	/**
+	 * Give up on the bill: the order fails and the shares paid so far are marked
+	 * as refunded. Shares still being paid are refunded when they settle.
+	 *
+	 * @return the shares whose payments must be refunded
+	 * @throws IllegalStateException if the order is paid or the bill was
+	 *                               abandoned already
+	 */
+	List<Integer> abandon() {
+		if (!order.compareAndSetStatus(OrderStatus.PAYING, OrderStatus.PAYMENT_FAILED)) {
+			throw new IllegalStateException("Bill cannot be abandoned, order is " + order.getStatus() + ".");
+		}
+		List<Integer> refunds = new ArrayList<>();
+		for (int share = 0; share < shares.size(); share++) {
+			if (refund(share)) {
+				refunds.add(share);
+			}
+		}
+		return refunds;
+	}
+
+	/** Of the abandoning thread and a settling share, exactly one refunds it. */
+	private boolean refund(int share) {
+		ShareState current = state.get(share);
+		if (current.status() != ShareStatus.PAID
+				|| !state.compareAndSet(share, current, new ShareState(ShareStatus.REFUNDED, current.attempts()))) {
+			return false;
+		}
+		paidMinorUnits.addAndGet(-shares.get(share).minorUnits());
+		return true;
+	}
+
+	public Order getOrder() {
+		return order;
+	}
+
+	/** @return the amount of every share */
+	public List<Money> getShares() {
+		return shares;
+	}
+
+	/** @return number of shares */
+	public int size() {
+		return shares.size();
+	}
+
+	public Money getShare(int share) {
+		return shares.get(share);
+	}
+
+	public ShareStatus getStatus(int share) {
+		return state.get(share).status();
+	}
+
+	/** @return number of payment attempts started for the share */
+	public int getAttempts(int share) {
+		return state.get(share).attempts();
+	}
+
+	/** @return true if the bill was given up and the order failed */
+	public boolean isAbandoned() {
+		return order.getStatus() == OrderStatus.PAYMENT_FAILED;
+	}
+
+	/** @return sum of the paid shares */
+	public Money getPaid() {
+		return new Money(paidMinorUnits.get(), order.getTotal().currency());
+	}
+
+	/** @return what is still to be paid */
+	public Money getOutstanding() {
+		return order.getTotal().minus(getPaid());
+	}
+
+	/** @return true once the paid shares add up to the total */
+	public boolean isPaid() {
+		return paidMinorUnits.get() == order.getTotal().minorUnits();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Bill [Order %d | Shares: %d | Paid: %s | Outstanding: %s]", order.getId(), shares.size(),
+				getPaid(), getOutstanding());
+	}
+}
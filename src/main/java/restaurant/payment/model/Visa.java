@@ -1,10 +1,15 @@
 package restaurant.payment.model;
 
+import restaurant.core.model.Money;
 /**
  * Visa credit card payment option.
  */
 public final class Visa extends CreditCard {
 
+	public Visa(Money amount) {
+		super(amount);
+	}
+
 	public Visa(double amount) {
 		super(amount);
 	}
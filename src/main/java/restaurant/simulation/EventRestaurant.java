@@ -0,0 +1,276 @@
+package restaurant.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.Admission;
+import restaurant.core.kitchen.model.EventScheduler;
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.model.Dish;
+import restaurant.core.model.MenuMix;
+import restaurant.core.model.Money;
+import restaurant.core.order.model.Order;
+import restaurant.core.table.model.TableAllocator;
+import restaurant.core.waiter.model.Waiter;
+import restaurant.infrastructure.clock.EventClock;
+import restaurant.infrastructure.monitoring.WaitTimeHistogram;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.model.CashPayment;
+import restaurant.payment.model.CashRegister;
+
+/**
+ * Restaurant simulated as a sequence of events on one thread. Customers,
+ * waiter, kitchen and cash register interact as in {@link Restaurant}, but
+ * every delay is an event on an {@link EventClock} instead of a sleeping
+ * thread, so a day with a million customers runs in seconds.
+ * <p>
+ * Customers arrive one after another with random gaps, free their table when
+ * they leave and are then forgotten; the report only keeps totals. Memory
+ * therefore depends on the number of tables, not on the number of customers.
+ * <p>
+ * All random decisions (arrivals, tables, dishes, delays) come from one
+ * generator, so a seeded generator repeats the same day.
+ */
+public class EventRestaurant {
+
+	/** Default average time between two arriving customers */
+	public static final long DEFAULT_ARRIVAL_GAP_MILLIS = 1000;
+
+	private final EventClock clock;
+	private final Kitchen kitchen;
+	private final Waiter waiter;
+	private final CashRegister cashRegister;
+	private final TableAllocator tables;
+	private final long arrivalGapMillis;
+	private final MenuMix menuMix;
+	private final RandomGenerator random;
+	private final WaitTimeHistogram waitTimes = new WaitTimeHistogram();
+
+	private long startMillis;
+	private int arrived;
+	private long seated;
+	private long turnedAway;
+	private long notServed;
+	private long paid;
+	private long paymentFailed;
+	private Money totalRevenue = Money.ZERO;
+	private Money totalPaid = Money.ZERO;
+
+	/**
+	 * Create an event restaurant with {@link Restaurant#MAX_CUSTOMERS} tables and
+	 * the default arrival gap.
+	 *
+	 * @param numChefs number of chefs working in the kitchen
+	 */
+	public EventRestaurant(int numChefs) {
+		this(numChefs, Restaurant.MAX_CUSTOMERS, DEFAULT_ARRIVAL_GAP_MILLIS);
+	}
+
+	/**
+	 * @param numChefs         number of chefs working in the kitchen
+	 * @param numTables        number of tables; customers finding none leave
+	 * @param arrivalGapMillis average simulated time between two arrivals
+	 */
+	public EventRestaurant(int numChefs, int numTables, long arrivalGapMillis) {
+		this(numChefs, numTables, arrivalGapMillis, MenuMix.EVEN, Toolkit.newRandom());
+	}
+
+	/**
+	 * @param numChefs         number of chefs working in the kitchen
+	 * @param numTables        number of tables; customers finding none leave
+	 * @param arrivalGapMillis average simulated time between two arrivals
+	 * @param menuMix          what the customers order
+	 * @param random           source of every random decision of the day
+	 */
+	public EventRestaurant(int numChefs, int numTables, long arrivalGapMillis, MenuMix menuMix,
+			RandomGenerator random) {
+		if (arrivalGapMillis <= 0) {
+			throw new IllegalArgumentException("Arrival gap must be greater than 0.");
+		}
+		this.clock = new EventClock();
+		this.kitchen = new Kitchen(new EventScheduler(numChefs, clock));
+		this.cashRegister = new CashRegister();
+		this.waiter = new Waiter(kitchen, cashRegister);
+		this.tables = TableAllocator.uniform(numTables);
+		this.arrivalGapMillis = arrivalGapMillis;
+		this.menuMix = menuMix;
+		this.random = random;
+	}
+
+	/**
+	 * Simulate a day: the given number of customers arrive, order, pay and leave.
+	 * Returns once the last customer has left.
+	 *
+	 * @param numCustomers how many customers arrive during the day
+	 */
+	public void simulateDay(int numCustomers) {
+		startMillis = clock.millis();
+		if (numCustomers > 0) {
+			clock.schedule(nextArrivalGap(), () -> arrive(numCustomers));
+		}
+		clock.run();
+		kitchen.close();
+	}
+
+	/**
+	 * A customer enters; the next arrival is only scheduled now, so the event
+	 * queue never holds more than one future customer.
+	 */
+	private void arrive(int numCustomers) {
+		if (++arrived < numCustomers) {
+			clock.schedule(nextArrivalGap(), () -> arrive(numCustomers));
+		}
+		Customer customer = Toolkit.seatCustomer.apply(tables, random);
+		if (customer == null) {
+			turnedAway++;
+			Toolkit.logTime.accept("Customer leaves — no tables available.");
+			return;
+		}
+		seated++;
+		Toolkit.logTime.accept(customer.getName() + " enters the restaurant and sits at table "
+				+ customer.getTableNumber());
+		// Wait randomly 1–3 seconds before ordering
+		clock.schedule(random.nextInt(1000, 3001), () -> order(customer));
+	}
+
+	/** Order 1–3 dishes picked according to the menu mix. */
+	private void order(Customer customer) {
+		int numberOfDishes = random.nextInt(1, 4);
+		List<Dish> dishes = new ArrayList<>(numberOfDishes);
+		for (int i = 0; i < numberOfDishes; i++) {
+			dishes.add(menuMix.pick(Restaurant.MENU.getAllDishes(), random));
+		}
+		Order order = Order.create(customer, dishes, clock);
+		Toolkit.logTime.accept(customer.getName() + " is placing an order...");
+		takeOrder(customer, order, clock.millis());
+	}
+
+	private void takeOrder(Customer customer, Order order, long orderedAt) {
+		Admission admission = waiter.takeOrder(customer, order);
+		switch (admission) {
+		case Admission.Deferred deferred -> clock.schedule(deferred.retryAfter().toMillis(),
+				() -> takeOrder(customer, order, orderedAt));
+		case Admission.Rejected rejected -> {
+			Toolkit.logTime.accept(customer.getName() + " could not order and leaves.");
+			notServed++;
+			leave(customer);
+		}
+		case Admission.Accepted accepted -> accepted.future().whenComplete((prepared, e) -> {
+			if (e != null) {
+				notServed++;
+				leave(customer);
+				return;
+			}
+			waitTimes.record(clock.millis() - orderedAt);
+			Toolkit.logTime.accept(customer.getName() + " received the order.");
+			clock.schedule(random.nextInt(5000, 8001), () -> pay(customer));
+		});
+		}
+	}
+
+	private void pay(Customer customer) {
+		Order order = customer.getOrder();
+		Toolkit.logTime.accept(customer.getName() + " wants to pay the bill.");
+		customer.pay(waiter, new CashPayment(order.getTotal()));
+
+		totalRevenue = totalRevenue.plus(order.getTotal());
+		switch (order.getStatus()) {
+		case PAID -> {
+			paid++;
+			totalPaid = totalPaid.plus(order.getTotal());
+		}
+		case PAYMENT_FAILED -> paymentFailed++;
+		default -> {
+		}
+		}
+		// Wait 1–3s before leaving
+		clock.schedule(random.nextInt(1000, 3001), () -> leave(customer));
+	}
+
+	private void leave(Customer customer) {
+		Toolkit.logTime.accept(customer.getName() + " stands up and leaves the restaurant.");
+		tables.release(customer.getTableNumber());
+	}
+
+	/**
+	 * Generates the daily report as a formatted String. Individual orders are not
+	 * kept, so it only lists totals.
+	 *
+	 * @return formatted report text
+	 */
+	public String getReport() {
+		String title = "Daily Report";
+		String line = "-".repeat(title.length());
+		return """
+				%s
+				%s
+				%s
+
+				Customers arrived:   %d
+				Customers seated:    %d
+				Turned away:         %d
+				Orders not served:   %d
+				Orders paid:         %d
+				Payments failed:     %d
+				Wait p50 / p99:      %d / %d ms
+				Simulated time:      %.1f h
+				----------------------
+				Total revenue:   %s
+				Total paid:      %s
+				----------------------
+				""".formatted(line, title, line, arrived, seated, turnedAway, notServed, paid, paymentFailed,
+				waitTimes.percentile(50), waitTimes.percentile(99), getSimulatedMillis() / 3_600_000.0, totalRevenue, totalPaid);
+	}
+
+	/** @return simulated time from opening until the last customer left */
+	public long getSimulatedMillis() {
+		return clock.millis() - startMillis;
+	}
+
+	/** @return number of customers that got a table */
+	public long getSeatedCount() {
+		return seated;
+	}
+
+	/** @return number of customers that paid successfully */
+	public long getPaidCount() {
+		return paid;
+	}
+
+	/** @return number of customers that found no free table */
+	public long getTurnedAwayCount() {
+		return turnedAway;
+	}
+
+	/** @return sum of all paid bills */
+	public Money getTotalPaid() {
+		return totalPaid;
+	}
+
+	/** @return how long customers waited from ordering until their food came */
+	public WaitTimeHistogram getWaitTimes() {
+		return waitTimes;
+	}
+
+	/** @return the clock the day passes on */
+	public EventClock getClock() {
+		return clock;
+	}
+
+	/** @return the kitchen of this restaurant */
+	public Kitchen getKitchen() {
+		return kitchen;
+	}
+
+	/** @return the cash register of this restaurant */
+	public CashRegister getCashRegister() {
+		return cashRegister;
+	}
+
+	private long nextArrivalGap() {
+		// Exponential gaps: customers arrive independently of each other
+		return (long) (-arrivalGapMillis * Math.log(1 - random.nextDouble()));
+	}
+}
@@ -1,25 +1,39 @@
 package restaurant.simulation;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.Admission;
 import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.kitchen.model.QueueScheduler;
 import restaurant.core.model.Category;
 import restaurant.core.model.Dish;
 import restaurant.core.model.Menu;
 import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderRegistry;
+import restaurant.core.order.model.OrderStatistics;
 import restaurant.core.order.model.OrderStatus;
+import restaurant.core.table.model.TableAllocator;
 import restaurant.core.waiter.model.Waiter;
+import restaurant.infrastructure.clock.SimulationClock;
 import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.PaymentResult;
 import restaurant.payment.model.CashPayment;
 import restaurant.payment.model.CashRegister;
+import restaurant.simulation.model.ReportFormat;
 
 /**
  * Coordinates kitchen, waiter, customers, and payments.
@@ -29,11 +43,22 @@ public class Restaurant {
 	private final Kitchen kitchen;
 	private final Waiter waiter;
 	private final CashRegister cashRegister;
-	private final List<Customer> customers = new ArrayList<>();
-	private final List<CompletableFuture<Order>> orders = new ArrayList<>();
+	private final SimulationClock clock;
+	private final SplittableGenerator random;
+	/** Generators of each customer, split off {@link #random} when they enter */
+	private final Map<Customer, CustomerRandom> customerRandoms = new ConcurrentHashMap<>();
+	/** Customers sitting at a table, by table number */
+	private final Map<Integer, Customer> customers = new ConcurrentHashMap<>();
+	private final OrderRegistry orders = new OrderRegistry();
+	/** Default number of tables */
 	public static final int MAX_CUSTOMERS = 20;
-	private final List<Integer> freeTables = IntStream.rangeClosed(1, MAX_CUSTOMERS).boxed()
-			.collect(Collectors.toList());
+	/** Customer budget of a restaurant without a limit */
+	public static final int UNLIMITED_CUSTOMERS = Integer.MAX_VALUE;
+	/** Orders written by {@link #writeReport} between two flushes */
+	public static final int REPORT_FLUSH_EVERY = 1000;
+	private final TableAllocator tables;
+	/** One permit per arriving customer that may have a thread */
+	private final Semaphore door;
 
 	/** Static demo menu for the restaurant */
 	public static Menu MENU = new Menu(
@@ -48,7 +73,83 @@ public class Restaurant {
 	 * @param numChefs number of chefs working in the kitchen
 	 */
 	public Restaurant(int numChefs) {
-		this.kitchen = new Kitchen(numChefs);
+		this(numChefs, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * Create a restaurant whose delays (arrivals, cooking, paying) pass on the
+	 * given clock, e.g. {@link SimulationClock#virtual()} to run a whole day
+	 * without real waiting.
+	 * 
+	 * @param numChefs number of chefs working in the kitchen
+	 * @param clock    the clock all simulated delays pass on
+	 */
+	public Restaurant(int numChefs, SimulationClock clock) {
+		this(numChefs, clock, Toolkit.newRandom());
+	}
+
+	/**
+	 * Create a restaurant whose customers make the same random decisions (delays,
+	 * dishes) for the same seed. Every customer gets its own generator, split off
+	 * in the order the customers are created, so their threads never share one.
+	 * <p>
+	 * The day does not fully repeat: customers race for the free tables, so which
+	 * table a customer gets, and whether a late one still finds one, depends on
+	 * the order in which their threads arrive. {@link EventRestaurant} runs a day
+	 * from one thread and repeats it exactly for the same seed.
+	 * 
+	 * @param numChefs number of chefs working in the kitchen
+	 * @param clock    the clock all simulated delays pass on
+	 * @param seed     the seed of the simulated day
+	 */
+	public Restaurant(int numChefs, SimulationClock clock, long seed) {
+		this(numChefs, clock, seed, TableAllocator.uniform(MAX_CUSTOMERS));
+	}
+
+	/**
+	 * Create a restaurant with its own set of tables, e.g. many more than
+	 * {@link #MAX_CUSTOMERS}.
+	 * 
+	 * @param numChefs number of chefs working in the kitchen
+	 * @param clock    the clock all simulated delays pass on
+	 * @param seed     the seed of the simulated day
+	 * @param tables   the tables customers are seated at
+	 */
+	public Restaurant(int numChefs, SimulationClock clock, long seed, TableAllocator tables) {
+		this(numChefs, clock, seed, tables, UNLIMITED_CUSTOMERS);
+	}
+
+	/**
+	 * Create a restaurant that never has more than the given number of arriving
+	 * customers on their way in at once. Further customers wait at the door until
+	 * one of them is seated or turned away, so a very large day cannot flood the
+	 * machine with threads while other restaurants run next to it.
+	 * 
+	 * @param numChefs       number of chefs working in the kitchen
+	 * @param clock          the clock all simulated delays pass on
+	 * @param seed           the seed of the simulated day
+	 * @param tables         the tables customers are seated at
+	 * @param customerBudget how many arriving customers may have a thread at once
+	 */
+	public Restaurant(int numChefs, SimulationClock clock, long seed, TableAllocator tables, int customerBudget) {
+		this(numChefs, clock, Toolkit.newRandom(seed), tables, customerBudget);
+	}
+
+	private Restaurant(int numChefs, SimulationClock clock, SplittableGenerator random) {
+		this(numChefs, clock, random, TableAllocator.uniform(MAX_CUSTOMERS), UNLIMITED_CUSTOMERS);
+	}
+
+	private Restaurant(int numChefs, SimulationClock clock, SplittableGenerator random, TableAllocator tables,
+			int customerBudget) {
+		if (customerBudget <= 0) {
+			throw new IllegalArgumentException("Customer budget must be greater than 0.");
+		}
+		this.clock = clock;
+		this.random = random;
+		this.tables = tables;
+		this.door = new Semaphore(customerBudget);
+		this.kitchen = new Kitchen(
+				new QueueScheduler(numChefs, Toolkit.estimatedDuration, new LinkedBlockingQueue<>(), 1, clock));
 		this.cashRegister = new CashRegister();
 		this.waiter = new Waiter(kitchen, cashRegister);
 	}
@@ -60,19 +161,18 @@ public class Restaurant {
 	public void start() {
 		try {
 			Customer customer = new Customer("Peter", 4);
-			Order order = Toolkit.testOrderWithCustomer.apply(customer);
+			Order order = Toolkit.orderWithCustomer.apply(customer, split());
 
 			// Place order with waiter and receive a Future for the kitchen
 			CompletableFuture<Order> future = customer.placeOrder(waiter, order)
-					// After preparation → directly pay
-					.thenApply(preparedOrder -> {
-						preparedOrder.getCustomer().pay(waiter, new CashPayment(preparedOrder.getTotalPrice()));
-						return preparedOrder; // Future completes only after payment
-					});
-			orders.add(future);
+					// After preparation → directly pay; completes once the payment is answered
+					.thenCompose(preparedOrder -> preparedOrder.getCustomer()
+							.pay(waiter, new CashPayment(preparedOrder.getTotal()))
+							.thenApply(result -> preparedOrder));
+			orders.register(order, future);
 
 			// Wait for all orders to complete
-			CompletableFuture<Void> allFinished = CompletableFuture.allOf(orders.toArray(new CompletableFuture[0]));
+			CompletableFuture<Void> allFinished = orders.allDone();
 
 			allFinished.thenRun(() -> {
 				if (allOrdersCompleted()) {
@@ -97,34 +197,50 @@ public class Restaurant {
 	 */
 	public void simulateCustomerEnters(int numCustomers) {
 		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			IntStream.range(1, numCustomers + 1).forEach(i -> {
+			for (int i = 1; i <= numCustomers; i++) {
+				// Split before the thread starts, so customer i always gets the same generators
+				CustomerRandom customerRandom = new CustomerRandom(split());
+				try {
+					door.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
 				executor.submit(() -> {
 					try {
 						// random 1–5s delay before entering
-						Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 5001));
-						Customer c = Toolkit.createCustomerForFreeTable.apply(freeTables);
+						clock.sleep(customerRandom.enter().nextInt(1000, 5001));
+						Customer c = Toolkit.seatCustomer.apply(tables, customerRandom.seat());
 						if (c == null) {
 							Toolkit.logTime.accept("Customer leaves — no tables available.");
 							return;
 						}
-						customers.add(c);
+						customerRandoms.put(c, customerRandom);
+						customers.put(c.getTableNumber(), c);
 						Toolkit.logTime
 								.accept(c.getName() + " enters the restaurant and sits at table " + c.getTableNumber());
 					} catch (InterruptedException e) {
 						Thread.currentThread().interrupt();
+					} finally {
+						door.release();
 					}
 				});
-			});
+			}
 		}
 	}
 
 	/** Simulates one customer leaving the restaurant (after random delay) */
 	public void simulateCustomerExits(Customer customer) {
 		try {
-			Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 3001)); // wait 1–3s before leaving
+			clock.sleep(randomOf(customer).exit().nextInt(1000, 3001)); // wait 1–3s before leaving
 			Toolkit.logTime.accept(customer.getName() + " stands up and leaves the restaurant.");
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
+		} finally {
+			// The table is free again even if the customer was interrupted on the way out
+			if (customers.remove(customer.getTableNumber(), customer)) {
+				tables.release(customer.getTableNumber());
+			}
 		}
 	}
 
@@ -132,12 +248,11 @@ public class Restaurant {
 	public void simulateAllCustomersExit() {
 		Toolkit.logTime.accept("Customers are starting to leave the restaurant...");
 		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			for (Customer c : customers) {
+			for (Customer c : customers.values()) {
 				executor.submit(() -> simulateCustomerExits(c));
 			}
 		}
 		Toolkit.logTime.accept("All customers have left (or are on their way out).");
-		customers.clear();
 	}
 
 	/**
@@ -146,7 +261,7 @@ public class Restaurant {
 	 */
 	public void simulateOrders() {
 		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			for (Customer c : customers) {
+			for (Customer c : customers.values()) {
 				executor.submit(() -> simulateOrder(c));
 			}
 		}
@@ -156,18 +271,30 @@ public class Restaurant {
 	public void simulateOrder(Customer customer) {
 		try {
 			// Wait randomly 1–3 seconds before ordering
-			Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 3001));
+			RandomGenerator orderRandom = randomOf(customer).order();
+			clock.sleep(orderRandom.nextInt(1000, 3001));
 
-			Order order = Toolkit.testOrderWithCustomer.apply(customer);
+			Order order = Toolkit.orderAt(customer, orderRandom, clock);
 			Toolkit.logTime.accept(customer.getName() + " is placing an order...");
 
-			CompletableFuture<Order> future = customer.placeOrder(waiter, order).thenApply(prepared -> {
+			// A busy kitchen may ask the customer to wait before ordering again
+			Admission admission = waiter.takeOrder(customer, order);
+			while (admission instanceof Admission.Deferred deferred) {
+				clock.sleep(deferred.retryAfter().toMillis());
+				admission = waiter.takeOrder(customer, order);
+			}
+			if (!(admission instanceof Admission.Accepted accepted)) {
+				Toolkit.logTime.accept(customer.getName() + " could not order and leaves.");
+				return;
+			}
+
+			// Registered until the payment is answered, so the report sees it
+			CompletableFuture<Order> future = accepted.future().thenCompose(prepared -> {
 				Toolkit.logTime.accept(customer.getName() + " received the order.");
-				simulatePayment(customer);
-				return prepared;
+				return simulatePayment(customer).thenApply(result -> prepared);
 			});
 
-			orders.add(future);
+			orders.register(order, future);
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
 		}
@@ -176,38 +303,49 @@ public class Restaurant {
 	/** Customers pay their bills at random intervals (after ordering) */
 	public void simulatePayments() {
 		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			for (Customer c : customers) {
+			for (Customer c : customers.values()) {
 				executor.submit(() -> simulatePayment(c));
 			}
 		}
 	}
 
-	/** Simulates payment after a random delay */
-	public void simulatePayment(Customer customer) {
+	/**
+	 * Simulates payment after a random delay.
+	 *
+	 * @return completes with the result once the payment is answered
+	 */
+	public CompletableFuture<PaymentResult> simulatePayment(Customer customer) {
 		try {
-
-			Thread.sleep(ThreadLocalRandom.current().nextInt(5000, 8001));
+			clock.sleep(randomOf(customer).payment().nextInt(5000, 8001));
 			Toolkit.logTime.accept(customer.getName() + " wants to pay the bill.");
-			customer.pay(waiter, new CashPayment(customer.getOrder().getTotalPrice()));
+			return customer.pay(waiter, new CashPayment(customer.getOrder().getTotal()));
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
+			return CompletableFuture.completedFuture(new PaymentResult.Declined("Interrupted before paying"));
 		}
 	}
 
 	/** Waits for all orders to complete and closes the kitchen. */
 	public void close() {
 		Toolkit.logTime.accept("Waiting for all customers to finish...");
-		CompletableFuture.allOf(orders.toArray(new CompletableFuture[0])).join();
+		// Orders shed by the kitchen fail; they still count as finished here
+		orders.allDone().join();
+		// End of day: capture card payments still waiting for their batch
+		cashRegister.settle();
 		Toolkit.logTime.accept("All customers finished!");
 		kitchen.close();
 	}
 
 	/**
-	 * Generates the daily report as a formatted String.
+	 * Generates the daily report as a formatted String. The totals are kept up to
+	 * date while orders change status, so the report neither walks the orders
+	 * nor waits for unfinished ones; see {@link #getItemizedReport} for the
+	 * orders themselves.
 	 *
 	 * @return formatted report text
 	 */
 	public String getReport() {
+		OrderStatistics stats = orders.getStatistics();
 		StringBuilder sb = new StringBuilder();
 
 		String title = "Daily Report";
@@ -216,81 +354,68 @@ public class Restaurant {
 		// --- Header ---
 		sb.append(line).append("\n").append(title).append("\n").append(line).append("\n\n");
 
-		double totalRevenue = 0.0;
-		double totalPaid = 0.0;
-
-		for (CompletableFuture<Order> cf : orders) {
-			try {
-				Order finishedOrder = cf.get();
-
-				String statusMessage = switch (finishedOrder.getStatus()) {
-				case PAID -> {
-					totalPaid += finishedOrder.getTotalPrice();
-					yield "Order successfully completed.";
-				}
-				case PAYMENT_FAILED -> "Outstanding payment!";
-				case PREPARED -> "Not yet paid.";
-				default -> "Unknown status!";
-				};
-
-				// Append each order to the report
-				sb.append("• ").append(statusMessage).append("\n");
-				sb.append(finishedOrder.toString().indent(4)).append("\n");
-
-				totalRevenue += finishedOrder.getTotalPrice();
-			} catch (Exception e) {
-				sb.append("⚠️ Error retrieving order: ").append(e.getMessage()).append("\n");
-			}
+		sb.append(String.format("Orders:              %d%n", stats.getOrderCount()));
+		for (OrderStatus status : OrderStatus.values()) {
+			sb.append(String.format("  %-18s %d%n", status.toString().toLowerCase() + ":", stats.getCount(status)));
+		}
+		sb.append("\nSales by category:\n");
+		for (Category category : Category.values()) {
+			sb.append(String.format("  %-18s %s%n", category.toString().toLowerCase() + ":",
+					stats.getSales(category)));
 		}
+		sb.append("\nDishes served:\n");
+		stats.getDishCounts().forEach((dish, count) -> sb.append(String.format("  %-18s %d%n", dish + ":", count)));
 
 		// --- Footer ---
-		sb.append("----------------------\n").append(String.format("Total revenue:   %.2f €%n", totalRevenue))
-				.append(String.format("Total paid:      %.2f €%n", totalPaid)).append("----------------------\n");
+		sb.append("----------------------\n").append(String.format("Total revenue:   %s%n", stats.getRevenue()))
+				.append(String.format("Total paid:      %s%n", stats.getPaid())).append("----------------------\n");
 		return sb.toString();
 	}
 
 	/**
-	 * Print a daily report with all orders, their statuses, and totals.
+	 * Lists one page of the orders of the day with their status. Orders still in
+	 * progress are listed as they are, without waiting for them.
+	 *
+	 * @param page zero-based page number
+	 * @param size orders per page
+	 * @return formatted order listing
 	 */
-	public void printReport() {
-		String title = "Daily Report";
-		String line = "-".repeat(title.length());
-
-		String header = line + "\n" + title + "\n" + line;
-		System.out.println(header);
-
-		double totalRevenue = 0.0;
-		double totalPaid = 0.0;
+	public String getItemizedReport(int page, int size) {
+		StringBuilder sb = new StringBuilder();
+		for (Order order : orders.page(page, size)) {
+			sb.append(ReportFormat.TEXT.format(order));
+		}
+		return sb.toString();
+	}
 
-		for (CompletableFuture<Order> cf : orders) {
-			try {
-				Order finishedOrder = cf.get();
-				String statusMessage = switch (finishedOrder.getStatus()) {
-				case PAID -> {
-					totalPaid += finishedOrder.getTotalPrice();
-					yield "Order successfully completed.";
-				}
-				case PAYMENT_FAILED -> "Outstanding payment!";
-				case PREPARED -> "Not yet paid.";
-				default -> "Unknown status!";
-				};
-				// Indent order details for better readability
-				String details = finishedOrder.toString().indent(4);
-				Toolkit.logger.accept(finishedOrder, statusMessage + "\n" + details);
-				totalRevenue += finishedOrder.getTotalPrice();
-			} catch (Exception e) {
-				System.err.println("Error retrieving order: " + e.getMessage());
+	/**
+	 * Write every order of the day and then the totals. Orders are read from the
+	 * registry one at a time while writing, so memory stays the same however many
+	 * orders there are. The writer is flushed after the first order and then every
+	 * {@link #REPORT_FLUSH_EVERY} orders, so a client sees the first orders right
+	 * away.
+	 *
+	 * @param format how to write each order
+	 * @param out    where to write the report; not closed
+	 */
+	public void writeReport(ReportFormat format, Writer out) throws IOException {
+		Iterator<Order> it = orders.orders().iterator();
+		long written = 0;
+		while (it.hasNext()) {
+			out.write(format.format(it.next()));
+			if (++written == 1 || written % REPORT_FLUSH_EVERY == 0) {
+				out.flush();
 			}
 		}
+		out.write(format.summary(orders.getStatistics()));
+		out.flush();
+	}
 
-		String footer = """
-				----------------------
-				Total revenue:   %.2f €
-				Total paid:      %.2f €
-				----------------------
-				""".formatted(totalRevenue, totalPaid);
-
-		footer.lines().map(String::stripTrailing).forEach(System.out::println);
+	/**
+	 * Print the daily report with the order statuses and totals.
+	 */
+	public void printReport() {
+		getReport().lines().map(String::stripTrailing).forEach(System.out::println);
 	}
 
 	/** Prints daily report */
@@ -298,24 +423,68 @@ public class Restaurant {
 		System.out.println(getReport());
 	}
 
+	/**
+	 * @return the generators of a customer; customers that did not enter through
+	 *         {@link #simulateCustomerEnters} get new ones split off on first use
+	 */
+	private CustomerRandom randomOf(Customer customer) {
+		return customerRandoms.computeIfAbsent(customer, c -> new CustomerRandom(split()));
+	}
+
+	/** Splitting changes the generator, so only one thread may do it at a time. */
+	private SplittableGenerator split() {
+		synchronized (random) {
+			return random.split();
+		}
+	}
+
+	/**
+	 * One generator per step of a customer. Payment runs on a chef thread while
+	 * the customer may already be leaving, so the steps must not share one. All
+	 * are split off before any is drawn from, so a step's draws never depend on
+	 * how many an earlier step made.
+	 */
+	private record CustomerRandom(RandomGenerator enter, RandomGenerator seat, RandomGenerator order,
+			RandomGenerator payment, RandomGenerator exit) {
+		CustomerRandom(SplittableGenerator customer) {
+			this(customer.split(), customer.split(), customer.split(), customer.split(), customer.split());
+		}
+	}
+
+	/** @return the tables of this restaurant */
+	public TableAllocator getTables() {
+		return tables;
+	}
+
+	/** @return the clock all simulated delays of this restaurant pass on */
+	public SimulationClock getClock() {
+		return clock;
+	}
+
 	/**
 	 * @return true if all orders are completed and marked as PAID
 	 */
 	private boolean allOrdersCompleted() {
-		return orders.stream().map(CompletableFuture::join).allMatch(b -> b.getStatus() == OrderStatus.PAID);
+		return orders.pendingCount() == 0 && orders.orders().allMatch(o -> o.getStatus() == OrderStatus.PAID);
 	}
 
 	/**
-	 * Find a customer by table number from a given list of customers.
+	 * Find the customer sitting at a table.
 	 */
-	public Optional<Customer> findCustomerByTable(int tableNumber, List<Customer> customers) {
-		return customers.stream().filter(c -> c.getTableNumber() == tableNumber).findFirst();
+	public Optional<Customer> findCustomerByTable(int tableNumber) {
+		return Optional.ofNullable(customers.get(tableNumber));
 	}
 
 	/**
-	 * @return list of all customers who placed orders
+	 * @return list of all customers who placed orders, without waiting for their
+	 *         orders to finish
 	 */
 	public List<Customer> getCustomers() {
-		return orders.stream().map(CompletableFuture::join).map(Order::getCustomer).collect(Collectors.toList());
+		return orders.orders().map(Order::getCustomer).collect(Collectors.toList());
+	}
+
+	/** @return all orders of the day, by id and by table */
+	public OrderRegistry getOrders() {
+		return orders;
 	}
 }
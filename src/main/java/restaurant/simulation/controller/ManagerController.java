@@ -1,40 +1,212 @@
 package restaurant.simulation.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import restaurant.core.model.MenuMix;
+import restaurant.infrastructure.monitoring.OrderEventFeed;
+import restaurant.simulation.model.PlanningRequest;
+import restaurant.simulation.model.ReportFormat;
+import restaurant.simulation.model.ScenarioResult;
+import restaurant.simulation.model.SimulationJob;
+import restaurant.simulation.service.CapacityPlanningService;
 import restaurant.simulation.service.ManagerService;
+import restaurant.simulation.service.OrderFeedService;
+import restaurant.simulation.service.OrderJournalService;
 
 @RestController
 @RequestMapping("/api/manager")
 public class ManagerController {
 
+	/** How long a client may stay subscribed to the order stream */
+	private static final long STREAM_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
 	private final ManagerService managerService;
+	private final CapacityPlanningService planningService;
+	private final OrderFeedService feedService;
+	private final OrderJournalService journalService;
 
 	// Constructor Injection
-	public ManagerController(ManagerService managerService) {
+	public ManagerController(ManagerService managerService, CapacityPlanningService planningService,
+			OrderFeedService feedService, OrderJournalService journalService) {
 		this.managerService = managerService;
+		this.planningService = planningService;
+		this.feedService = feedService;
+		this.journalService = journalService;
+	}
+
+	/**
+	 * Open another restaurant; every restaurant runs its days independently.
+	 */
+	@PostMapping("/restaurants")
+	public ResponseEntity<String> openRestaurant(@RequestParam String id,
+			@RequestParam(defaultValue = "Sebastian") String manager, @RequestParam(defaultValue = "3") int chefs,
+			@RequestParam(defaultValue = "20") int tables) {
+		return ResponseEntity.ok(managerService.openRestaurant(id, manager, chefs, tables).toString());
+	}
+
+	@GetMapping("/restaurants")
+	public ResponseEntity<String> getRestaurants() {
+		StringBuilder sb = new StringBuilder();
+		managerService.getRestaurants().forEach(branch -> sb.append(branch).append("\n"));
+		return ResponseEntity.ok(sb.toString());
 	}
 
+	/**
+	 * Start a simulated day in the background and answer right away with its
+	 * job; follow it with the job endpoints.
+	 */
 	@PostMapping("/start")
-	public ResponseEntity<String> simulateRestaurantDay(@RequestParam(defaultValue = "3") int numCustomers) {
-		managerService.simulateRestaurantDay(numCustomers);
-		return ResponseEntity.ok("Simulation started with " + numCustomers + " customers.");
+	public ResponseEntity<String> simulateRestaurantDay(@RequestParam(defaultValue = "3") int numCustomers,
+			@RequestParam(defaultValue = ManagerService.DEFAULT_RESTAURANT) String restaurant) {
+		SimulationJob job = managerService.startRestaurantDay(restaurant, numCustomers);
+		return ResponseEntity.accepted().header("Location", "/api/manager/jobs/" + job.getId())
+				.body("Simulation job " + job.getId() + " started with " + numCustomers + " customers in "
+						+ restaurant + ".");
+	}
+
+	@GetMapping("/jobs")
+	public ResponseEntity<String> getJobs() {
+		StringBuilder sb = new StringBuilder();
+		managerService.getJobs().forEach(job -> sb.append(job).append("\n"));
+		return ResponseEntity.ok(sb.toString());
+	}
+
+	/**
+	 * Progress of a job: customers seated, orders in preparation and paid.
+	 */
+	@GetMapping("/jobs/{jobId}")
+	public ResponseEntity<String> getJob(@PathVariable long jobId) {
+		return ResponseEntity.ok(managerService.getJob(jobId).toString());
+	}
+
+	@PostMapping("/jobs/{jobId}/cancel")
+	public ResponseEntity<String> cancelJob(@PathVariable long jobId) {
+		SimulationJob job = managerService.getJob(jobId);
+		return ResponseEntity.ok(job.cancel() ? "Simulation job " + jobId + " is being cancelled." : job.toString());
+	}
+
+	/**
+	 * The daily report of a job once its day is over, also after it was
+	 * cancelled; until then 202 with the progress.
+	 */
+	@GetMapping("/jobs/{jobId}/result")
+	public ResponseEntity<String> getJobResult(@PathVariable long jobId) {
+		SimulationJob job = managerService.getJob(jobId);
+		if (!job.isFinished() || job.getRestaurant() == null) {
+			return ResponseEntity.accepted().body(job.toString());
+		}
+		return ResponseEntity.ok(job.getRestaurant().getReport());
 	}
 
 	@PostMapping("/close")
-	public ResponseEntity<String> closeRestaurant() {
-		managerService.closeRestaurant();
-		return ResponseEntity.ok("Restaurant closed.");
+	public ResponseEntity<String> closeRestaurant(
+			@RequestParam(defaultValue = ManagerService.DEFAULT_RESTAURANT) String restaurant) {
+		managerService.closeRestaurant(restaurant);
+		return ResponseEntity.ok("Restaurant " + restaurant + " closed.");
 	}
 
 	@GetMapping("/report")
-	public ResponseEntity<String> getReport(@RequestParam(defaultValue = "false") boolean isReport) {
-		return ResponseEntity.ok(managerService.getReport(isReport));
+	public ResponseEntity<String> getReport(@RequestParam(defaultValue = "false") boolean isReport,
+			@RequestParam(defaultValue = ManagerService.DEFAULT_RESTAURANT) String restaurant) {
+		return ResponseEntity.ok(managerService.getReport(restaurant, isReport));
+	}
+
+	/**
+	 * List the orders of the day page by page, oldest first.
+	 */
+	@GetMapping("/report/orders")
+	public ResponseEntity<String> getItemizedReport(@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "50") int size,
+			@RequestParam(defaultValue = ManagerService.DEFAULT_RESTAURANT) String restaurant) {
+		return ResponseEntity.ok(managerService.getItemizedReport(restaurant, page, size));
+	}
+
+	/**
+	 * List the orders of earlier runs, restored from the journal on startup, page
+	 * by page.
+	 */
+	@GetMapping("/journal/orders")
+	public ResponseEntity<String> getRestoredOrders(@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "50") int size) {
+		return ResponseEntity.ok(journalService.getItemizedReport(page, size));
+	}
+
+	/**
+	 * Stream every order of the day followed by the totals, as NDJSON or text,
+	 * while the orders are read. Memory does not grow with the number of orders.
+	 */
+	@GetMapping("/report/stream")
+	public ResponseEntity<StreamingResponseBody> streamReport(@RequestParam(defaultValue = "ndjson") String format,
+			@RequestParam(defaultValue = ManagerService.DEFAULT_RESTAURANT) String restaurant) {
+		ReportFormat reportFormat = ReportFormat.named(format);
+		StreamingResponseBody body = out -> managerService.writeReport(restaurant, reportFormat,
+				new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(reportFormat.getMediaType())).body(body);
+	}
+
+	/**
+	 * Push every order status change (created, in-preparation, prepared, paid,
+	 * failed, cancelled) as a server-sent event. A slow client only gets the latest status
+	 * of each order and never holds up the kitchen.
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamOrderEvents() {
+		SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+		OrderEventFeed.Subscription subscription = feedService.subscribe(event -> {
+			try {
+				emitter.send(SseEmitter.event().id(String.valueOf(event.orderId())).name(event.type())
+						.data(event.toJson()));
+			} catch (IOException e) {
+				emitter.completeWithError(e);
+				throw new UncheckedIOException(e);
+			}
+		});
+		emitter.onCompletion(subscription::close);
+		emitter.onTimeout(subscription::close);
+		emitter.onError(e -> subscription.close());
+		return emitter;
+	}
+
+	/**
+	 * Simulate every combination of chef count, arrival gap and menu mix many
+	 * times and stream one table row per scenario as soon as it is done.
+	 */
+	@GetMapping(value = "/capacity-plan", produces = MediaType.TEXT_PLAIN_VALUE)
+	public ResponseEntity<StreamingResponseBody> planCapacity(
+			@RequestParam(defaultValue = "1,2,3,4") List<Integer> chefs,
+			@RequestParam(defaultValue = "500,1000,2000") List<Long> arrivalGaps,
+			@RequestParam(defaultValue = "even,drinks,mains") List<String> mixes,
+			@RequestParam(defaultValue = "50") int runs, @RequestParam(defaultValue = "1000") int customers,
+			@RequestParam(defaultValue = "20") int tables, @RequestParam(defaultValue = "42") long seed) {
+		PlanningRequest request = new PlanningRequest(chefs, arrivalGaps,
+				mixes.stream().map(MenuMix::named).toList(), runs, customers, tables, seed);
+		StreamingResponseBody body = out -> {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			writer.println(ScenarioResult.HEADER);
+			writer.flush();
+			planningService.plan(request, result -> {
+				writer.println(result.toRow());
+				writer.flush();
+			});
+		};
+		return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(body);
 	}
 
 }
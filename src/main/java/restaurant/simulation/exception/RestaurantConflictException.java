@@ -0,0 +1,11 @@
+package restaurant.simulation.exception;
+
+/**
+ * Thrown when a restaurant cannot do what was asked right now, e.g. start a
+ * day while the previous one is still running.
+ */
+public class RestaurantConflictException extends RuntimeException {
+    public RestaurantConflictException(String message) {
+        super(message);
+    }
+}
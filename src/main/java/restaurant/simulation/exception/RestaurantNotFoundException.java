@@ -0,0 +1,10 @@
+package restaurant.simulation.exception;
+
+/**
+ * Thrown when no restaurant with the requested id has been opened.
+ */
+public class RestaurantNotFoundException extends RuntimeException {
+    public RestaurantNotFoundException(String restaurantId) {
+        super("Restaurant not found: " + restaurantId);
+    }
+}
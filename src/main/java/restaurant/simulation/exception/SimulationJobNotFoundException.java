@@ -0,0 +1,10 @@
+package restaurant.simulation.exception;
+
+/**
+ * Thrown when a simulation job with the requested id does not exist (any more).
+ */
+public class SimulationJobNotFoundException extends RuntimeException {
+    public SimulationJobNotFoundException(long jobId) {
+        super("Simulation job not found: " + jobId);
+    }
+}
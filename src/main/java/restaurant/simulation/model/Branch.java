@@ -0,0 +1,161 @@
+package restaurant.simulation.model;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import restaurant.core.table.model.TableAllocator;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.Restaurant;
+import restaurant.simulation.exception.RestaurantConflictException;
+
+/**
+ * One restaurant of a chain, addressed by its id. Every branch has its own
+ * kitchen, tables and customer budget, and runs at most one day at a time;
+ * different branches run their days independently of each other.
+ */
+public class Branch {
+
+	private final String id;
+	private final String managerName;
+	private final int numChefs;
+	private final int numTables;
+	private final int customerBudget;
+	private final SimulationClock clock;
+	/** Held while a day runs or the branch closes */
+	private final ReentrantLock lock = new ReentrantLock();
+	private volatile Restaurant restaurant;
+
+	/**
+	 * @param id             unique id of the branch
+	 * @param managerName    the manager running the branch
+	 * @param numChefs       number of chefs working in the kitchen
+	 * @param numTables      number of tables
+	 * @param customerBudget how many arriving customers may have a thread at once,
+	 *                       so one huge day cannot starve the other branches
+	 */
+	public Branch(String id, String managerName, int numChefs, int numTables, int customerBudget) {
+		this(id, managerName, numChefs, numTables, customerBudget, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * @param id             unique id of the branch
+	 * @param managerName    the manager running the branch
+	 * @param numChefs       number of chefs working in the kitchen
+	 * @param numTables      number of tables
+	 * @param customerBudget how many arriving customers may have a thread at once
+	 * @param clock          the clock the days of this branch pass on
+	 */
+	public Branch(String id, String managerName, int numChefs, int numTables, int customerBudget,
+			SimulationClock clock) {
+		if (id == null || id.isBlank()) {
+			throw new IllegalArgumentException("Restaurant id must not be blank.");
+		}
+		if (numChefs <= 0 || numTables <= 0 || customerBudget <= 0) {
+			throw new IllegalArgumentException("Chefs, tables and customer budget must be greater than 0.");
+		}
+		this.id = id;
+		this.managerName = managerName;
+		this.numChefs = numChefs;
+		this.numTables = numTables;
+		this.customerBudget = customerBudget;
+		this.clock = clock;
+	}
+
+	/**
+	 * Simulates a full restaurant day: customers enter, order, pay, and leave.
+	 *
+	 * @param numCustomers how many customers arrive
+	 * @throws RestaurantConflictException if a day is already running
+	 */
+	public void simulateDay(int numCustomers) {
+		simulateDay(numCustomers, day -> {
+		});
+	}
+
+	/**
+	 * Simulates a full restaurant day and hands out its restaurant before the
+	 * first customer arrives, e.g. to follow the progress of the day. Stops
+	 * after the current step when the calling thread is interrupted.
+	 *
+	 * @param numCustomers how many customers arrive
+	 * @param onOpen       called with the restaurant of the new day
+	 * @throws RestaurantConflictException if a day is already running
+	 */
+	public void simulateDay(int numCustomers, Consumer<Restaurant> onOpen) {
+		if (!lock.tryLock()) {
+			throw new RestaurantConflictException("Restaurant " + id + " is already running a day.");
+		}
+		try {
+			Toolkit.logTime.accept(managerName + " starts the restaurant day simulation in " + id + "!");
+			Restaurant day = new Restaurant(numChefs, clock, Toolkit.newRandom().nextLong(),
+					TableAllocator.uniform(numTables), customerBudget);
+			restaurant = day;
+			onOpen.accept(day);
+			// Manager triggers the restaurant operations
+			day.simulateCustomerEnters(numCustomers);
+			if (!Thread.currentThread().isInterrupted()) {
+				day.simulateOrders();// pays automatically after order received
+			}
+			// Customers that are seated still leave when the day is cancelled
+			day.simulateAllCustomersExit();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the restaurant at the end of the day, waiting for a day that is
+	 * still running.
+	 */
+	public void close() {
+		lock.lock();
+		try {
+			if (restaurant == null) {
+				Toolkit.logTime.accept("No active restaurant to close in " + id + "!");
+				return;
+			}
+			Toolkit.logTime.accept(managerName + " wants to close the restaurant " + id + "...");
+			restaurant.close();
+			Toolkit.logTime.accept("Restaurant " + id + " successfully closed by " + managerName + ".");
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** @return true while a day runs or the branch is closing */
+	public boolean isBusy() {
+		return lock.isLocked();
+	}
+
+	/** @return the restaurant of the latest day, or null before the first day */
+	public Restaurant getRestaurant() {
+		return restaurant;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getManagerName() {
+		return managerName;
+	}
+
+	public int getNumChefs() {
+		return numChefs;
+	}
+
+	public int getNumTables() {
+		return numTables;
+	}
+
+	public int getCustomerBudget() {
+		return customerBudget;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Restaurant [%s | Manager: %s | Chefs: %d | Tables: %d | Budget: %d | %s]", id,
+				managerName, numChefs, numTables, customerBudget, isBusy() ? "busy" : "idle");
+	}
+}
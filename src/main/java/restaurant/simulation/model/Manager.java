@@ -1,22 +1,74 @@
 package restaurant.simulation.model;
 
+import restaurant.core.model.MenuMix;
+import restaurant.infrastructure.clock.SimulationClock;
 import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.EventRestaurant;
 import restaurant.simulation.Restaurant;
 
 public class Manager {
 
 	private String name;
+	private final SimulationEngine engine;
 	private final Restaurant restaurant;
+	private final EventRestaurant eventRestaurant;
 
 	public Manager(String name, int numChefs) {
+		this(name, numChefs, SimulationClock.REAL_TIME);
+	}
+
+	/**
+	 * @param name     the manager's name
+	 * @param numChefs number of chefs working in the kitchen
+	 * @param clock    the clock the simulated day passes on
+	 */
+	public Manager(String name, int numChefs, SimulationClock clock) {
 		this.name = name;
-		this.restaurant = new Restaurant(numChefs);
+		this.engine = SimulationEngine.THREADS;
+		this.restaurant = new Restaurant(numChefs, clock);
+		this.eventRestaurant = null;
+	}
+
+	/**
+	 * @param name     the manager's name
+	 * @param numChefs number of chefs working in the kitchen
+	 * @param engine   how the day is simulated; {@link SimulationEngine#EVENTS}
+	 *                 runs large what-if days without threads or real waiting
+	 */
+	public Manager(String name, int numChefs, SimulationEngine engine) {
+		this(name, numChefs, engine, Toolkit.newRandom().nextLong());
+	}
+
+	/**
+	 * Create a manager whose day repeats for the same seed, e.g. to compare two
+	 * versions of the code on exactly the same customers. An event day repeats
+	 * exactly; in a threaded day the customers still race for the tables, see
+	 * {@link Restaurant#Restaurant(int, SimulationClock, long)}.
+	 * 
+	 * @param name     the manager's name
+	 * @param numChefs number of chefs working in the kitchen
+	 * @param engine   how the day is simulated
+	 * @param seed     the seed of the simulated day
+	 */
+	public Manager(String name, int numChefs, SimulationEngine engine, long seed) {
+		this.name = name;
+		this.engine = engine;
+		this.restaurant = engine == SimulationEngine.THREADS
+				? new Restaurant(numChefs, SimulationClock.REAL_TIME, seed)
+				: null;
+		this.eventRestaurant = engine == SimulationEngine.EVENTS
+				? new EventRestaurant(numChefs, Restaurant.MAX_CUSTOMERS, EventRestaurant.DEFAULT_ARRIVAL_GAP_MILLIS,
+						MenuMix.EVEN, Toolkit.newRandom(seed))
+				: null;
 	}
 
 	/** Closes the restaurant at the end of the day */
 	public void closeRestaurant() {
 		Toolkit.logTime.accept(name + " wants to close the restaurant...");
-		restaurant.close();
+		if (engine == SimulationEngine.THREADS) {
+			restaurant.close();
+		}
+		// An event day is already over when simulateRestaurantDay returns
 		Toolkit.logTime.accept("Restaurant successfully closed by " + name + ".");
 	}
 
@@ -24,15 +76,35 @@ public class Manager {
 		return name;
 	}
 
+	/** @return the simulated restaurant, or null for the event engine */
 	public Restaurant getRestaurant() {
 		return restaurant;
 	}
 
+	/** @return the event-driven restaurant, or null for the thread engine */
+	public EventRestaurant getEventRestaurant() {
+		return eventRestaurant;
+	}
+
+	/** @return the engine the day is simulated with */
+	public SimulationEngine getEngine() {
+		return engine;
+	}
+
+	/** @return the daily report of whichever engine ran the day */
+	public String getReport() {
+		return engine == SimulationEngine.THREADS ? restaurant.getReport() : eventRestaurant.getReport();
+	}
+
 	/**
 	 * Simulates a full restaurant day: customers enter, order, pay, and leave.
 	 */
 	public void simulateRestaurantDay(int numCustomers) {
 		Toolkit.logTime.accept(name + " starts the restaurant day simulation!");
+		if (engine == SimulationEngine.EVENTS) {
+			eventRestaurant.simulateDay(numCustomers);
+			return;
+		}
 
 		// Manager triggers the restaurant operations
 		restaurant.simulateCustomerEnters(numCustomers);
@@ -0,0 +1,43 @@
+package restaurant.simulation.model;
+
+import java.util.List;
+
+import restaurant.core.model.MenuMix;
+
+/**
+ * What a capacity plan should try: every combination of chef count, arrival
+ * gap and menu mix is a scenario, and every scenario is simulated
+ * {@code runsPerScenario} times with different seeds.
+ *
+ * @param chefCounts        numbers of chefs to try
+ * @param arrivalGapsMillis average times between two arriving customers
+ * @param menuMixes         what the customers order
+ * @param runsPerScenario   independent days simulated per scenario
+ * @param customersPerDay   customers arriving on each simulated day
+ * @param numTables         tables of the restaurant
+ * @param seed              seed of the whole plan; the same seed gives the same
+ *                          results
+ */
+public record PlanningRequest(List<Integer> chefCounts, List<Long> arrivalGapsMillis, List<MenuMix> menuMixes,
+		int runsPerScenario, int customersPerDay, int numTables, long seed) {
+
+	/**
+	 * Compact constructor with validation logic.
+	 */
+	public PlanningRequest {
+		chefCounts = List.copyOf(chefCounts);
+		arrivalGapsMillis = List.copyOf(arrivalGapsMillis);
+		menuMixes = List.copyOf(menuMixes);
+		if (chefCounts.isEmpty() || arrivalGapsMillis.isEmpty() || menuMixes.isEmpty()) {
+			throw new IllegalArgumentException("Every dimension needs at least one value.");
+		}
+		if (runsPerScenario <= 0 || customersPerDay <= 0 || numTables <= 0) {
+			throw new IllegalArgumentException("Runs, customers and tables must be greater than 0.");
+		}
+	}
+
+	/** @return number of scenarios, i.e. combinations of the three dimensions */
+	public int scenarioCount() {
+		return chefCounts.size() * arrivalGapsMillis.size() * menuMixes.size();
+	}
+}
@@ -0,0 +1,96 @@
+package restaurant.simulation.model;
+
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatistics;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * How the orders of a streamed report are written: one entry per order,
+ * followed by the totals of the day.
+ */
+public enum ReportFormat {
+	/** The order listing of the daily report as plain text */
+	TEXT("text/plain") {
+		@Override
+		public String format(Order order) {
+			return "• " + statusMessage(order.getStatus()) + "\n" + order.toString().indent(4) + "\n";
+		}
+
+		@Override
+		public String summary(OrderStatistics stats) {
+			return String.format("----------------------%nOrders:          %d%nTotal revenue:   %s%n"
+					+ "Total paid:      %s%n----------------------%n", stats.getOrderCount(), stats.getRevenue(),
+					stats.getPaid());
+		}
+	},
+	/** One JSON object per line, the last one holding the totals */
+	NDJSON("application/x-ndjson") {
+		@Override
+		public String format(Order order) {
+			StringBuilder json = new StringBuilder(128).append("{\"id\":").append(order.getId())
+					.append(",\"table\":").append(order.getTableNumber()).append(",\"customer\":")
+					.append(Toolkit.quote(order.getCustomer().getName())).append(",\"status\":\"")
+					.append(order.getStatus().name()).append("\",\"total\":")
+					.append(order.getTotal().format()).append(",\"dishes\":[");
+			for (int i = 0; i < order.getDishes().size(); i++) {
+				Dish dish = order.getDishes().get(i);
+				json.append(i == 0 ? "" : ",").append(Toolkit.quote(dish.name()));
+			}
+			return json.append("]}\n").toString();
+		}
+
+		@Override
+		public String summary(OrderStatistics stats) {
+			StringBuilder json = new StringBuilder(256).append("{\"summary\":true,\"orders\":")
+					.append(stats.getOrderCount());
+			for (OrderStatus status : OrderStatus.values()) {
+				json.append(",\"").append(status.name()).append("\":").append(stats.getCount(status));
+			}
+			return json.append(",\"revenue\":").append(stats.getRevenue().format()).append(",\"paid\":")
+					.append(stats.getPaid().format()).append("}\n").toString();
+		}
+	};
+
+	private final String mediaType;
+
+	ReportFormat(String mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	/** @return the entry of one order, ending with a line break */
+	public abstract String format(Order order);
+
+	/** @return the totals written after the last order */
+	public abstract String summary(OrderStatistics stats);
+
+	/** @return the content type of a response in this format */
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * @param name "text" or "ndjson", in any case
+	 * @return the format with that name
+	 */
+	public static ReportFormat named(String name) {
+		return switch (name.toLowerCase()) {
+		case "text" -> TEXT;
+		case "ndjson" -> NDJSON;
+		default -> throw new IllegalArgumentException("Unknown report format: " + name);
+		};
+	}
+
+	/** @return what the report says about an order in the given status */
+	public static String statusMessage(OrderStatus status) {
+		return switch (status) {
+		case PAID -> "Order successfully completed.";
+		case PAYMENT_FAILED -> "Outstanding payment!";
+		case PREPARED -> "Not yet paid.";
+		case PAYING -> "Payment in progress.";
+		case OPEN, IN_PREPARATION -> "In progress.";
+		case CANCELLED -> "Order was cancelled.";
+		};
+	}
+}
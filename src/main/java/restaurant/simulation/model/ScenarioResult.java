@@ -0,0 +1,29 @@
+package restaurant.simulation.model;
+
+/**
+ * Aggregated outcome of all simulated days of one capacity-planning scenario.
+ *
+ * @param chefs            number of chefs
+ * @param arrivalGapMillis average time between two arriving customers
+ * @param menuMix          name of the menu mix
+ * @param runs             number of simulated days
+ * @param servedPerHour    customers that paid, per simulated hour
+ * @param turnedAwayRate   share of arriving customers that found no table
+ * @param revenuePerDay    average paid revenue of one day
+ * @param waitP50Millis    median wait from ordering until the food came
+ * @param waitP90Millis    90th percentile of that wait
+ * @param waitP99Millis    99th percentile of that wait
+ */
+public record ScenarioResult(int chefs, long arrivalGapMillis, String menuMix, int runs, double servedPerHour,
+		double turnedAwayRate, double revenuePerDay, long waitP50Millis, long waitP90Millis, long waitP99Millis) {
+
+	/** Column titles matching {@link #toRow()} */
+	public static final String HEADER = String.format("%5s %8s %-7s %5s %10s %8s %12s %8s %8s %8s", "chefs", "gap ms",
+			"mix", "runs", "served/h", "away %", "revenue €", "p50 ms", "p90 ms", "p99 ms");
+
+	/** @return the result as one line of a fixed-width table */
+	public String toRow() {
+		return String.format("%5d %8d %-7s %5d %10.1f %8.1f %12.2f %8d %8d %8d", chefs, arrivalGapMillis, menuMix, runs,
+				servedPerHour, turnedAwayRate * 100, revenuePerDay, waitP50Millis, waitP90Millis, waitP99Millis);
+	}
+}
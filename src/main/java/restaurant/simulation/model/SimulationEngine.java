@@ -0,0 +1,14 @@
+package restaurant.simulation.model;
+
+import restaurant.simulation.EventRestaurant;
+import restaurant.simulation.Restaurant;
+
+/**
+ * How a {@link Manager} runs the restaurant day.
+ */
+public enum SimulationEngine {
+	/** {@link Restaurant}: every customer and chef is a thread on a clock */
+	THREADS,
+	/** {@link EventRestaurant}: all customers are events on a single thread */
+	EVENTS
+}
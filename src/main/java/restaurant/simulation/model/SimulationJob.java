@@ -0,0 +1,182 @@
+package restaurant.simulation.model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import restaurant.core.order.model.OrderStatistics;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.simulation.Restaurant;
+
+/**
+ * A restaurant day running in the background. The job is started right away
+ * and can be asked for its progress, cancelled, and asked for the daily report
+ * once it is over.
+ * <p>
+ * The job is over only when its task has returned, not when it is cancelled: a
+ * cancelled day first lets its seated customers leave, and stays
+ * {@link State#CANCELLING} until then.
+ */
+public class SimulationJob {
+
+	/** Where a job stands */
+	public enum State {
+		RUNNING, CANCELLING, DONE, FAILED, CANCELLED
+	}
+
+	/**
+	 * How far the day of a job has come.
+	 *
+	 * @param seated        customers sitting at a table right now
+	 * @param ordersPlaced  orders taken by the waiter so far
+	 * @param inPreparation orders waiting for or in the kitchen
+	 * @param paid          orders paid so far
+	 */
+	public record Progress(long seated, long ordersPlaced, long inPreparation, long paid) {
+
+		/** Progress of a day that has not opened yet */
+		public static final Progress NONE = new Progress(0, 0, 0, 0);
+
+		static Progress of(Restaurant restaurant) {
+			OrderStatistics stats = restaurant.getOrders().getStatistics();
+			return new Progress(restaurant.getTables().getTableCount() - restaurant.getTables().freeTables(),
+					stats.getOrderCount(), stats.getCount(OrderStatus.OPEN) + stats.getCount(OrderStatus.IN_PREPARATION),
+					stats.getCount(OrderStatus.PAID));
+		}
+	}
+
+	private final long id;
+	private final String restaurantId;
+	private final int numCustomers;
+	private final long startedAt = System.currentTimeMillis();
+	private final CompletableFuture<Void> finished = new CompletableFuture<>();
+	private final AtomicBoolean started = new AtomicBoolean();
+	private final Future<?> task;
+	private final AtomicBoolean cancelRequested = new AtomicBoolean();
+	private volatile Restaurant restaurant;
+	private volatile long finishedAt;
+
+	/**
+	 * Start simulating a day of the branch on the given executor.
+	 *
+	 * @param id           unique id of the job
+	 * @param branch       the restaurant to simulate
+	 * @param numCustomers how many customers arrive
+	 * @param executor     runs the day; one thread per job
+	 */
+	public SimulationJob(long id, Branch branch, int numCustomers, ExecutorService executor) {
+		this.id = id;
+		this.restaurantId = branch.getId();
+		this.numCustomers = numCustomers;
+		this.task = executor.submit(() -> {
+			if (!started.compareAndSet(false, true)) {
+				return; // cancelled before it started
+			}
+			try {
+				branch.simulateDay(numCustomers, day -> restaurant = day);
+				finish(null);
+			} catch (Throwable e) {
+				finish(e);
+			}
+		});
+	}
+
+	private void finish(Throwable error) {
+		finishedAt = System.currentTimeMillis();
+		if (error == null) {
+			finished.complete(null);
+		} else {
+			finished.completeExceptionally(error);
+		}
+	}
+
+	/**
+	 * Cancel the day. Customers that have not entered yet stay away and the
+	 * seated ones leave; orders already in the kitchen are still finished. The
+	 * job is {@link State#CANCELLING} until then.
+	 *
+	 * @return false if the day was already over or cancelled
+	 */
+	public boolean cancel() {
+		if (finished.isDone() || !cancelRequested.compareAndSet(false, true)) {
+			return false;
+		}
+		if (started.compareAndSet(false, true)) {
+			// The day never starts, so the job is over right away
+			task.cancel(false);
+			finish(null);
+		} else {
+			task.cancel(true);
+		}
+		return true;
+	}
+
+	public State getState() {
+		if (!finished.isDone()) {
+			return cancelRequested.get() ? State.CANCELLING : State.RUNNING;
+		}
+		if (cancelRequested.get()) {
+			return State.CANCELLED;
+		}
+		return finished.isCompletedExceptionally() ? State.FAILED : State.DONE;
+	}
+
+	/** @return true once the task of the job has returned, however it ended */
+	public boolean isFinished() {
+		return finished.isDone();
+	}
+
+	/** @return why the job failed, or null if it did not */
+	public String getError() {
+		if (getState() != State.FAILED) {
+			return null;
+		}
+		Throwable cause = finished.exceptionNow();
+		return cause.getMessage();
+	}
+
+	/** @return counts of the running or finished day */
+	public Progress getProgress() {
+		Restaurant day = restaurant;
+		return day == null ? Progress.NONE : Progress.of(day);
+	}
+
+	/** @return the restaurant of the day, or null if it has not opened yet */
+	public Restaurant getRestaurant() {
+		return restaurant;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getRestaurantId() {
+		return restaurantId;
+	}
+
+	public int getNumCustomers() {
+		return numCustomers;
+	}
+
+	/** @return start time in epoch milliseconds */
+	public long getStartedAt() {
+		return startedAt;
+	}
+
+	/** @return end time in epoch milliseconds, or 0 while running */
+	public long getFinishedAt() {
+		return finishedAt;
+	}
+
+	@Override
+	public String toString() {
+		Progress progress = getProgress();
+		String error = getError();
+		return String.format(
+				"Job %d [Restaurant: %s | Customers: %d | State: %s | Seated: %d | Orders: %d | In preparation: %d | Paid: %d%s]",
+				id, restaurantId, numCustomers, getState().toString().toLowerCase(), progress.seated(),
+				progress.ordersPlaced(), progress.inPreparation(), progress.paid(),
+				error == null ? "" : " | Error: " + error);
+	}
+}
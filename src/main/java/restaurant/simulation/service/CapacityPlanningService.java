@@ -0,0 +1,29 @@
+package restaurant.simulation.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import restaurant.simulation.model.PlanningRequest;
+import restaurant.simulation.model.ScenarioResult;
+
+/**
+ * Finds out how many chefs are needed by simulating many restaurant days per
+ * scenario and comparing throughput, revenue and wait times.
+ */
+public interface CapacityPlanningService {
+
+	/**
+	 * Simulate all scenarios and hand out each result as soon as all days of its
+	 * scenario are done. Returns when every scenario is finished.
+	 *
+	 * @param request  the scenarios to simulate
+	 * @param onResult called once per scenario, never concurrently
+	 */
+	void plan(PlanningRequest request, Consumer<ScenarioResult> onResult);
+
+	/**
+	 * @param request the scenarios to simulate
+	 * @return one result per scenario, sorted by chefs, arrival gap and menu mix
+	 */
+	List<ScenarioResult> plan(PlanningRequest request);
+}
@@ -1,9 +1,71 @@
 package restaurant.simulation.service;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+
+import restaurant.simulation.model.Branch;
+import restaurant.simulation.model.ReportFormat;
+import restaurant.simulation.model.SimulationJob;
+
+/**
+ * Runs the simulated days of one or more restaurants, each addressed by its
+ * id. The methods without an id address {@link #DEFAULT_RESTAURANT}.
+ */
 public interface ManagerService {
-	void simulateRestaurantDay(int numCustomers);
 
-	void closeRestaurant();
+	/** Id of the restaurant that is always open */
+	String DEFAULT_RESTAURANT = "main";
+
+	/**
+	 * Open another restaurant with its own kitchen, tables and customer budget.
+	 * Fails if the id is taken.
+	 */
+	Branch openRestaurant(String restaurantId, String managerName, int numChefs, int numTables);
+
+	/** @return all open restaurants, sorted by id */
+	Collection<Branch> getRestaurants();
+
+	void simulateRestaurantDay(String restaurantId, int numCustomers);
+
+	/**
+	 * Simulate a day in the background. Fails right away if the restaurant is
+	 * running a day already.
+	 *
+	 * @return the job of the day, already running
+	 */
+	SimulationJob startRestaurantDay(String restaurantId, int numCustomers);
+
+	SimulationJob getJob(long jobId);
+
+	/** @return the jobs still kept, newest first */
+	Collection<SimulationJob> getJobs();
+
+	void closeRestaurant(String restaurantId);
+
+	String getReport(String restaurantId, boolean isPrint);
+
+	String getItemizedReport(String restaurantId, int page, int size);
+
+	void writeReport(String restaurantId, ReportFormat format, Writer out) throws IOException;
+
+	default void simulateRestaurantDay(int numCustomers) {
+		simulateRestaurantDay(DEFAULT_RESTAURANT, numCustomers);
+	}
+
+	default void closeRestaurant() {
+		closeRestaurant(DEFAULT_RESTAURANT);
+	}
+
+	default String getReport(boolean isPrint) {
+		return getReport(DEFAULT_RESTAURANT, isPrint);
+	}
+
+	default String getItemizedReport(int page, int size) {
+		return getItemizedReport(DEFAULT_RESTAURANT, page, size);
+	}
 
-	String getReport(boolean isPrint);
-}
\ No newline at end of file
+	default void writeReport(ReportFormat format, Writer out) throws IOException {
+		writeReport(DEFAULT_RESTAURANT, format, out);
+	}
+}
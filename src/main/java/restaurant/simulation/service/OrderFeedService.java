@@ -0,0 +1,21 @@
+package restaurant.simulation.service;
+
+import java.util.function.Consumer;
+
+import restaurant.core.order.model.OrderEvent;
+import restaurant.infrastructure.monitoring.OrderEventFeed;
+
+/**
+ * Live feed of the status changes of all orders of all restaurants.
+ */
+public interface OrderFeedService {
+
+	/**
+	 * Receive every order status change from now on. The sink runs on its own
+	 * thread and may be slow; it then only gets the latest status of each order.
+	 *
+	 * @param sink receives the events; throwing ends the subscription
+	 * @return the subscription; close it to stop
+	 */
+	OrderEventFeed.Subscription subscribe(Consumer<OrderEvent> sink);
+}
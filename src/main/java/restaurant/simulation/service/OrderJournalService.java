@@ -0,0 +1,21 @@
+package restaurant.simulation.service;
+
+import restaurant.core.order.model.OrderRegistry;
+
+/**
+ * Journal of the status changes of all orders of all restaurants. The orders
+ * of earlier runs are restored from it on startup.
+ */
+public interface OrderJournalService {
+
+	/** @return the orders of earlier runs with their last journaled status */
+	OrderRegistry getRestoredOrders();
+
+	/**
+	 * List the restored orders page by page, oldest first.
+	 *
+	 * @param page zero-based page number
+	 * @param size orders per page
+	 */
+	String getItemizedReport(int page, int size);
+}
@@ -0,0 +1,148 @@
+package restaurant.simulation.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import org.springframework.stereotype.Service;
+
+import restaurant.core.model.MenuMix;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.monitoring.WaitTimeHistogram;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.EventRestaurant;
+import restaurant.simulation.model.PlanningRequest;
+import restaurant.simulation.model.ScenarioResult;
+import restaurant.simulation.service.CapacityPlanningService;
+
+/**
+ * Runs the simulated days of a capacity plan in parallel on all cores. Every
+ * day is an independent {@link EventRestaurant} on one thread with its own
+ * generator split off the plan's seed, so the results only depend on the seed
+ * and not on how the days are spread over the threads.
+ */
+@Service
+public class CapacityPlanningServiceImpl implements CapacityPlanningService {
+
+	private final int parallelism;
+
+	/**
+	 * Create a planner using one thread per core.
+	 */
+	public CapacityPlanningServiceImpl() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism how many days are simulated at the same time
+	 */
+	public CapacityPlanningServiceImpl(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be greater than 0.");
+		}
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public void plan(PlanningRequest request, Consumer<ScenarioResult> onResult) {
+		SplittableGenerator root = Toolkit.newRandom(request.seed());
+		List<Future<?>> days = new ArrayList<>();
+		try (ExecutorService pool = Executors.newFixedThreadPool(parallelism)) {
+			for (int chefs : request.chefCounts()) {
+				for (long gap : request.arrivalGapsMillis()) {
+					for (MenuMix mix : request.menuMixes()) {
+						Scenario scenario = new Scenario(chefs, gap, mix, request.runsPerScenario());
+						for (int run = 0; run < request.runsPerScenario(); run++) {
+							// Split here, in submission order, so every day gets the same generator each time
+							RandomGenerator random = root.split();
+							int index = run;
+							days.add(pool.submit(() -> {
+								EventRestaurant day = new EventRestaurant(chefs, request.numTables(), gap, mix, random);
+								Toolkit.withLogSink(LogSink.DISCARD, () -> day.simulateDay(request.customersPerDay()));
+								if (scenario.add(index, day)) {
+									synchronized (onResult) {
+										onResult.accept(scenario.result());
+									}
+								}
+							}));
+						}
+					}
+				}
+			}
+		}
+		for (Future<?> day : days) {
+			try {
+				day.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Capacity planning was interrupted", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Simulated day failed", e.getCause());
+			}
+		}
+	}
+
+	@Override
+	public List<ScenarioResult> plan(PlanningRequest request) {
+		List<ScenarioResult> results = new ArrayList<>();
+		plan(request, results::add);
+		results.sort(Comparator.comparingInt(ScenarioResult::chefs).thenComparingLong(ScenarioResult::arrivalGapMillis)
+				.thenComparing(ScenarioResult::menuMix));
+		return results;
+	}
+
+	/**
+	 * Collects the simulated days of one scenario.
+	 */
+	private static final class Scenario {
+		private final int chefs;
+		private final long arrivalGapMillis;
+		private final MenuMix mix;
+		private final int runs;
+		private final WaitTimeHistogram waitTimes = new WaitTimeHistogram();
+		/** Per day, so that the sum does not depend on which day finished first */
+		private final double[] revenues;
+		private int finished;
+		private long arrived;
+		private long paid;
+		private long turnedAway;
+		private long simulatedMillis;
+
+		Scenario(int chefs, long arrivalGapMillis, MenuMix mix, int runs) {
+			this.chefs = chefs;
+			this.arrivalGapMillis = arrivalGapMillis;
+			this.mix = mix;
+			this.runs = runs;
+			this.revenues = new double[runs];
+		}
+
+		/** @return true if this was the last day of the scenario */
+		synchronized boolean add(int run, EventRestaurant day) {
+			waitTimes.merge(day.getWaitTimes());
+			arrived += day.getSeatedCount() + day.getTurnedAwayCount();
+			paid += day.getPaidCount();
+			turnedAway += day.getTurnedAwayCount();
+			simulatedMillis += day.getSimulatedMillis();
+			revenues[run] = day.getTotalPaid().toDouble();
+			return ++finished == runs;
+		}
+
+		synchronized ScenarioResult result() {
+			double hours = simulatedMillis / 3_600_000.0;
+			double revenue = 0;
+			for (double dayRevenue : revenues) {
+				revenue += dayRevenue;
+			}
+			return new ScenarioResult(chefs, arrivalGapMillis, mix.name(), runs, hours == 0 ? 0 : paid / hours,
+					arrived == 0 ? 0 : (double) turnedAway / arrived, revenue / runs, waitTimes.percentile(50),
+					waitTimes.percentile(90), waitTimes.percentile(99));
+		}
+	}
+}
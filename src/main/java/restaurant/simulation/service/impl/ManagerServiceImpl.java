@@ -1,49 +1,121 @@
 package restaurant.simulation.service.impl;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.springframework.stereotype.Service;
 
+import restaurant.core.order.model.OrderStatistics;
+import restaurant.infrastructure.config.AppProperties;
 import restaurant.infrastructure.util.Toolkit;
 import restaurant.simulation.Restaurant;
+import restaurant.simulation.exception.RestaurantConflictException;
+import restaurant.simulation.exception.RestaurantNotFoundException;
+import restaurant.simulation.exception.SimulationJobNotFoundException;
+import restaurant.simulation.model.Branch;
+import restaurant.simulation.model.ReportFormat;
+import restaurant.simulation.model.SimulationJob;
 import restaurant.simulation.service.ManagerService;
 
 /**
- * Handles simulation logic and orchestrates restaurant flow.
+ * Handles simulation logic and orchestrates restaurant flow. Every restaurant
+ * is a {@link Branch} with its own kitchen and tables; days of different
+ * restaurants run at the same time, a restaurant only runs one day at a time.
  */
 @Service
 public class ManagerServiceImpl implements ManagerService {
 
-	private Restaurant restaurant;
-	private String name = "Sebastian"; // fixed for now;
-	private int numChefs = 3;
+	/** Finished jobs beyond this number are forgotten, oldest first */
+	public static final int MAX_JOBS = 100;
+
+	private final ConcurrentHashMap<String, Branch> branches = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, SimulationJob> jobs = new ConcurrentHashMap<>();
+	private final AtomicLong nextJobId = new AtomicLong();
+	/** One virtual thread per running day, so request threads never wait for a day */
+	private final ExecutorService jobExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	private final int customerBudget;
+
+	public ManagerServiceImpl(AppProperties properties) {
+		AppProperties.Simulation simulation = properties.getSimulation();
+		this.customerBudget = simulation.getCustomerBudget();
+		openRestaurant(DEFAULT_RESTAURANT, "Sebastian", simulation.getChefs(), simulation.getTables());
+	}
+
+	@Override
+	public Branch openRestaurant(String restaurantId, String managerName, int numChefs, int numTables) {
+		Branch branch = new Branch(restaurantId, managerName, numChefs, numTables, customerBudget);
+		if (branches.putIfAbsent(restaurantId, branch) != null) {
+			throw new RestaurantConflictException("Restaurant " + restaurantId + " already exists.");
+		}
+		Toolkit.logTime.accept(managerName + " opens restaurant " + restaurantId + ".");
+		return branch;
+	}
+
+	@Override
+	public Collection<Branch> getRestaurants() {
+		return branches.values().stream().sorted(Comparator.comparing(Branch::getId)).toList();
+	}
 
 	/**
 	 * Simulates a full restaurant day: customers enter, order, pay, and leave.
 	 */
 	@Override
-	public void simulateRestaurantDay(int numCustomers) {
-		Toolkit.logTime.accept(name + " starts the restaurant day simulation!");
-		this.restaurant = new Restaurant(numChefs);
-		// Manager triggers the restaurant operations
-		restaurant.simulateCustomerEnters(numCustomers);
-		restaurant.simulateOrders();// pays automatically after order received
-//		restaurant.simulatePayments();
-		restaurant.simulateAllCustomersExit();
+	public void simulateRestaurantDay(String restaurantId, int numCustomers) {
+		branch(restaurantId).simulateDay(numCustomers);
 	}
 
-	/** Closes the restaurant at the end of the day */
 	@Override
-	public void closeRestaurant() {
-		if (restaurant == null) {
-			Toolkit.logTime.accept("No active restaurant to close!");
+	public SimulationJob startRestaurantDay(String restaurantId, int numCustomers) {
+		Branch branch = branch(restaurantId);
+		// Checked here to answer at once; a start racing with this one makes its job fail
+		if (branch.isBusy()) {
+			throw new RestaurantConflictException("Restaurant " + restaurantId + " is already running a day.");
+		}
+		SimulationJob job = new SimulationJob(nextJobId.incrementAndGet(), branch, numCustomers, jobExecutor);
+		jobs.put(job.getId(), job);
+		forgetOldJobs();
+		return job;
+	}
+
+	@Override
+	public SimulationJob getJob(long jobId) {
+		SimulationJob job = jobs.get(jobId);
+		if (job == null) {
+			throw new SimulationJobNotFoundException(jobId);
+		}
+		return job;
+	}
+
+	@Override
+	public Collection<SimulationJob> getJobs() {
+		return jobs.values().stream().sorted(Comparator.comparingLong(SimulationJob::getId).reversed()).toList();
+	}
+
+	private void forgetOldJobs() {
+		int excess = jobs.size() - MAX_JOBS;
+		if (excess <= 0) {
 			return;
 		}
-		Toolkit.logTime.accept(name + " wants to close the restaurant...");
-		restaurant.close();
-		Toolkit.logTime.accept("Restaurant successfully closed by " + name + ".");
+		jobs.values().stream().filter(SimulationJob::isFinished)
+				.sorted(Comparator.comparingLong(SimulationJob::getId)).limit(excess)
+				.forEach(job -> jobs.remove(job.getId(), job));
+	}
+
+	/** Closes the restaurant at the end of the day */
+	@Override
+	public void closeRestaurant(String restaurantId) {
+		branch(restaurantId).close();
 	}
 
 	@Override
-	public String getReport(boolean isPrint) {
+	public String getReport(String restaurantId, boolean isPrint) {
+		Restaurant restaurant = branch(restaurantId).getRestaurant();
 		if (restaurant == null) {
 			return "No report available — simulation has not been run yet.";
 		}
@@ -53,4 +125,35 @@ public class ManagerServiceImpl implements ManagerService {
 		return report;
 	}
 
+	@Override
+	public String getItemizedReport(String restaurantId, int page, int size) {
+		Restaurant restaurant = branch(restaurantId).getRestaurant();
+		if (restaurant == null) {
+			return "No report available — simulation has not been run yet.";
+		}
+		return restaurant.getItemizedReport(page, size);
+	}
+
+	/**
+	 * Stream the orders of the current day; before the first day only the empty
+	 * totals are written.
+	 */
+	@Override
+	public void writeReport(String restaurantId, ReportFormat format, Writer out) throws IOException {
+		Restaurant restaurant = branch(restaurantId).getRestaurant();
+		if (restaurant == null) {
+			out.write(format.summary(new OrderStatistics()));
+			out.flush();
+			return;
+		}
+		restaurant.writeReport(format, out);
+	}
+
+	private Branch branch(String restaurantId) {
+		Branch branch = branches.get(restaurantId);
+		if (branch == null) {
+			throw new RestaurantNotFoundException(restaurantId);
+		}
+		return branch;
+	}
 }
@@ -0,0 +1,37 @@
+package restaurant.simulation.service.impl;
+
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderEvent;
+import restaurant.infrastructure.monitoring.OrderEventFeed;
+import restaurant.simulation.service.OrderFeedService;
+
+/**
+ * Listens to every order of the application and passes the status changes on
+ * to the subscribers of one {@link OrderEventFeed}.
+ */
+@Service
+public class OrderFeedServiceImpl implements OrderFeedService {
+
+	private final OrderEventFeed feed;
+
+	public OrderFeedServiceImpl() {
+		this(new OrderEventFeed());
+	}
+
+	/**
+	 * @param feed the feed to register with all orders
+	 */
+	public OrderFeedServiceImpl(OrderEventFeed feed) {
+		this.feed = feed;
+		Order.addStatusListener(feed);
+	}
+
+	@Override
+	public OrderEventFeed.Subscription subscribe(Consumer<OrderEvent> sink) {
+		return feed.subscribe(sink);
+	}
+}
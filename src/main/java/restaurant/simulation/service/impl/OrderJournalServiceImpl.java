@@ -0,0 +1,58 @@
+package restaurant.simulation.service.impl;
+
+import java.nio.file.Path;
+
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderRegistry;
+import restaurant.infrastructure.config.AppProperties;
+import restaurant.infrastructure.journal.OrderJournal;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.model.ReportFormat;
+import restaurant.simulation.service.OrderJournalService;
+
+/**
+ * Restores the orders of earlier runs from the {@link OrderJournal} on startup
+ * and then journals every order of the application until it shuts down.
+ */
+@Service
+public class OrderJournalServiceImpl implements OrderJournalService {
+
+	private final OrderRegistry restored = new OrderRegistry();
+	/** Null if journaling is disabled */
+	private final OrderJournal journal;
+
+	public OrderJournalServiceImpl(AppProperties properties) {
+		AppProperties.Journal settings = properties.getJournal();
+		if (settings.isEnabled()) {
+			journal = OrderJournal.recover(Path.of(settings.getDirectory()), restored);
+			Toolkit.logTime.accept("Restored " + restored.size() + " orders from the journal.");
+		} else {
+			journal = null;
+		}
+	}
+
+	@Override
+	public OrderRegistry getRestoredOrders() {
+		return restored;
+	}
+
+	@Override
+	public String getItemizedReport(int page, int size) {
+		StringBuilder sb = new StringBuilder();
+		for (Order order : restored.page(page, size)) {
+			sb.append(ReportFormat.TEXT.format(order));
+		}
+		return sb.toString();
+	}
+
+	/** Stop journaling and write the last events to disk. */
+	@PreDestroy
+	public void close() {
+		if (journal != null) {
+			journal.close();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.infrastructure.logging.AsyncLogSink;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.logging.OverflowPolicy;
+
+/**
+ * Tests for the asynchronous log sink.
+ */
+public class AsyncLogSinkTest {
+
+	@Test
+	void testLinesKeepConsoleFormat() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (AsyncLogSink sink = new AsyncLogSink(new PrintStream(bytes), 16, OverflowPolicy.BLOCK)) {
+			sink.log(System.currentTimeMillis(), 5, "Order received");
+			sink.log(System.currentTimeMillis(), LogSink.NO_TABLE, "Kitchen closed!");
+		}
+
+		String[] lines = bytes.toString().split(System.lineSeparator());
+		assertEquals(2, lines.length);
+		assertTrue(lines[0].matches("\\d\\d:\\d\\d\\.\\d{3}: Table 5 \\| Order received"), lines[0]);
+		assertTrue(lines[1].matches("\\d\\d:\\d\\d\\.\\d{3}: Kitchen closed!"), lines[1]);
+	}
+
+	@Test
+	void testBlockPolicyKeepsEveryLineFromManyThreads() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		AsyncLogSink sink = new AsyncLogSink(new PrintStream(bytes), 8, OverflowPolicy.BLOCK);
+		try (ExecutorService callers = Executors.newFixedThreadPool(4)) {
+			for (int t = 0; t < 4; t++) {
+				callers.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						sink.log(System.currentTimeMillis(), 1, "line " + i);
+					}
+				});
+			}
+		}
+		sink.close();
+
+		assertEquals(4000, bytes.toString().lines().count());
+		assertEquals(0, sink.getDroppedCount());
+	}
+
+	@Test
+	void testDropPolicyCountsLinesWhenFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		OutputStream stalled = new OutputStream() {
+			@Override
+			public void write(int b) {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				bytes.write(b, off, len);
+			}
+		};
+
+		AsyncLogSink sink = new AsyncLogSink(new PrintStream(stalled), 4, OverflowPolicy.DROP);
+		for (int i = 0; i < 20; i++) {
+			sink.log(System.currentTimeMillis(), 1, "line " + i);
+		}
+		release.countDown();
+		sink.close();
+
+		long written = bytes.toString().lines().count();
+		assertTrue(sink.getDroppedCount() > 0, "A stalled writer must lead to dropped lines.");
+		assertEquals(20, written + sink.getDroppedCount());
+	}
+
+	@Test
+	void testIdleWriterWaitsForTheNextLine() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (AsyncLogSink sink = new AsyncLogSink(new PrintStream(bytes), 16, OverflowPolicy.BLOCK)) {
+			sink.log(System.currentTimeMillis(), 1, "before");
+			Thread.sleep(50);
+
+			List<Thread> writers = Thread.getAllStackTraces().keySet().stream()
+					.filter(t -> t.getName().equals("log-writer")).toList();
+			assertFalse(writers.isEmpty());
+			for (Thread writer : writers) {
+				assertNotEquals(Thread.State.TIMED_WAITING, writer.getState(), "An idle writer must not poll.");
+			}
+			sink.log(System.currentTimeMillis(), 1, "after");
+		}
+
+		assertEquals(2, bytes.toString().lines().count());
+	}
+
+	@Test
+	void testLinesAfterCloseArePrintedByTheCaller() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		AsyncLogSink sink = new AsyncLogSink(new PrintStream(bytes), 4, OverflowPolicy.DROP);
+		sink.log(System.currentTimeMillis(), 1, "open");
+		sink.close();
+
+		for (int i = 0; i < 10; i++) {
+			sink.log(System.currentTimeMillis(), 1, "late " + i);
+		}
+
+		assertEquals(11, bytes.toString().lines().count());
+		assertEquals(10, sink.getLateCount());
+		assertEquals(0, sink.getDroppedCount());
+		assertEquals(0, sink.getPendingCount());
+	}
+}
@@ -0,0 +1,100 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.table.model.TableAllocator;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.clock.VirtualClock;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.Restaurant;
+import restaurant.simulation.exception.RestaurantConflictException;
+import restaurant.simulation.model.Branch;
+
+/**
+ * Tests for restaurants running side by side.
+ */
+public class BranchTest {
+
+	private LogSink previous;
+
+	@BeforeEach
+	void silence() {
+		previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+	}
+
+	@AfterEach
+	void restore() {
+		Toolkit.setLogSink(previous);
+	}
+
+	@Test
+	void testBranchesRunIndependently() {
+		try (VirtualClock northClock = SimulationClock.virtual(); VirtualClock southClock = SimulationClock.virtual()) {
+			Branch north = new Branch("north", "Anna", 2, 10, 100, northClock);
+			Branch south = new Branch("south", "Ben", 3, 5, 100, southClock);
+
+			CompletableFuture<Void> northDay = CompletableFuture.runAsync(() -> north.simulateDay(20));
+			CompletableFuture<Void> southDay = CompletableFuture.runAsync(() -> south.simulateDay(20));
+			CompletableFuture.allOf(northDay, southDay).join();
+			north.close();
+			south.close();
+
+			assertNotSame(north.getRestaurant(), south.getRestaurant());
+			assertEquals(10, north.getRestaurant().getTables().getTableCount());
+			assertEquals(5, south.getRestaurant().getTables().getTableCount());
+			assertTrue(south.getRestaurant().getOrders().size() <= 5, "South has only five tables.");
+			assertFalse(north.isBusy());
+		}
+	}
+
+	@Test
+	void testSecondDayIsRejectedWhileRunning() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// A clock whose first sleep blocks until the test lets it go
+		SimulationClock gate = new SimulationClock() {
+			@Override
+			public long millis() {
+				return System.currentTimeMillis();
+			}
+
+			@Override
+			public void sleep(long millis) throws InterruptedException {
+				started.countDown();
+				release.await();
+			}
+		};
+		Branch branch = new Branch("main", "Sebastian", 1, 2, 10, gate);
+		CompletableFuture<Void> day = CompletableFuture.runAsync(() -> branch.simulateDay(1));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		assertTrue(branch.isBusy());
+		assertThrows(RestaurantConflictException.class, () -> branch.simulateDay(1));
+
+		release.countDown();
+		day.get(10, TimeUnit.SECONDS);
+		branch.close();
+		assertFalse(branch.isBusy());
+	}
+
+	@Test
+	void testCustomerBudgetStillServesEveryone() {
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Restaurant restaurant = new Restaurant(3, clock, 5, TableAllocator.uniform(50), 2);
+			restaurant.simulateCustomerEnters(30);
+			restaurant.simulateOrders();
+			restaurant.close();
+			assertEquals(30, restaurant.getOrders().size(), "Customers wait at the door instead of leaving.");
+		}
+	}
+}
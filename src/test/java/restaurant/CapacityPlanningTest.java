@@ -0,0 +1,75 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.MenuMix;
+import restaurant.simulation.Restaurant;
+import restaurant.simulation.model.PlanningRequest;
+import restaurant.simulation.model.ScenarioResult;
+import restaurant.simulation.service.impl.CapacityPlanningServiceImpl;
+
+/**
+ * Tests for the Monte-Carlo capacity planner.
+ */
+public class CapacityPlanningTest {
+
+	private static final PlanningRequest REQUEST = new PlanningRequest(List.of(1, 3), List.of(500L, 2000L),
+			List.of(MenuMix.EVEN, MenuMix.DRINKS), 8, 200, 20, 42);
+
+	@Test
+	void testSameSeedGivesSameResults() {
+		List<ScenarioResult> sequential = new CapacityPlanningServiceImpl(1).plan(REQUEST);
+		List<ScenarioResult> parallel = new CapacityPlanningServiceImpl(4).plan(REQUEST);
+
+		assertEquals(REQUEST.scenarioCount(), sequential.size());
+		assertEquals(sequential, parallel);
+	}
+
+	@Test
+	void testMoreChefsServeFaster() {
+		List<ScenarioResult> results = new CapacityPlanningServiceImpl(4).plan(REQUEST);
+		ScenarioResult oneChef = find(results, 1, 500L, "even");
+		ScenarioResult threeChefs = find(results, 3, 500L, "even");
+
+		assertTrue(threeChefs.waitP90Millis() < oneChef.waitP90Millis());
+		assertTrue(threeChefs.servedPerHour() > oneChef.servedPerHour());
+	}
+
+	@Test
+	void testResultsAreStreamedPerScenario() {
+		List<ScenarioResult> streamed = new ArrayList<>();
+		new CapacityPlanningServiceImpl(4).plan(REQUEST, streamed::add);
+
+		assertEquals(REQUEST.scenarioCount(), streamed.size());
+		assertTrue(streamed.stream().allMatch(r -> r.runs() == 8));
+		assertEquals(ScenarioResult.HEADER.length(), streamed.get(0).toRow().length());
+	}
+
+	@Test
+	void testMenuMixWeightsCategories() {
+		SplittableRandom random = new SplittableRandom(7);
+		Map<Category, Integer> picks = new EnumMap<>(Category.class);
+		for (int i = 0; i < 10_000; i++) {
+			Dish dish = MenuMix.DRINKS.pick(Restaurant.MENU.getAllDishes(), random);
+			picks.merge(dish.category(), 1, Integer::sum);
+		}
+		// 2 drinks weighted 3 against 6 other dishes: half of all picks
+		assertEquals(5_000, picks.get(Category.DRINK), 300.0);
+		assertThrows(IllegalArgumentException.class, () -> MenuMix.named("vegan"));
+	}
+
+	private static ScenarioResult find(List<ScenarioResult> results, int chefs, long gap, String mix) {
+		return results.stream().filter(r -> r.chefs() == chefs && r.arrivalGapMillis() == gap && r.menuMix().equals(mix))
+				.findFirst().orElseThrow();
+	}
+}
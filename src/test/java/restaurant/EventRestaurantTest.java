@@ -0,0 +1,132 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.EventScheduler;
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.MenuMix;
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.EventClock;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.EventRestaurant;
+import restaurant.simulation.model.Manager;
+import restaurant.simulation.model.SimulationEngine;
+
+/**
+ * Tests for the single-threaded event simulation.
+ */
+public class EventRestaurantTest {
+
+	private LogSink previousSink;
+
+	@BeforeEach
+	void silenceLog() {
+		previousSink = Toolkit.getLogSink();
+		Toolkit.setLogSink((time, table, msg) -> {
+		});
+	}
+
+	@AfterEach
+	void restoreLog() {
+		Toolkit.setLogSink(previousSink);
+	}
+
+	@Test
+	void testEventClockRunsEventsInTimeOrder() {
+		EventClock clock = new EventClock(0);
+		List<String> log = new ArrayList<>();
+
+		clock.schedule(300, () -> log.add("c@" + clock.millis()));
+		clock.schedule(100, () -> {
+			log.add("a@" + clock.millis());
+			clock.schedule(100, () -> log.add("b@" + clock.millis()));
+		});
+		clock.schedule(300, () -> log.add("d@" + clock.millis()));
+		clock.run();
+
+		assertEquals(List.of("a@100", "b@200", "c@300", "d@300"), log);
+		assertEquals(0, clock.pending());
+		assertEquals(Instant.ofEpochMilli(300), clock.now());
+	}
+
+	@Test
+	void testEventSchedulerLimitsChefs() {
+		EventClock clock = new EventClock(0);
+		Kitchen kitchen = new Kitchen(new EventScheduler(2, clock, o -> 1000L));
+		List<Long> readyAt = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			Order order = Order.create(new Customer("Guest-" + i, i),
+					List.of(new Dish("Soup", Category.STARTER, 4.0)));
+			kitchen.acceptOrder(order).thenRun(() -> readyAt.add(clock.millis()));
+		}
+		clock.run();
+
+		// Two chefs: two orders per second
+		assertEquals(List.of(1000L, 1000L, 2000L, 2000L, 3000L), readyAt);
+		kitchen.close();
+		assertTrue(kitchen.isClosed());
+	}
+
+	@Test
+	void testEventDayServesEveryCustomer() {
+		EventRestaurant restaurant = new EventRestaurant(3);
+		restaurant.simulateDay(2_000);
+
+		assertEquals(2_000, restaurant.getPaidCount() + restaurant.getTurnedAwayCount());
+		assertTrue(restaurant.getPaidCount() > 0);
+		assertEquals(0, restaurant.getClock().pending());
+		assertTrue(restaurant.getKitchen().isClosed());
+		assertTrue(restaurant.getReport().contains("Orders paid:         " + restaurant.getPaidCount()));
+		assertEquals(0, restaurant.getCashRegister().getRememberedCount(), "Finished payments are forgotten.");
+	}
+
+	@Test
+	void testLongDayKeepsNoPerCustomerState() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long before = runtime.totalMemory() - runtime.freeMemory();
+		EventRestaurant restaurant = new EventRestaurant(10, 20, 600, MenuMix.EVEN, new SplittableRandom(3));
+		restaurant.simulateDay(200_000);
+
+		assertEquals(200_000, restaurant.getPaidCount() + restaurant.getTurnedAwayCount());
+		assertEquals(0, restaurant.getCashRegister().getRememberedCount());
+		System.gc();
+		long grown = runtime.totalMemory() - runtime.freeMemory() - before;
+		// A few bytes per customer would already be more than 8 MB
+		assertTrue(grown < 8L * 1024 * 1024, "Heap grew by " + grown / 1024 + " KB during the day.");
+	}
+
+	@Test
+	void testManagerPicksEventEngine() {
+		Manager manager = new Manager("EventManager", 2, SimulationEngine.EVENTS);
+		manager.simulateRestaurantDay(100);
+		manager.closeRestaurant();
+
+		assertNull(manager.getRestaurant());
+		assertTrue(manager.getReport().contains("Customers arrived:   100"));
+		assertTrue(manager.getEventRestaurant().getSimulatedMillis() > 0);
+	}
+
+	@Test
+	void testTableIsFreedWhenCustomerLeaves() {
+		// One table, but customers arrive far apart
+		EventRestaurant restaurant = new EventRestaurant(1, 1, 600_000, MenuMix.EVEN, new SplittableRandom(1));
+		restaurant.simulateDay(10);
+
+		assertTrue(restaurant.getPaidCount() > 1, "The table must be used again.");
+		assertEquals(10, restaurant.getPaidCount() + restaurant.getTurnedAwayCount());
+	}
+}
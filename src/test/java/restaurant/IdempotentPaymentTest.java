@@ -0,0 +1,230 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatistics;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.core.waiter.model.Waiter;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.IdempotencyCache;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.LatencyDistribution;
+import restaurant.payment.gateway.PaymentResult;
+import restaurant.payment.gateway.SimulatedPaymentProcessor;
+import restaurant.payment.model.CashPayment;
+import restaurant.payment.model.CashRegister;
+import restaurant.payment.model.Visa;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests that duplicate and racing payments charge an order exactly once.
+ */
+public class IdempotentPaymentTest {
+
+	private LogSink previous;
+
+	@BeforeEach
+	void setUp() {
+		previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Toolkit.setLogSink(previous);
+	}
+
+	private static Order prepared(int table) {
+		Order order = Order.create(new Customer("Guest " + table, table),
+				List.of(Restaurant.MENU.getAllDishes().get(0)));
+		order.setStatus(OrderStatus.IN_PREPARATION);
+		order.setStatus(OrderStatus.PREPARED);
+		return order;
+	}
+
+	@Test
+	void testRacingPaymentsChargeOnce() throws Exception {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(50), 0, 0,
+				new Random(1));
+		// The gateway holds every payment until all payers have called
+		CompletableFuture<Void> gate = new CompletableFuture<>();
+		CashRegister register = new CashRegister(request -> gate.thenCompose(v -> processor.authorize(request)));
+		Waiter waiter = new Waiter(null, register);
+		Order order = prepared(1);
+		OrderStatistics stats = new OrderStatistics();
+		stats.add(order);
+
+		int payers = 64;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<CompletableFuture<PaymentResult>>> calls = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < payers; i++) {
+				calls.add(executor.submit(() -> {
+					start.await();
+					return waiter.processPayment(order.getCustomer(), order, new Visa(order.getTotal()));
+				}));
+			}
+			start.countDown();
+			List<CompletableFuture<PaymentResult>> results = new ArrayList<>();
+			for (Future<CompletableFuture<PaymentResult>> call : calls) {
+				results.add(call.get());
+			}
+			gate.complete(null);
+			for (CompletableFuture<PaymentResult> result : results) {
+				assertTrue(result.join().isApproved(), "Every payer sees the one successful payment.");
+			}
+		}
+
+		assertEquals(1, processor.getAttemptCount());
+		assertEquals(1, processor.getChargeCount());
+		assertEquals(payers - 1, register.getDuplicateCount());
+		assertEquals(OrderStatus.PAID, order.getStatus());
+		assertEquals(0, register.getRememberedCount(), "The final payment is forgotten.");
+		assertEquals(1, stats.getCount(OrderStatus.PAID));
+		assertEquals(order.getTotal(), stats.getPaid(), "The order is counted as paid once.");
+	}
+
+	@Test
+	void testRepeatedPaymentAfterTtlIsNotCharged() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(0), 0, 0,
+				new Random(2));
+		CashRegister register = new CashRegister(processor, null, Duration.ofMillis(1));
+		Order order = prepared(2);
+
+		assertTrue(register.pay(order, new Visa(order.getTotal())));
+		long deadline = System.nanoTime() + Duration.ofMillis(5).toNanos();
+		while (System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		PaymentResult again = register.payAsync(order, new Visa(order.getTotal())).join();
+		assertFalse(again.isApproved(), "A forgotten payment is not charged again.");
+		assertEquals(1, processor.getChargeCount());
+		assertEquals(OrderStatus.PAID, order.getStatus());
+	}
+
+	@Test
+	void testUnpreparedOrderIsNotCharged() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(0), 0, 0,
+				new Random(5));
+		CashRegister register = new CashRegister(processor);
+		Order order = Order.create(new Customer("Guest 6", 6), List.of(Restaurant.MENU.getAllDishes().get(0)));
+		order.setStatus(OrderStatus.IN_PREPARATION);
+
+		PaymentResult early = register.payAsync(order, new Visa(order.getTotal())).join();
+		assertFalse(early.isApproved(), "An order still in the kitchen cannot be paid.");
+		assertEquals(0, processor.getChargeCount());
+		assertEquals(OrderStatus.IN_PREPARATION, order.getStatus());
+		assertEquals(0, register.getDuplicateCount());
+
+		order.setStatus(OrderStatus.PREPARED);
+		assertTrue(register.pay(order, new Visa(order.getTotal())), "Once prepared, the order can be paid.");
+		assertEquals(1, processor.getChargeCount());
+		assertEquals(OrderStatus.PAID, order.getStatus());
+	}
+
+	@Test
+	void testBrokenGatewayAnswerDoesNotLeaveTheOrderPaying() {
+		CashRegister register = new CashRegister(request -> CompletableFuture.completedFuture(null));
+		Order order = prepared(7);
+
+		CompletableFuture<PaymentResult> result = register.payAsync(order, new Visa(order.getTotal()));
+		assertTrue(result.isCompletedExceptionally());
+		assertEquals(OrderStatus.PAYMENT_FAILED, order.getStatus());
+		assertEquals(0, register.getInFlightCount());
+	}
+
+	@Test
+	void testCompareAndSetStatus() {
+		Order order = prepared(3);
+		assertFalse(order.compareAndSetStatus(OrderStatus.OPEN, OrderStatus.IN_PREPARATION));
+		assertEquals(OrderStatus.PREPARED, order.getStatus());
+
+		assertTrue(order.startPayment());
+		assertFalse(order.startPayment(), "A payment is only started once.");
+		assertEquals(OrderStatus.PAYING, order.getStatus());
+		assertTrue(order.compareAndSetStatus(OrderStatus.PAYING, OrderStatus.PAYMENT_FAILED));
+		assertFalse(order.startPayment(), "A failed payment is final.");
+	}
+
+	@Test
+	void testOnlyOneThreadWinsTheTransition() throws Exception {
+		Order order = prepared(4);
+		AtomicInteger winners = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 100; i++) {
+				executor.submit(() -> {
+					start.await();
+					if (order.startPayment()) {
+						winners.incrementAndGet();
+					}
+					return null;
+				});
+			}
+			start.countDown();
+		}
+		assertEquals(1, winners.get());
+	}
+
+	@Test
+	void testCashPaymentFlowStillWorks() {
+		CashRegister register = new CashRegister();
+		Order order = prepared(5);
+		assertTrue(register.pay(order, new CashPayment(order.getTotal())));
+		assertEquals(0, register.getRememberedCount());
+		PaymentResult again = register.payAsync(order, new CashPayment(order.getTotal())).join();
+		assertFalse(again.isApproved(), "A paid order is not paid again.");
+		assertTrue(again.describe().contains("already made"));
+		assertEquals(1, register.getDuplicateCount());
+		assertEquals(0, register.getRememberedCount());
+		assertEquals(OrderStatus.PAID, order.getStatus());
+	}
+
+	@Test
+	void testCacheRemembersUntilTtl() {
+		AtomicLong now = new AtomicLong();
+		IdempotencyCache<String, String> cache = new IdempotencyCache<>(Duration.ofNanos(100), now::get);
+
+		assertNull(cache.putIfAbsent("key", "first"));
+		assertEquals("first", cache.putIfAbsent("key", "second"));
+		assertEquals("first", cache.get("key"));
+
+		now.set(100);
+		assertNull(cache.get("key"), "Expired entries are forgotten.");
+		assertNull(cache.putIfAbsent("key", "third"));
+		assertEquals("third", cache.get("key"));
+	}
+
+	@Test
+	void testCacheEviction() {
+		AtomicLong now = new AtomicLong();
+		IdempotencyCache<Integer, Integer> cache = new IdempotencyCache<>(Duration.ofNanos(10), now::get);
+		for (int i = 0; i < 100; i++) {
+			cache.putIfAbsent(i, i);
+		}
+		now.set(10);
+		cache.putIfAbsent(-1, -1);
+		assertEquals(101, cache.size());
+		assertEquals(100, cache.evictExpired());
+		assertEquals(1, cache.size());
+		assertEquals(-1, (int) cache.get(-1));
+	}
+}
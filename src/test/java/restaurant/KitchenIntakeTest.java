@@ -0,0 +1,162 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.Admission;
+import restaurant.core.kitchen.model.AdmissionPolicy;
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.kitchen.model.KitchenIntake;
+import restaurant.core.kitchen.model.KitchenScheduler;
+import restaurant.core.kitchen.model.QueueScheduler;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.core.waiter.model.Waiter;
+import restaurant.payment.model.CashRegister;
+
+/**
+ * Tests for the bounded kitchen intake and its admission policies.
+ */
+public class KitchenIntakeTest {
+
+	/** Scheduler whose chefs never finish on their own; the test completes orders. */
+	private static class HoldingScheduler implements KitchenScheduler {
+		final List<Order> held = new ArrayList<>();
+
+		@Override
+		public void submit(Order order) {
+			held.add(order);
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public boolean isClosed() {
+			return true;
+		}
+	}
+
+	private static Order order(int table, int numberOfDishes) {
+		List<Dish> dishes = new ArrayList<>();
+		for (int i = 0; i < numberOfDishes; i++) {
+			dishes.add(new Dish("Pizza", Category.MAIN_COURSE, 8.5));
+		}
+		return Order.create(new Customer("Guest-" + table, table), dishes);
+	}
+
+	@Test
+	void testRejectWhenFull() {
+		Kitchen kitchen = new Kitchen(new HoldingScheduler(), new KitchenIntake(2, AdmissionPolicy.REJECT));
+
+		assertTrue(kitchen.admit(order(1, 1)).isAccepted());
+		assertTrue(kitchen.admit(order(2, 1)).isAccepted());
+		Order third = order(3, 1);
+		assertInstanceOf(Admission.Rejected.class, kitchen.admit(third));
+
+		assertEquals(OrderStatus.OPEN, third.getStatus(), "A rejected order never enters the kitchen.");
+		assertEquals(2, kitchen.getIntake().getQueueDepth());
+		assertEquals(1, kitchen.getIntake().getRejectedCount());
+	}
+
+	@Test
+	void testSlotIsFreedWhenOrderIsPrepared() {
+		HoldingScheduler scheduler = new HoldingScheduler();
+		Kitchen kitchen = new Kitchen(scheduler, new KitchenIntake(1, AdmissionPolicy.REJECT));
+
+		assertTrue(kitchen.admit(order(1, 1)).isAccepted());
+		Order held = scheduler.held.get(0);
+		held.getFuture().complete(held);
+
+		assertEquals(0, kitchen.getIntake().getQueueDepth());
+		assertTrue(kitchen.admit(order(2, 1)).isAccepted());
+	}
+
+	@Test
+	void testDeferReturnsRetryAfter() {
+		Kitchen kitchen = new Kitchen(new HoldingScheduler(),
+				new KitchenIntake(1, AdmissionPolicy.DEFER, Duration.ofMillis(250), KitchenIntake.SHORTEST_FIRST));
+
+		kitchen.admit(order(1, 1));
+		Admission admission = kitchen.admit(order(2, 1));
+
+		assertEquals(new Admission.Deferred(Duration.ofMillis(250)), admission);
+		assertEquals(1, kitchen.getIntake().getDeferredCount());
+	}
+
+	@Test
+	void testShedLongestOrderForShorterOne() {
+		Kitchen kitchen = new Kitchen(new HoldingScheduler(), new KitchenIntake(2, AdmissionPolicy.SHED_LOWEST_PRIORITY));
+
+		Order longOrder = order(1, 4);
+		CompletableFuture<Order> longFuture = kitchen.acceptOrder(longOrder);
+		kitchen.acceptOrder(order(2, 2));
+
+		assertTrue(kitchen.admit(order(3, 1)).isAccepted(), "A shorter order should push out the longest one.");
+		assertThrows(ExecutionException.class, longFuture::get);
+		assertInstanceOf(Admission.Rejected.class, kitchen.admit(order(4, 3)),
+				"No waiting order is longer than this one.");
+
+		assertEquals(2, kitchen.getIntake().getQueueDepth());
+		assertEquals(1, kitchen.getIntake().getShedCount());
+		assertEquals(1, kitchen.getIntake().getRejectedCount());
+	}
+
+	@Test
+	void testOnlyWaitingOrdersAreShedWhileEveryChefIsBusy() throws Exception {
+		Kitchen kitchen = new Kitchen(new QueueScheduler(1, o -> 300L),
+				new KitchenIntake(2, AdmissionPolicy.SHED_LOWEST_PRIORITY));
+
+		Order cooking = order(1, 4);
+		CompletableFuture<Order> cookingFuture = kitchen.acceptOrder(cooking);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (cooking.getStatus() != OrderStatus.IN_PREPARATION && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(OrderStatus.IN_PREPARATION, cooking.getStatus(), "The only chef is busy.");
+		Order waiting = order(2, 2);
+		CompletableFuture<Order> waitingFuture = kitchen.acceptOrder(waiting);
+
+		// The longest order is being cooked, so the waiting one is shed instead
+		Order shortOrder = order(3, 1);
+		assertTrue(kitchen.admit(shortOrder).isAccepted());
+		assertThrows(ExecutionException.class, waitingFuture::get);
+		assertEquals(OrderStatus.CANCELLED, waiting.getStatus());
+		assertInstanceOf(Admission.Rejected.class, kitchen.admit(order(4, 1)),
+				"No waiting order is less important.");
+
+		assertSame(cooking, cookingFuture.get(5, TimeUnit.SECONDS));
+		assertEquals(OrderStatus.PREPARED, cooking.getStatus());
+		shortOrder.getFuture().get(5, TimeUnit.SECONDS);
+		assertEquals(OrderStatus.PREPARED, shortOrder.getStatus());
+		assertEquals(0, kitchen.getIntake().getQueueDepth());
+		assertEquals(1, kitchen.getIntake().getShedCount());
+		kitchen.close();
+	}
+
+	@Test
+	void testWaiterSeesTypedOutcome() {
+		Kitchen kitchen = new Kitchen(new HoldingScheduler(), new KitchenIntake(1, AdmissionPolicy.REJECT));
+		Waiter waiter = new Waiter(kitchen, new CashRegister());
+
+		Order first = order(1, 1);
+		Order second = order(2, 1);
+		assertTrue(waiter.takeOrder(first.getCustomer(), first).isAccepted());
+		assertDoesNotThrow(() -> {
+			Admission admission = waiter.takeOrder(second.getCustomer(), second);
+			assertInstanceOf(Admission.Rejected.class, admission);
+		});
+	}
+}
@@ -0,0 +1,317 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.BatchingScheduler;
+import restaurant.core.kitchen.model.DeadlineOrderQueue;
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.kitchen.model.QueueScheduler;
+import restaurant.core.kitchen.model.Station;
+import restaurant.core.kitchen.model.VirtualThreadScheduler;
+import restaurant.core.kitchen.model.WorkStealingScheduler;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+
+/**
+ * Tests for the pluggable kitchen schedulers.
+ */
+public class KitchenSchedulerTest {
+
+	@Test
+	void testStationRouting() {
+		assertEquals(Station.GRILL, Station.of(Category.MAIN_COURSE));
+		assertEquals(Station.COLD, Station.of(Category.STARTER));
+		assertEquals(Station.BAR, Station.of(Category.DRINK));
+		assertEquals(Station.DESSERT, Station.of(Category.DESSERT));
+	}
+
+	@Test
+	void testWorkStealingCompletesAllOrders() throws Exception {
+		Kitchen kitchen = new Kitchen(new WorkStealingScheduler(3, o -> 10L * o.getDishes().size()));
+
+		List<CompletableFuture<Order>> futures = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			Order order = Order.create(new Customer("Guest-" + i, i),
+					List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5), new Dish("Salad", Category.STARTER, 4.5),
+							new Dish("Coffee", Category.DRINK, 2.5)));
+			futures.add(kitchen.acceptOrder(order));
+		}
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		for (CompletableFuture<Order> future : futures) {
+			assertEquals(OrderStatus.PREPARED, future.join().getStatus());
+		}
+
+		kitchen.close();
+		assertTrue(kitchen.isClosed(), "Kitchen should be terminated after close()");
+	}
+
+	@Test
+	void testWorkStealingCloseRacingSubmitsLosesNoOrder() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			WorkStealingScheduler scheduler = new WorkStealingScheduler(2, o -> 0L);
+			ConcurrentLinkedQueue<CompletableFuture<Order>> accepted = new ConcurrentLinkedQueue<>();
+			ExecutorService waiters = Executors.newFixedThreadPool(4);
+			for (int w = 0; w < 4; w++) {
+				waiters.submit(() -> {
+					for (int i = 1;; i++) {
+						Order order = Order.create(new Customer("Guest-" + i, i % 20 + 1),
+								List.of(new Dish("Coffee", Category.DRINK, 2.5)));
+						order.setFuture(new CompletableFuture<>());
+						try {
+							scheduler.submit(order);
+						} catch (IllegalStateException closed) {
+							return;
+						}
+						accepted.add(order.getFuture());
+					}
+				});
+			}
+			Thread.sleep(2);
+			scheduler.close();
+			waiters.shutdown();
+			assertTrue(waiters.awaitTermination(5, TimeUnit.SECONDS));
+
+			CompletableFuture.allOf(accepted.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+			assertEquals(0, scheduler.pendingDishes());
+		}
+	}
+
+	@Test
+	void testWorkStealingFailsDishesLeftAtClose() throws Exception {
+		WorkStealingScheduler scheduler = new WorkStealingScheduler(1, o -> 600L * o.getDishes().size());
+		Order order = Order.create(new Customer("Late", 1), List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5),
+				new Dish("Pizza", Category.MAIN_COURSE, 8.5), new Dish("Pizza", Category.MAIN_COURSE, 8.5)));
+		order.setFuture(new CompletableFuture<>());
+		scheduler.submit(order);
+
+		scheduler.close();
+		assertTrue(order.getFuture().isCompletedExceptionally(), "Dishes left at close must fail their order");
+		assertEquals(0, scheduler.pendingDishes());
+	}
+
+	@Test
+	void testWorkStealingCompletesOrderWithoutDishes() throws Exception {
+		Kitchen kitchen = new Kitchen(new WorkStealingScheduler(1));
+		Order order = Order.create(new Customer("Empty", 1), List.of());
+
+		assertEquals(OrderStatus.PREPARED, kitchen.acceptOrder(order).get(1, TimeUnit.SECONDS).getStatus());
+		kitchen.close();
+	}
+
+	@Test
+	void testQueueSchedulerWithParallelDishes() throws Exception {
+		Kitchen kitchen = new Kitchen(new QueueScheduler(2, o -> 300L * o.getDishes().size(), new LinkedBlockingQueue<>(), 3));
+		Order order = Order.create(new Customer("Frank", 6), List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5),
+				new Dish("Soup", Category.STARTER, 4.0)));
+
+		long start = System.currentTimeMillis();
+		assertEquals(OrderStatus.PREPARED, kitchen.acceptOrder(order).get(5, TimeUnit.SECONDS).getStatus());
+		assertTrue(System.currentTimeMillis() - start < 550, "Both dishes should be cooked at the same time.");
+		kitchen.close();
+	}
+
+	@Test
+	void testVirtualThreadChefsCompleteAllOrders() throws Exception {
+		VirtualThreadScheduler scheduler = new VirtualThreadScheduler(4, o -> 5L * o.getDishes().size());
+		Kitchen kitchen = new Kitchen(scheduler);
+
+		List<CompletableFuture<Order>> futures = new ArrayList<>();
+		for (int i = 1; i <= 200; i++) {
+			Order order = Order.create(new Customer("Guest-" + i, i),
+					List.of(new Dish("Burger", Category.MAIN_COURSE, 7.9), new Dish("Smoothie", Category.DRINK, 3.8)));
+			futures.add(kitchen.acceptOrder(order));
+		}
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		for (CompletableFuture<Order> future : futures) {
+			assertEquals(OrderStatus.PREPARED, future.join().getStatus());
+		}
+		kitchen.close();
+		assertTrue(kitchen.isClosed(), "Kitchen should be terminated after close()");
+		assertEquals(4, scheduler.availableStoveSlots(), "All stove slots should be free again.");
+	}
+
+	@Test
+	void testStoveSlotsLimitParallelDishes() throws Exception {
+		Kitchen kitchen = new Kitchen(new VirtualThreadScheduler(2, o -> 200L * o.getDishes().size()));
+		Order order = Order.create(new Customer("Grace", 7),
+				List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5), new Dish("Pasta", Category.MAIN_COURSE, 9.2),
+						new Dish("Soup", Category.STARTER, 4.0), new Dish("Coffee", Category.DRINK, 2.5)));
+
+		long start = System.currentTimeMillis();
+		assertEquals(OrderStatus.PREPARED, kitchen.acceptOrder(order).get(5, TimeUnit.SECONDS).getStatus());
+		long elapsed = System.currentTimeMillis() - start;
+		assertTrue(elapsed >= 400, "Four dishes on two stoves need two rounds, took " + elapsed);
+		kitchen.close();
+	}
+
+	@Test
+	void testDeadlineQueueServesShortAndPromisedOrdersFirst() {
+		DeadlineOrderQueue queue = new DeadlineOrderQueue(o -> 10L * o.getDishes().size(), 2.0);
+		Dish pizza = new Dish("Pizza", Category.MAIN_COURSE, 8.5);
+		Order fourCourses = Order.create(new Customer("Long", 1), List.of(pizza, pizza, pizza, pizza));
+		Order drink = Order.create(new Customer("Short", 2), List.of(new Dish("Coffee", Category.DRINK, 2.5)));
+		Order promised = Order.create(new Customer("Promised", 3), List.of(pizza, pizza));
+		promised.setPromisedBy(System.currentTimeMillis());
+
+		queue.add(Order.poisonPill());
+		queue.add(fourCourses);
+		queue.add(drink);
+		queue.add(promised);
+
+		assertEquals(promised, queue.poll());
+		assertEquals(drink, queue.poll());
+		assertEquals(fourCourses, queue.poll());
+		assertEquals(-1, queue.poll().getTableNumber(), "Poison pills come last.");
+	}
+
+	@Test
+	void testDeadlineQueueAgesLongOrders() throws Exception {
+		DeadlineOrderQueue queue = new DeadlineOrderQueue(o -> 10L * o.getDishes().size(), 2.0);
+		Dish pizza = new Dish("Pizza", Category.MAIN_COURSE, 8.5);
+		Order fourCourses = Order.create(new Customer("Long", 1), List.of(pizza, pizza, pizza, pizza));
+		Thread.sleep(100); // longer than twice the 40 ms of the long order
+
+		queue.add(Order.create(new Customer("Short", 2), List.of(new Dish("Coffee", Category.DRINK, 2.5))));
+		queue.add(fourCourses);
+
+		assertEquals(fourCourses, queue.poll(), "A long order that waited long enough must not be overtaken.");
+	}
+
+	@Test
+	void testDeadlineQueueAgesInSimulatedTime() {
+		DeadlineOrderQueue queue = new DeadlineOrderQueue(o -> 10L * o.getDishes().size(), 2.0);
+		Dish pizza = new Dish("Pizza", Category.MAIN_COURSE, 8.5);
+		// Stamped by a virtual clock: 100 ms pass between the orders without any real waiting
+		Order fourCourses = Order.create(new Customer("Long", 1), List.of(pizza, pizza, pizza, pizza), () -> 0L);
+		Order drink = Order.create(new Customer("Short", 2), List.of(new Dish("Coffee", Category.DRINK, 2.5)), () -> 100L);
+
+		queue.add(drink);
+		queue.add(fourCourses);
+
+		assertEquals(fourCourses, queue.poll(), "Aging must follow the clock the orders were created on.");
+	}
+
+	@Test
+	void testQueueSchedulerWithDeadlineQueue() throws Exception {
+		Kitchen kitchen = new Kitchen(new QueueScheduler(2, o -> 5L * o.getDishes().size(), new DeadlineOrderQueue()));
+
+		List<CompletableFuture<Order>> futures = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			Order order = Order.create(new Customer("Guest-" + i, i), i % 2 == 0
+					? List.of(new Dish("Coffee", Category.DRINK, 2.5))
+					: List.of(new Dish("Soup", Category.STARTER, 4.0), new Dish("Pizza", Category.MAIN_COURSE, 8.5),
+							new Dish("Ice Cream", Category.DESSERT, 3.5), new Dish("Coffee", Category.DRINK, 2.5)));
+			futures.add(kitchen.acceptOrder(order));
+		}
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		kitchen.close();
+		assertTrue(kitchen.isClosed(), "Poison pills must still reach the chefs.");
+	}
+
+	@Test
+	void testBatchingCooksEqualDishesTogether() throws Exception {
+		BatchingScheduler scheduler = new BatchingScheduler(1, Duration.ofMillis(100), 10, o -> 200L);
+		Kitchen kitchen = new Kitchen(scheduler);
+
+		long start = System.currentTimeMillis();
+		List<CompletableFuture<Order>> futures = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			Order order = Order.create(new Customer("Guest-" + i, i), List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5)));
+			futures.add(kitchen.acceptOrder(order));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertTrue(elapsed < 600, "Five pizzas in one batch should take about one pizza, took " + elapsed);
+		assertEquals(1, scheduler.getBatchCount());
+		assertEquals(5.0, scheduler.getAverageBatchSize(), 0.01);
+		assertTrue(scheduler.getAverageLingerMillis() >= 90, "The batch should have waited for its window.");
+		kitchen.close();
+		assertTrue(kitchen.isClosed(), "Kitchen should be terminated after close()");
+	}
+
+	@Test
+	void testBatchingSendsFullBatchesImmediately() throws Exception {
+		BatchingScheduler scheduler = new BatchingScheduler(2, Duration.ofSeconds(10), 2, o -> 10L * o.getDishes().size());
+		Kitchen kitchen = new Kitchen(scheduler);
+
+		List<CompletableFuture<Order>> futures = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			Order order = Order.create(new Customer("Guest-" + i, i), List.of(new Dish("Coffee", Category.DRINK, 2.5)));
+			futures.add(kitchen.acceptOrder(order));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, TimeUnit.SECONDS);
+
+		assertEquals(2, scheduler.getBatchCount());
+		kitchen.close();
+	}
+
+	@Test
+	void testBatchingFailsBatchesLeftAtClose() throws Exception {
+		BatchingScheduler scheduler = new BatchingScheduler(1, Duration.ofMillis(1), 1, o -> 700L);
+		List<Order> orders = new ArrayList<>();
+		for (String name : List.of("Pizza", "Pasta", "Steak")) {
+			Order order = Order.create(new Customer(name, orders.size() + 1),
+					List.of(new Dish(name, Category.MAIN_COURSE, 9.0)));
+			order.setFuture(new CompletableFuture<>());
+			scheduler.submit(order);
+			orders.add(order);
+		}
+
+		scheduler.close();
+		assertEquals(OrderStatus.PREPARED, orders.get(0).getFuture().get(1, TimeUnit.SECONDS).getStatus());
+		// The interrupted chef fails its batch on its own thread
+		assertThrows(ExecutionException.class, () -> orders.get(1).getFuture().get(1, TimeUnit.SECONDS));
+		assertTrue(orders.get(2).getFuture().isCompletedExceptionally(), "Batch nobody started must fail its order");
+	}
+
+	@Test
+	void testBatchingCloseRacingSubmitsLosesNoOrder() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			BatchingScheduler scheduler = new BatchingScheduler(2, Duration.ofMillis(1), 4, o -> 0L);
+			ConcurrentLinkedQueue<CompletableFuture<Order>> accepted = new ConcurrentLinkedQueue<>();
+			ExecutorService waiters = Executors.newFixedThreadPool(4);
+			for (int w = 0; w < 4; w++) {
+				waiters.submit(() -> {
+					for (int i = 1;; i++) {
+						Order order = Order.create(new Customer("Guest-" + i, i % 20 + 1),
+								List.of(new Dish("Coffee", Category.DRINK, 2.5)));
+						order.setFuture(new CompletableFuture<>());
+						try {
+							scheduler.submit(order);
+						} catch (IllegalStateException closed) {
+							return;
+						}
+						accepted.add(order.getFuture());
+					}
+				});
+			}
+			Thread.sleep(2);
+			scheduler.close();
+			waiters.shutdown();
+			assertTrue(waiters.awaitTermination(5, TimeUnit.SECONDS));
+
+			CompletableFuture.allOf(accepted.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+			assertTrue(scheduler.isClosed());
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.Money;
+import restaurant.core.order.model.Order;
+import restaurant.payment.model.CashPayment;
+
+/**
+ * Tests for exact money amounts.
+ */
+public class MoneyTest {
+
+	@Test
+	void testConversionRoundsHalfUp() {
+		assertEquals(Money.ofCents(1250), Money.of(12.5));
+		assertEquals(Money.ofCents(29), Money.of(0.285));
+		assertEquals(Money.ofCents(-29), Money.of(-0.285));
+		assertEquals(new Money(1235, Currency.getInstance("JPY")),
+				Money.of(new BigDecimal("1234.5"), Currency.getInstance("JPY")));
+	}
+
+	@Test
+	void testSumIsExact() {
+		Money dime = Money.of(0.1);
+		Money sum = Money.ZERO;
+		double doubles = 0;
+		for (int i = 0; i < 10; i++) {
+			sum = sum.plus(dime);
+			doubles += 0.1;
+		}
+		assertEquals(Money.ofCents(100), sum);
+		assertNotEquals(1.0, doubles, "Doubles drift.");
+		assertEquals(Money.ofCents(70), sum.minus(Money.ofCents(30)));
+		assertEquals(Money.ofCents(300), dime.times(30));
+	}
+
+	@Test
+	void testFormat() {
+		assertEquals("12.50", Money.ofCents(1250).format());
+		assertEquals("0.05", Money.ofCents(5).format());
+		assertEquals("-0.05", Money.ofCents(-5).format());
+		assertEquals("12.50 €", Money.ofCents(1250).toString());
+		assertEquals("1234 JPY", new Money(1234, Currency.getInstance("JPY")).toString());
+	}
+
+	@Test
+	void testCurrenciesDoNotMix() {
+		Money dollars = new Money(100, Currency.getInstance("USD"));
+		assertThrows(IllegalArgumentException.class, () -> Money.ofCents(100).plus(dollars));
+		assertThrows(IllegalArgumentException.class, () -> Money.ofCents(100).compareTo(dollars));
+	}
+
+	@Test
+	void testDishAndOrderTotals() {
+		assertThrows(IllegalArgumentException.class, () -> new Dish("Air", Category.DRINK, 0.001));
+		Dish coffee = new Dish("Coffee", Category.DRINK, 2.5);
+		Dish pizza = new Dish("Pizza", Category.MAIN_COURSE, Money.ofCents(850));
+		Order order = Order.create(new Customer("Guest", 1), List.of(coffee, pizza, coffee));
+
+		assertEquals(Money.ofCents(1350), order.getTotal());
+		assertEquals(13.5, order.getTotalPrice(), 0);
+		assertThrows(UnsupportedOperationException.class, () -> order.getDishes().add(coffee),
+				"The dishes of an order cannot change behind its total.");
+		assertEquals(Money.ofCents(1350), new CashPayment(order.getTotal()).getAmount());
+	}
+
+	@Test
+	void testAllocate() {
+		assertEquals(List.of(Money.ofCents(334), Money.ofCents(333), Money.ofCents(333)),
+				Money.ofCents(1000).allocate(3));
+		assertEquals(List.of(Money.ofCents(-2), Money.ofCents(-1)), Money.ofCents(-3).allocate(2));
+		assertThrows(IllegalArgumentException.class, () -> Money.ZERO.allocate(0));
+	}
+}
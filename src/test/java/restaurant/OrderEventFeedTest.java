@@ -0,0 +1,149 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderEvent;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.monitoring.OrderEventFeed;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests for the live feed of order status changes.
+ */
+public class OrderEventFeedTest {
+
+	private static Order orderAt(int table) {
+		return Order.create(new Customer("Guest " + table, table), List.of(Restaurant.MENU.getAllDishes().get(0)));
+	}
+
+	private static void await(CountDownLatch latch) throws InterruptedException {
+		assertTrue(latch.await(5, TimeUnit.SECONDS), "Events did not arrive in time.");
+	}
+
+	@Test
+	void testSubscriberGetsLifecycleInOrder() throws Exception {
+		try (OrderEventFeed feed = new OrderEventFeed()) {
+			List<String> types = new CopyOnWriteArrayList<>();
+			CountDownLatch done = new CountDownLatch(1);
+			feed.subscribe(event -> {
+				types.add(event.type());
+				if (event.status() == OrderStatus.PAID) {
+					done.countDown();
+				}
+			});
+			Order order = orderAt(1);
+			for (OrderStatus status : List.of(OrderStatus.OPEN, OrderStatus.IN_PREPARATION, OrderStatus.PREPARED,
+					OrderStatus.PAID)) {
+				feed.accept(order, status);
+				// Let every step arrive on its own instead of being merged
+				Thread.sleep(150);
+			}
+			await(done);
+			assertEquals(List.of("created", "in-preparation", "prepared", "paid"), types);
+		}
+	}
+
+	@Test
+	void testSlowSubscriberGetsLatestStatusWithoutBlocking() throws Exception {
+		try (OrderEventFeed feed = new OrderEventFeed()) {
+			CountDownLatch release = new CountDownLatch(1);
+			Map<Long, OrderStatus> latest = new ConcurrentHashMap<>();
+			AtomicInteger received = new AtomicInteger();
+			OrderEventFeed.Subscription slow = feed.subscribe(event -> {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				latest.put(event.orderId(), event.status());
+				received.incrementAndGet();
+			}, 16);
+
+			List<Order> orders = IntStream.rangeClosed(1, 8).mapToObj(OrderEventFeedTest::orderAt).toList();
+			long start = System.nanoTime();
+			for (int round = 0; round < 1000; round++) {
+				for (Order order : orders) {
+					feed.accept(order, round % 2 == 0 ? OrderStatus.IN_PREPARATION : OrderStatus.PREPARED);
+				}
+			}
+			for (Order order : orders) {
+				feed.accept(order, OrderStatus.PAID);
+			}
+			assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2),
+					"Publishing must not wait for the client.");
+
+			release.countDown();
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (latest.values().stream().filter(s -> s == OrderStatus.PAID).count() < orders.size()
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			for (Order order : orders) {
+				assertEquals(OrderStatus.PAID, latest.get(order.getId()), "The last status of every order arrives.");
+			}
+			assertTrue(received.get() < 8 * 1001, "Events of the same order were merged.");
+			assertTrue(slow.getCoalescedCount() > 0);
+			assertEquals(0, slow.getDroppedCount(), "Eight orders fit into the buffer.");
+		}
+	}
+
+	@Test
+	void testManySubscribers() throws Exception {
+		try (OrderEventFeed feed = new OrderEventFeed()) {
+			int subscribers = 300;
+			CountDownLatch delivered = new CountDownLatch(subscribers);
+			for (int i = 0; i < subscribers; i++) {
+				feed.subscribe(event -> delivered.countDown());
+			}
+			assertEquals(subscribers, feed.getSubscriberCount());
+			feed.accept(orderAt(1), OrderStatus.OPEN);
+			await(delivered);
+		}
+	}
+
+	@Test
+	void testFailingSinkEndsSubscription() throws Exception {
+		try (OrderEventFeed feed = new OrderEventFeed()) {
+			CountDownLatch called = new CountDownLatch(1);
+			OrderEventFeed.Subscription subscription = feed.subscribe(event -> {
+				called.countDown();
+				throw new IllegalStateException("Client went away");
+			});
+			feed.accept(orderAt(2), OrderStatus.OPEN);
+			await(called);
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (subscription.isOpen() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertFalse(subscription.isOpen());
+			assertEquals(0, feed.getSubscriberCount());
+		}
+	}
+
+	@Test
+	void testEventJson() {
+		OrderEvent event = new OrderEvent(7, 3, "Jo \"JJ\"", OrderStatus.PAYMENT_FAILED, 1000);
+		assertEquals("{\"orderId\":7,\"table\":3,\"customer\":\"Jo \\\"JJ\\\"\",\"type\":\"failed\",\"time\":1000}",
+				event.toJson());
+	}
+
+	@Test
+	void testEventIsTimedOnTheOrdersClock() {
+		Order order = Order.create(new Customer("Kim", 4), List.of(Restaurant.MENU.getAllDishes().get(0)), () -> 5000L);
+		assertEquals(5000L, OrderEvent.of(order, OrderStatus.OPEN).timeMillis());
+		assertEquals(5000L, order.getCreatedAt());
+	}
+}
@@ -0,0 +1,140 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.MenuMix;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderRegistry;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.journal.OrderJournal;
+import restaurant.infrastructure.journal.OrderJournal.JournalRecord;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.EventRestaurant;
+
+/**
+ * Tests for the memory-mapped order journal.
+ */
+public class OrderJournalTest {
+
+	@TempDir
+	Path directory;
+
+	private LogSink previous;
+
+	@BeforeEach
+	void setUp() {
+		previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Toolkit.setLogSink(previous);
+	}
+
+	@Test
+	void testStatusChangesAreJournaledAndRestored() throws Exception {
+		OrderJournal journal = OrderJournal.open(directory);
+		Order.addStatusListener(journal);
+		Order order;
+		try {
+			order = Order.create(new Customer("Heidi", 8), List.of(new Dish("Pasta", Category.MAIN_COURSE, 9.2)));
+			order.setStatus(OrderStatus.IN_PREPARATION);
+			order.setStatus(OrderStatus.PREPARED);
+			order.setStatus(OrderStatus.PAID);
+		} finally {
+			Order.removeStatusListener(journal);
+			journal.close();
+		}
+
+		List<OrderStatus> history = new ArrayList<>();
+		OrderJournal.replay(directory, e -> {
+			if (e.orderId() == order.getId()) {
+				history.add(e.status());
+			}
+		});
+		assertEquals(List.of(OrderStatus.OPEN, OrderStatus.IN_PREPARATION, OrderStatus.PREPARED, OrderStatus.PAID),
+				history);
+
+		Map<Long, JournalRecord> restored = OrderJournal.restore(directory);
+		assertEquals(OrderStatus.PAID, restored.get(order.getId()).status());
+		assertEquals(8, restored.get(order.getId()).tableNumber());
+	}
+
+	@Test
+	void testSegmentsRollAndReopenAppendsAtTheEnd() throws Exception {
+		// Room for four events per segment
+		try (OrderJournal journal = OrderJournal.open(directory, 96)) {
+			for (int i = 1; i <= 10; i++) {
+				journal.append(i, i, OrderStatus.OPEN, i);
+			}
+		}
+		try (OrderJournal journal = OrderJournal.open(directory, 96)) {
+			journal.append(11, 11, OrderStatus.PAID, 11);
+		}
+
+		List<Long> ids = new ArrayList<>();
+		OrderJournal.replay(directory, e -> ids.add(e.orderId()));
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L), ids);
+		try (var files = Files.list(directory)) {
+			assertEquals(3, files.count(), "Eleven events need three segments of four.");
+		}
+	}
+
+	@Test
+	void testRestartRestoresTheOrdersOfADay() throws Exception {
+		Map<Long, OrderStatus> live = new HashMap<>();
+		BiConsumer<Order, OrderStatus> watcher = (order, status) -> live.put(order.getId(), status);
+		Order.addStatusListener(watcher);
+		OrderRegistry firstRun = new OrderRegistry();
+		try (OrderJournal journal = OrderJournal.recover(directory, firstRun)) {
+			new EventRestaurant(2, 5, 500, MenuMix.EVEN, new SplittableRandom(4)).simulateDay(200);
+		} finally {
+			Order.removeStatusListener(watcher);
+		}
+		assertEquals(0, firstRun.size(), "A new journal has nothing to restore.");
+
+		// Restart: the orders come back with their last status
+		OrderRegistry restored = new OrderRegistry();
+		Order next;
+		try (OrderJournal journal = OrderJournal.recover(directory, restored)) {
+			assertEquals(live.size(), restored.size());
+			live.forEach((id, status) -> assertEquals(status, restored.find(id).orElseThrow().getStatus()));
+			assertEquals(live.values().stream().filter(s -> s == OrderStatus.PAID).count(),
+					restored.getStatistics().getCount(OrderStatus.PAID));
+			next = Order.create(new Customer("Judy", 1), List.of());
+			assertTrue(next.getId() > Collections.max(live.keySet()), "New orders must not reuse restored ids.");
+		}
+		assertTrue(OrderJournal.restore(directory).containsKey(next.getId()), "The journal goes on after a restart.");
+	}
+
+	@Test
+	void testRestoreContinuesOrderIds() throws Exception {
+		try (OrderJournal journal = OrderJournal.open(directory)) {
+			journal.append(1_000_000, 1, OrderStatus.OPEN, 0);
+		}
+
+		OrderJournal.restore(directory);
+		Order order = Order.create(new Customer("Ivan", 9), List.of());
+		assertTrue(order.getId() > 1_000_000, "New orders must not reuse restored ids.");
+	}
+}
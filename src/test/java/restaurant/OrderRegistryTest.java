@@ -0,0 +1,104 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderRegistry;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests for the concurrent order registry.
+ */
+public class OrderRegistryTest {
+
+	private static Order orderAt(int table) {
+		return Order.create(new Customer("Guest " + table, table), List.of(Restaurant.MENU.getAllDishes().get(0)));
+	}
+
+	@Test
+	void testFindByIdAndTable() {
+		OrderRegistry registry = new OrderRegistry();
+		Order first = orderAt(1);
+		Order second = orderAt(2);
+		registry.register(first, new CompletableFuture<>());
+		registry.register(second, new CompletableFuture<>());
+
+		assertSame(first, registry.find(first.getId()).orElseThrow());
+		assertSame(second, registry.findByTable(2).orElseThrow());
+		assertTrue(registry.findByTable(3).isEmpty());
+		assertEquals(2, registry.size());
+
+		// A new order at the same table replaces the old one in the table index only
+		Order again = orderAt(1);
+		registry.register(again, new CompletableFuture<>());
+		assertSame(again, registry.findByTable(1).orElseThrow());
+		assertSame(first, registry.find(first.getId()).orElseThrow());
+	}
+
+	@Test
+	void testCompletedOrdersAreReadWithoutWaiting() {
+		OrderRegistry registry = new OrderRegistry();
+		Order done = orderAt(1);
+		Order pending = orderAt(2);
+		Order failed = orderAt(3);
+		registry.register(done, CompletableFuture.completedFuture(done));
+		registry.register(pending, new CompletableFuture<>());
+		registry.register(failed, CompletableFuture.failedFuture(new IllegalStateException("Kitchen closed")));
+
+		List<Order> completed = new ArrayList<>();
+		registry.forEachCompleted(completed::add);
+		assertEquals(List.of(done), completed);
+		assertEquals(1, registry.pendingCount());
+		assertFalse(registry.allDone().isDone(), "One order is still in progress.");
+	}
+
+	@Test
+	void testEvictFinalizedOrders() {
+		OrderRegistry registry = new OrderRegistry();
+		Order paid = orderAt(1);
+		Order prepared = orderAt(2);
+		registry.register(paid, CompletableFuture.completedFuture(paid));
+		registry.register(prepared, CompletableFuture.completedFuture(prepared));
+		paid.setStatus(OrderStatus.PAID);
+		prepared.setStatus(OrderStatus.PREPARED);
+
+		assertEquals(1, registry.evictFinalized());
+		assertTrue(registry.find(paid.getId()).isEmpty());
+		assertTrue(registry.findByTable(1).isEmpty());
+		assertSame(prepared, registry.findByTable(2).orElseThrow());
+	}
+
+	@Test
+	void testConcurrentRegistration() throws Exception {
+		OrderRegistry registry = new OrderRegistry();
+		int tables = 200;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int t = 1; t <= tables; t++) {
+				int table = t;
+				executor.submit(() -> {
+					Order order = orderAt(table);
+					registry.register(order, CompletableFuture.completedFuture(order));
+				});
+			}
+		}
+		assertEquals(tables, registry.size());
+		for (int t = 1; t <= tables; t++) {
+			assertEquals(t, registry.findByTable(t).orElseThrow().getTableNumber());
+		}
+		List<CompletableFuture<Order>> futures = registry.futures();
+		for (int i = 1; i < futures.size(); i++) {
+			assertTrue(futures.get(i - 1).join().getId() < futures.get(i).join().getId(), "Futures are sorted by id.");
+		}
+		registry.allDone().join();
+	}
+}
@@ -0,0 +1,121 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.Money;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderRegistry;
+import restaurant.core.order.model.OrderStatistics;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.clock.VirtualClock;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests for the running order totals behind the daily report.
+ */
+public class OrderStatisticsTest {
+
+	private static final Dish PIZZA = new Dish("Pizza", Category.MAIN_COURSE, 8.50);
+	private static final Dish COFFEE = new Dish("Coffee", Category.DRINK, 2.50);
+
+	@Test
+	void testTotalsFollowStatusChanges() {
+		OrderStatistics stats = new OrderStatistics();
+		Order order = Order.create(new Customer("Anna", 1), List.of(PIZZA, COFFEE));
+		stats.add(order);
+		assertEquals(1, stats.getCount(OrderStatus.OPEN));
+		assertEquals(Money.ZERO, stats.getRevenue());
+
+		order.setStatus(OrderStatus.IN_PREPARATION);
+		order.setStatus(OrderStatus.PREPARED);
+		assertEquals(0, stats.getCount(OrderStatus.OPEN));
+		assertEquals(1, stats.getCount(OrderStatus.PREPARED));
+		assertEquals(Money.ofCents(1100), stats.getRevenue());
+		assertEquals(Money.ofCents(850), stats.getSales(Category.MAIN_COURSE));
+		assertEquals(Money.ZERO, stats.getPaid());
+
+		order.setStatus(OrderStatus.PAID);
+		assertEquals(1, stats.getCount(OrderStatus.PAID));
+		assertEquals(Money.ofCents(1100), stats.getRevenue(), "Paying does not count the order again.");
+		assertEquals(Money.ofCents(1100), stats.getPaid());
+		assertEquals(1, (long) stats.getDishCounts().get("Coffee"));
+		assertEquals(1, stats.getOrderCount());
+	}
+
+	@Test
+	void testOrderCountedOnlyOnce() {
+		OrderStatistics stats = new OrderStatistics();
+		Order order = Order.create(new Customer("Ben", 2), List.of(PIZZA));
+		order.setStatus(OrderStatus.PREPARED);
+		stats.add(order);
+		assertEquals(Money.ofCents(850), stats.getRevenue(), "An order added after it was prepared counts as served.");
+		assertThrows(IllegalStateException.class, () -> stats.add(order));
+	}
+
+	@Test
+	void testEvictedOrdersStayInTotals() {
+		OrderRegistry registry = new OrderRegistry();
+		Order order = Order.create(new Customer("Cleo", 3), List.of(COFFEE));
+		registry.register(order, CompletableFuture.completedFuture(order));
+		order.setStatus(OrderStatus.PREPARED);
+		order.setStatus(OrderStatus.PAID);
+
+		assertEquals(1, registry.evictFinalized());
+		assertEquals(Money.ofCents(250), registry.getStatistics().getPaid());
+		assertEquals(1, registry.getStatistics().getCount(OrderStatus.PAID));
+	}
+
+	@Test
+	void testConcurrentStatusChanges() throws Exception {
+		OrderStatistics stats = new OrderStatistics();
+		int numOrders = 1000;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 1; i <= numOrders; i++) {
+				int table = i;
+				executor.submit(() -> {
+					Order order = Order.create(new Customer("Guest " + table, table), List.of(COFFEE));
+					stats.add(order);
+					order.setStatus(OrderStatus.IN_PREPARATION);
+					order.setStatus(OrderStatus.PREPARED);
+					order.setStatus(OrderStatus.PAID);
+				});
+			}
+		}
+		assertEquals(numOrders, stats.getCount(OrderStatus.PAID));
+		assertEquals(0, stats.getCount(OrderStatus.OPEN) + stats.getCount(OrderStatus.PREPARED));
+		assertEquals(Money.ofCents(250).times(numOrders), stats.getPaid(), "Cents add up exactly.");
+	}
+
+	@Test
+	void testReportAndItemizedPages() {
+		LogSink previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Restaurant restaurant = new Restaurant(3, clock, 7);
+			restaurant.simulateCustomerEnters(5);
+			restaurant.simulateOrders();
+			restaurant.close();
+
+			long orders = restaurant.getOrders().size();
+			assertTrue(restaurant.getReport().contains("Orders:              " + orders));
+			String firstPage = restaurant.getItemizedReport(0, 2);
+			assertEquals(Math.min(2, orders), firstPage.lines().filter(l -> l.startsWith("• ")).count());
+			assertTrue(restaurant.getItemizedReport(100, 2).isEmpty());
+		} finally {
+			Toolkit.setLogSink(previous);
+		}
+	}
+}
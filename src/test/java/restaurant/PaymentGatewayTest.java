@@ -0,0 +1,213 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.HedgingPaymentGateway;
+import restaurant.payment.gateway.LatencyDistribution;
+import restaurant.payment.gateway.PaymentGateway;
+import restaurant.payment.gateway.PaymentPolicy;
+import restaurant.payment.gateway.PaymentRequest;
+import restaurant.payment.gateway.PaymentResult;
+import restaurant.payment.gateway.SimulatedPaymentProcessor;
+import restaurant.payment.model.CashRegister;
+import restaurant.payment.model.CreditCard;
+import restaurant.payment.model.Visa;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests for authorizing payments through an asynchronous gateway.
+ */
+public class PaymentGatewayTest {
+
+	private LogSink previous;
+
+	@BeforeEach
+	void setUp() {
+		previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Toolkit.setLogSink(previous);
+	}
+
+	private static Order prepared(int table) {
+		Order order = Order.create(new Customer("Guest " + table, table),
+				List.of(Restaurant.MENU.getAllDishes().get(0)));
+		order.setStatus(OrderStatus.IN_PREPARATION);
+		order.setStatus(OrderStatus.PREPARED);
+		return order;
+	}
+
+	private static PaymentPolicy policy(long timeoutMillis, long hedgeMillis, int attempts) {
+		return new PaymentPolicy(Duration.ofMillis(timeoutMillis), Duration.ofMillis(hedgeMillis), attempts);
+	}
+
+	@Test
+	void testHundredsOfAuthorizationsInFlight() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.uniform(100, 200), 0,
+				0, new Random(1));
+		CashRegister register = new CashRegister(new HedgingPaymentGateway(processor, r -> policy(5_000, 1_000, 2)));
+		List<Order> orders = new ArrayList<>();
+		List<CompletableFuture<PaymentResult>> results = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int table = 1; table <= 500; table++) {
+			Order order = prepared(table);
+			orders.add(order);
+			results.add(register.payAsync(order, new Visa(order.getTotalPrice())));
+		}
+		assertTrue(register.getInFlightCount() > 100, "Paying does not wait for the gateway.");
+
+		CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3),
+				"The authorizations run side by side, not one after the other.");
+		for (Order order : orders) {
+			assertEquals(OrderStatus.PAID, order.getStatus());
+		}
+		assertEquals(0, register.getInFlightCount());
+		assertEquals(500, processor.getChargeCount());
+	}
+
+	@Test
+	void testSlowProcessorIsHedgedAndChargesOnce() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(300), 0, 0,
+				new Random(2));
+		HedgingPaymentGateway gateway = new HedgingPaymentGateway(processor, r -> policy(2_000, 50, 3));
+		PaymentResult result = gateway.authorize(PaymentRequest.of(prepared(1), new CreditCard(10))).join();
+
+		assertTrue(result.isApproved());
+		assertEquals(2, gateway.getHedgeCount());
+		assertEquals(3, processor.getAttemptCount());
+		assertEquals(1, processor.getChargeCount(), "All attempts share one idempotency key.");
+	}
+
+	@Test
+	void testFirstAnswerWins() {
+		AtomicInteger calls = new AtomicInteger();
+		// The first attempt is lost, the hedged one answers
+		PaymentGateway flaky = request -> calls.incrementAndGet() == 1 ? new CompletableFuture<>()
+				: CompletableFuture.completedFuture(new PaymentResult.Approved("second"));
+		HedgingPaymentGateway gateway = new HedgingPaymentGateway(flaky, r -> policy(2_000, 50, 2));
+
+		PaymentResult result = gateway.authorize(PaymentRequest.of(prepared(2), new CreditCard(10))).join();
+		assertEquals(new PaymentResult.Approved("second"), result);
+		assertEquals(1, gateway.getHedgeCount());
+	}
+
+	@Test
+	void testFailedAttemptIsRetried() {
+		AtomicInteger calls = new AtomicInteger();
+		PaymentGateway failingOnce = request -> calls.incrementAndGet() == 1
+				? CompletableFuture.failedFuture(new IllegalStateException("Connection reset"))
+				: CompletableFuture.completedFuture(new PaymentResult.Approved("retry"));
+		HedgingPaymentGateway gateway = new HedgingPaymentGateway(failingOnce, r -> policy(2_000, 1_000, 2));
+
+		assertTrue(gateway.authorize(PaymentRequest.of(prepared(3), new CreditCard(10))).join().isApproved());
+		assertEquals(1, gateway.getRetryCount());
+		assertEquals(0, gateway.getHedgeCount());
+	}
+
+	@Test
+	void testAllAttemptsFailing() {
+		PaymentGateway down = request -> CompletableFuture.failedFuture(new IllegalStateException("Down"));
+		HedgingPaymentGateway gateway = new HedgingPaymentGateway(down, r -> policy(2_000, 1_000, 3));
+		CashRegister register = new CashRegister(gateway);
+		Order order = prepared(4);
+
+		assertFalse(register.pay(order, new CreditCard(10)));
+		assertEquals(OrderStatus.PAYMENT_FAILED, order.getStatus());
+		assertEquals(2, gateway.getRetryCount());
+	}
+
+	@Test
+	void testTimeoutFailsThePayment() {
+		PaymentGateway silent = request -> new CompletableFuture<>();
+		HedgingPaymentGateway gateway = new HedgingPaymentGateway(silent, r -> policy(100, 40, 2));
+		CashRegister register = new CashRegister(gateway);
+		Order order = prepared(5);
+
+		PaymentResult result = register.payAsync(order, new CreditCard(10)).join();
+		assertEquals(new PaymentResult.TimedOut(Duration.ofMillis(100)), result);
+		assertEquals(OrderStatus.PAYMENT_FAILED, order.getStatus());
+		assertEquals(1, gateway.getTimeoutCount());
+	}
+
+	@Test
+	void testLateApprovalIsRefunded() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(300), 0, 0,
+				new Random(9));
+		HedgingPaymentGateway gateway = new HedgingPaymentGateway(processor, r -> policy(100, 1_000, 1));
+		CashRegister register = new CashRegister(gateway);
+		Order order = prepared(9);
+
+		assertFalse(register.pay(order, new CreditCard(10)));
+		assertEquals(OrderStatus.PAYMENT_FAILED, order.getStatus());
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (processor.getRefundCount() == 0 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(1, processor.getChargeCount(), "The processor approved the payment after all.");
+		assertEquals(1, processor.getRefundCount(), "The late approval is given back.");
+		assertEquals(1, gateway.getLateApprovalCount());
+	}
+
+	@Test
+	void testDeclineRate() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(0), 1, 0,
+				new Random(3));
+		CashRegister register = new CashRegister(processor);
+		Order order = prepared(6);
+
+		assertFalse(register.pay(order, new CreditCard(10)));
+		assertEquals(OrderStatus.PAYMENT_FAILED, order.getStatus());
+		assertEquals(0, processor.getChargeCount());
+	}
+
+	@Test
+	void testRefundGivesBackAnApprovedPayment() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(0), 0, 0,
+				new Random(7));
+		Order order = prepared(7);
+		PaymentRequest request = PaymentRequest.of(order, new CreditCard(10));
+
+		assertTrue(processor.authorize(request).join().isApproved());
+		assertTrue(processor.refund(request.idempotencyKey()).join());
+		assertFalse(processor.refund(request.idempotencyKey()).join(), "A payment is refunded once.");
+		assertFalse(processor.authorize(request).join().isApproved(), "A refunded payment stays refunded.");
+		assertEquals(1, processor.getRefundCount());
+		assertEquals(1, processor.getChargeCount());
+	}
+
+	@Test
+	void testProcessorForgetsDecisionsAfterItsMemory() throws Exception {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(0), 0, 0, 0,
+				new Random(8), Duration.ofMillis(200));
+		PaymentRequest request = PaymentRequest.of(prepared(8), new CreditCard(10));
+
+		assertTrue(processor.authorize(request).join().isApproved());
+		assertTrue(processor.authorize(request).join().isApproved());
+		assertEquals(1, processor.getChargeCount(), "A repeated key is remembered.");
+		Thread.sleep(300);
+		assertFalse(processor.refund(request.idempotencyKey()).join(), "The decision is forgotten.");
+		assertTrue(processor.authorize(request).join().isApproved());
+		assertEquals(2, processor.getChargeCount(), "A forgotten key is decided anew.");
+	}
+}
@@ -0,0 +1,55 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.Preparation;
+import restaurant.core.order.model.Order;
+
+/**
+ * Tests for sequential and parallel dish preparation.
+ */
+public class PreparationTest {
+
+	private static Order threeDishOrder() {
+		return Order.create(new Customer("Carol", 3), List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5),
+				new Dish("Salad", Category.STARTER, 4.5), new Dish("Coffee", Category.DRINK, 2.5)));
+	}
+
+	@Test
+	void testParallelPreparationTakesSlowestDish() throws Exception {
+		ExecutorService dishPool = Executors.newFixedThreadPool(3);
+		Order order = threeDishOrder();
+
+		long start = System.currentTimeMillis();
+		Order result = new Preparation(order, 300, dishPool, 3).call();
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertEquals(order, result);
+		assertTrue(elapsed < 800, "Three dishes in parallel should take about one dish duration, took " + elapsed);
+		dishPool.shutdown();
+	}
+
+	@Test
+	void testFanOutLimitsParallelDishes() throws Exception {
+		ExecutorService dishPool = Executors.newFixedThreadPool(3);
+		Order order = threeDishOrder();
+
+		long start = System.currentTimeMillis();
+		new Preparation(order, 200, dishPool, 2).call();
+		long elapsed = System.currentTimeMillis() - start;
+
+		// Two dishes at a time: two rounds, although the pool could run all three at once
+		assertTrue(elapsed >= 400, "Fan-out of 2 should not prepare all three dishes at once, took " + elapsed);
+		assertTrue(elapsed < 600, "Fan-out of 2 should still prepare two dishes in parallel, took " + elapsed);
+		dishPool.shutdown();
+	}
+}
@@ -0,0 +1,78 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.clock.VirtualClock;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.Restaurant;
+import restaurant.simulation.model.ReportFormat;
+
+/**
+ * Tests for the streamed daily report.
+ */
+public class ReportStreamTest {
+
+	/** Remembers how much had been written at every flush. */
+	private static class FlushRecorder extends StringWriter {
+		final List<Integer> flushedAt = new ArrayList<>();
+
+		@Override
+		public void flush() {
+			flushedAt.add(getBuffer().length());
+		}
+	}
+
+	@Test
+	void testNdjsonEscapesNames() {
+		Order order = Order.create(new Customer("Jo \"JJ\" \\ Smith", 7),
+				List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.50)));
+		String line = ReportFormat.NDJSON.format(order);
+		assertTrue(line.endsWith("}\n"));
+		assertTrue(line.contains("\"customer\":\"Jo \\\"JJ\\\" \\\\ Smith\""), line);
+		assertTrue(line.contains("\"table\":7"));
+		assertTrue(line.contains("\"total\":8.50"));
+		assertTrue(line.contains("\"dishes\":[\"Pizza\"]"));
+	}
+
+	@Test
+	void testStreamWritesOneLinePerOrderAndFlushesEarly() throws Exception {
+		LogSink previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Restaurant restaurant = new Restaurant(3, clock, 11);
+			restaurant.simulateCustomerEnters(8);
+			restaurant.simulateOrders();
+			restaurant.close();
+
+			FlushRecorder out = new FlushRecorder();
+			restaurant.writeReport(ReportFormat.NDJSON, out);
+			List<String> lines = out.toString().lines().toList();
+			int orders = restaurant.getOrders().size();
+			assertEquals(orders + 1, lines.size());
+			assertTrue(lines.get(lines.size() - 1).startsWith("{\"summary\":true,\"orders\":" + orders));
+			if (orders > 0) {
+				assertEquals(lines.get(0).length() + 1, (int) out.flushedAt.get(0), "Flushed right after the first order.");
+			}
+		} finally {
+			Toolkit.setLogSink(previous);
+		}
+	}
+
+	@Test
+	void testUnknownFormat() {
+		assertSame(ReportFormat.TEXT, ReportFormat.named("Text"));
+		assertThrows(IllegalArgumentException.class, () -> ReportFormat.named("xml"));
+	}
+}
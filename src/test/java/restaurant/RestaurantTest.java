@@ -65,8 +65,7 @@ public class RestaurantTest {
 		assertTrue(results.contains("Pizza ready"));
 		assertTrue(results.contains("Salad ready"));
 
-		System.out.println("End:   " + Toolkit.now.get());
-		System.out.println("Results: " + results);
+		Toolkit.logTime.accept("Results: " + results);
 	}
 
 	/**
@@ -93,6 +92,8 @@ public class RestaurantTest {
 	void testSuccessfulCashPayment() {
 		Customer customer = Toolkit.testCustomer.get();
 		Order order = Toolkit.testOrderWithCustomer.apply(customer);
+		order.setStatus(OrderStatus.IN_PREPARATION);
+		order.setStatus(OrderStatus.PREPARED);
 
 		CashRegister register = new CashRegister();
 		boolean success = register.pay(order, new CashPayment(order.getTotalPrice()));
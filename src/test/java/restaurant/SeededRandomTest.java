@@ -0,0 +1,99 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.MenuMix;
+import restaurant.core.order.model.Order;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.clock.VirtualClock;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.EventRestaurant;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests that simulations repeat for the same seed.
+ */
+public class SeededRandomTest {
+
+	@Test
+	void testSameSeedGivesSameOrders() {
+		var first = Toolkit.newRandom(42);
+		var second = Toolkit.newRandom(42);
+		for (int i = 0; i < 100; i++) {
+			Order a = Toolkit.orderWithCustomer.apply(new Customer("A", 1), first);
+			Order b = Toolkit.orderWithCustomer.apply(new Customer("B", 1), second);
+			assertEquals(a.getDishes(), b.getDishes());
+		}
+	}
+
+	@Test
+	void testEventDayRepeatsLineByLine() {
+		List<String> first = eventDayLog(7);
+		List<String> second = eventDayLog(7);
+
+		assertFalse(first.isEmpty());
+		assertEquals(first, second);
+		assertNotEquals(first, eventDayLog(8));
+	}
+
+	@Test
+	void testThreadedDayRepeatsRevenue() {
+		String first = threadedDayRevenue(11);
+		String second = threadedDayRevenue(11);
+
+		assertTrue(first.startsWith("Total revenue:"));
+		assertEquals(first, second);
+	}
+
+	@Test
+	void testDemoOrderRepeats() {
+		assertEquals(demoRevenue(5), demoRevenue(5));
+	}
+
+	/** @return the revenue line after the demo customer of a seeded restaurant */
+	private static String demoRevenue(long seed) {
+		LogSink previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Restaurant restaurant = new Restaurant(1, clock, seed);
+			restaurant.start();
+			return restaurant.getReport().lines().filter(l -> l.startsWith("Total revenue")).findFirst().orElseThrow();
+		} finally {
+			Toolkit.setLogSink(previous);
+		}
+	}
+
+	/** @return every log line of a seeded event day without its timestamp */
+	private static List<String> eventDayLog(long seed) {
+		List<String> lines = new ArrayList<>();
+		LogSink capture = (time, table, msg) -> lines.add(table + " | " + msg);
+		EventRestaurant restaurant = new EventRestaurant(2, 5, 2000, MenuMix.EVEN, Toolkit.newRandom(seed));
+		Toolkit.withLogSink(capture, () -> restaurant.simulateDay(200));
+		return lines;
+	}
+
+	/**
+	 * Which customer gets which table depends on how the threads interleave, but
+	 * every customer orders the same dishes, so the revenue must be the same.
+	 */
+	private static String threadedDayRevenue(long seed) {
+		LogSink previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Restaurant restaurant = new Restaurant(3, clock, seed);
+			restaurant.simulateCustomerEnters(Restaurant.MAX_CUSTOMERS);
+			restaurant.simulateOrders();
+			restaurant.close();
+			return restaurant.getReport().lines().filter(l -> l.startsWith("Total revenue")).findFirst().orElseThrow();
+		} finally {
+			Toolkit.setLogSink(previous);
+		}
+	}
+}
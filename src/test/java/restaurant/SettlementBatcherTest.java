@@ -0,0 +1,192 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.Capture;
+import restaurant.payment.gateway.CaptureResult;
+import restaurant.payment.gateway.LatencyDistribution;
+import restaurant.payment.gateway.PaymentResult;
+import restaurant.payment.gateway.SettlementBatcher;
+import restaurant.payment.gateway.SettlementGateway;
+import restaurant.payment.gateway.SimulatedPaymentProcessor;
+import restaurant.payment.model.CashRegister;
+import restaurant.payment.model.Visa;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests for capturing card payments in batches.
+ */
+public class SettlementBatcherTest {
+
+	private LogSink previous;
+
+	@BeforeEach
+	void setUp() {
+		previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Toolkit.setLogSink(previous);
+	}
+
+	private static Order prepared(int table) {
+		Order order = Order.create(new Customer("Guest " + table, table),
+				List.of(Restaurant.MENU.getAllDishes().get(0)));
+		order.setStatus(OrderStatus.IN_PREPARATION);
+		order.setStatus(OrderStatus.PREPARED);
+		return order;
+	}
+
+	private static Capture capture(String key) {
+		return new Capture(key, "AUTH-" + key, null);
+	}
+
+	/** Captures everything and remembers the size of every batch */
+	private static SettlementGateway recording(List<Integer> sizes) {
+		return batch -> {
+			sizes.add(batch.size());
+			return CompletableFuture.completedFuture(
+					batch.stream().map(c -> CaptureResult.captured(c.idempotencyKey())).toList());
+		};
+	}
+
+	@Test
+	void testFullBatchIsSentAtOnce() {
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		try (SettlementBatcher batcher = new SettlementBatcher(recording(sizes), 10, Duration.ofMinutes(1), 0)) {
+			List<CompletableFuture<CaptureResult>> results = new ArrayList<>();
+			for (int i = 0; i < 25; i++) {
+				results.add(batcher.submit(capture("k" + i)));
+			}
+			assertEquals(List.of(10, 10), sizes);
+			assertEquals(5, batcher.getPendingCount());
+			assertTrue(results.get(19).isDone());
+			assertFalse(results.get(20).isDone(), "The last payments wait for the end of the day.");
+
+			batcher.flush();
+			assertEquals(List.of(10, 10, 5), sizes);
+			assertTrue(results.stream().allMatch(r -> r.join().captured()));
+		}
+	}
+
+	@Test
+	void testWindowSendsPartialBatch() {
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		try (SettlementBatcher batcher = new SettlementBatcher(recording(sizes), 100, Duration.ofMillis(50), 0)) {
+			CompletableFuture<CaptureResult> result = batcher.submit(capture("late"));
+			assertTrue(result.join().captured());
+			assertEquals(List.of(1), sizes);
+		}
+	}
+
+	@Test
+	void testSameKeyIsCapturedOnce() {
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		try (SettlementBatcher batcher = new SettlementBatcher(recording(sizes), 10, Duration.ofMinutes(1), 0)) {
+			CompletableFuture<CaptureResult> first = batcher.submit(capture("same"));
+			assertSame(first, batcher.submit(capture("same")));
+			batcher.flush();
+			assertEquals(List.of(1), sizes);
+		}
+	}
+
+	@Test
+	void testFailedBatchIsRetried() {
+		AtomicInteger calls = new AtomicInteger();
+		SettlementGateway failingOnce = batch -> calls.incrementAndGet() == 1
+				? CompletableFuture.failedFuture(new IllegalStateException("Timeout"))
+				: CompletableFuture.completedFuture(
+						batch.stream().map(c -> CaptureResult.captured(c.idempotencyKey())).toList());
+		try (SettlementBatcher batcher = new SettlementBatcher(failingOnce, 2, Duration.ofMinutes(1), 2)) {
+			CompletableFuture<CaptureResult> a = batcher.submit(capture("a"));
+			CompletableFuture<CaptureResult> b = batcher.submit(capture("b"));
+			assertTrue(a.join().captured());
+			assertTrue(b.join().captured());
+			assertEquals(1, batcher.getRetryCount());
+			assertEquals(2, batcher.getBatchCount());
+		}
+	}
+
+	@Test
+	void testPartialFailure() {
+		// The processor refuses "bad" and does not answer for "lost" the first time
+		AtomicInteger lost = new AtomicInteger();
+		SettlementGateway partial = batch -> CompletableFuture.completedFuture(batch.stream()
+				.filter(c -> !c.idempotencyKey().equals("lost") || lost.incrementAndGet() > 1)
+				.map(c -> c.idempotencyKey().equals("bad") ? CaptureResult.rejected("bad", "Card blocked")
+						: CaptureResult.captured(c.idempotencyKey()))
+				.toList());
+		try (SettlementBatcher batcher = new SettlementBatcher(partial, 3, Duration.ofMinutes(1), 1)) {
+			CompletableFuture<CaptureResult> good = batcher.submit(capture("good"));
+			CompletableFuture<CaptureResult> bad = batcher.submit(capture("bad"));
+			CompletableFuture<CaptureResult> missing = batcher.submit(capture("lost"));
+
+			assertTrue(good.join().captured());
+			assertEquals(CaptureResult.rejected("bad", "Card blocked"), bad.join());
+			assertTrue(missing.join().captured(), "An unanswered payment is sent again on its own.");
+			assertEquals(1, batcher.getRetryCount());
+		}
+	}
+
+	@Test
+	void testGivesUpAfterLastRetry() {
+		SettlementGateway down = batch -> CompletableFuture.failedFuture(new IllegalStateException("Down"));
+		try (SettlementBatcher batcher = new SettlementBatcher(down, 1, Duration.ofMinutes(1), 2)) {
+			CaptureResult result = batcher.submit(capture("x")).join();
+			assertFalse(result.captured());
+			assertEquals("Settlement failed: Down", result.reason());
+			assertEquals(3, batcher.getBatchCount());
+		}
+	}
+
+	@Test
+	void testClosedBatcherRefusesPayments() {
+		SettlementBatcher batcher = new SettlementBatcher(recording(new ArrayList<>()));
+		batcher.close();
+		assertThrows(IllegalStateException.class, () -> batcher.submit(capture("after")));
+	}
+
+	@Test
+	void testCashRegisterSettlesEveryOrder() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.uniform(5, 20), 0, 0,
+				0.1, new Random(4));
+		List<Order> orders = new ArrayList<>();
+		List<CompletableFuture<PaymentResult>> results = new ArrayList<>();
+		try (SettlementBatcher batcher = new SettlementBatcher(processor, 50, Duration.ofMillis(200), 3)) {
+			CashRegister register = new CashRegister(processor, batcher);
+			for (int table = 1; table <= 200; table++) {
+				Order order = prepared(table);
+				orders.add(order);
+				results.add(register.payAsync(order, new Visa(order.getTotalPrice())));
+			}
+			CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+			assertEquals(0, register.getInFlightCount());
+		}
+
+		long paid = orders.stream().filter(o -> o.getStatus() == OrderStatus.PAID).count();
+		long failed = orders.stream().filter(o -> o.getStatus() == OrderStatus.PAYMENT_FAILED).count();
+		assertEquals(200, paid + failed, "Every order ends paid or failed.");
+		assertEquals(processor.getCaptureCount(), paid);
+		assertTrue(failed > 0, "Some captures are refused.");
+		assertTrue(processor.getBatchCount() < 20, "Captures are sent in batches, not one by one.");
+	}
+}
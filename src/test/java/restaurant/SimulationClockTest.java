@@ -0,0 +1,116 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.BatchingScheduler;
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.kitchen.model.KitchenScheduler;
+import restaurant.core.kitchen.model.QueueScheduler;
+import restaurant.core.kitchen.model.VirtualThreadScheduler;
+import restaurant.core.kitchen.model.WorkStealingScheduler;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.clock.VirtualClock;
+import restaurant.simulation.model.Manager;
+
+/**
+ * Tests for the real-time, scaled and virtual simulation clocks.
+ */
+public class SimulationClockTest {
+
+	@Test
+	void testScaledClockShortensDelays() throws Exception {
+		SimulationClock clock = SimulationClock.scaled(100);
+
+		long start = System.currentTimeMillis();
+		long simulatedStart = clock.millis();
+		clock.sleep(2000);
+
+		assertTrue(System.currentTimeMillis() - start < 500, "2 s at 100x should take about 20 ms.");
+		assertTrue(clock.millis() - simulatedStart >= 2000, "Simulated time must have passed.");
+	}
+
+	@Test
+	void testVirtualClockJumpsToNextWakeup() throws Exception {
+		// Quiet period long enough for all three threads to fall asleep before time jumps
+		try (VirtualClock clock = new VirtualClock(100, TimeUnit.MILLISECONDS);
+				ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+			long simulatedStart = clock.millis();
+			long start = System.currentTimeMillis();
+
+			List<CompletableFuture<Long>> wokeAt = List.of(1000L, 60_000L, 3_600_000L).stream()
+					.map(delay -> CompletableFuture.supplyAsync(() -> {
+						try {
+							clock.sleep(delay);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return clock.millis() - simulatedStart;
+					}, threads)).toList();
+
+			assertEquals(1000L, (long) wokeAt.get(0).get(5, TimeUnit.SECONDS));
+			assertEquals(60_000L, (long) wokeAt.get(1).get(5, TimeUnit.SECONDS));
+			assertEquals(3_600_000L, (long) wokeAt.get(2).get(5, TimeUnit.SECONDS));
+			assertTrue(System.currentTimeMillis() - start < 2000, "An hour of virtual time must not take real time.");
+		}
+	}
+
+	@Test
+	void testChefCooksInVirtualTime() throws Exception {
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Kitchen kitchen = new Kitchen(
+					new QueueScheduler(1, o -> 60_000L, new LinkedBlockingQueue<>(), 1, clock));
+			Order order = Order.create(new Customer("Judy", 10), List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5)));
+
+			assertEquals(OrderStatus.PREPARED, kitchen.acceptOrder(order).get(5, TimeUnit.SECONDS).getStatus());
+			kitchen.close();
+		}
+	}
+
+	@Test
+	void testDishSchedulersCookInVirtualTime() throws Exception {
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			List<KitchenScheduler> schedulers = List.of(new WorkStealingScheduler(2, o -> 60_000L, clock),
+					new VirtualThreadScheduler(2, o -> 60_000L, clock),
+					new BatchingScheduler(2, Duration.ofMillis(5), 4, o -> 60_000L, clock));
+			long start = System.currentTimeMillis();
+			for (KitchenScheduler scheduler : schedulers) {
+				Kitchen kitchen = new Kitchen(scheduler);
+				Order order = Order.create(new Customer("Kai", 11),
+						List.of(new Dish("Pizza", Category.MAIN_COURSE, 8.5), new Dish("Coffee", Category.DRINK, 2.5)));
+
+				assertEquals(OrderStatus.PREPARED, kitchen.acceptOrder(order).get(5, TimeUnit.SECONDS).getStatus());
+				kitchen.close();
+			}
+			assertTrue(System.currentTimeMillis() - start < 5000, "A minute of cooking must not take real time.");
+		}
+	}
+
+	@Test
+	void testRestaurantDayInVirtualTime() {
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Manager manager = new Manager("VirtualManager", 3, clock);
+			long start = System.currentTimeMillis();
+
+			manager.simulateRestaurantDay(500);
+			manager.closeRestaurant();
+
+			assertTrue(System.currentTimeMillis() - start < 20_000, "A virtual day must not wait in real time.");
+			assertTrue(manager.getRestaurant().getReport().contains("Total paid"));
+		}
+	}
+}
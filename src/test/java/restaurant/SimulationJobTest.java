@@ -0,0 +1,156 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.clock.VirtualClock;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.model.Branch;
+import restaurant.simulation.model.SimulationJob;
+
+/**
+ * Tests for restaurant days running as background jobs.
+ */
+public class SimulationJobTest {
+
+	private LogSink previous;
+	private ExecutorService executor;
+
+	@BeforeEach
+	void setUp() {
+		previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.close();
+		Toolkit.setLogSink(previous);
+	}
+
+	private static void awaitEnd(SimulationJob job) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 20_000;
+		while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	void testJobRunsInBackgroundUntilDone() throws Exception {
+		try (VirtualClock clock = SimulationClock.virtual()) {
+			Branch branch = new Branch("main", "Sebastian", 3, 10, 100, clock);
+			SimulationJob job = new SimulationJob(1, branch, 10, executor);
+			awaitEnd(job);
+			branch.close();
+
+			assertEquals(SimulationJob.State.DONE, job.getState());
+			assertTrue(job.getFinishedAt() >= job.getStartedAt());
+			SimulationJob.Progress progress = job.getProgress();
+			assertEquals(10, progress.ordersPlaced());
+			assertEquals(0, progress.seated(), "Everyone has left.");
+			assertTrue(job.toString().contains("State: done"));
+		}
+	}
+
+	@Test
+	void testCancelStopsTheDay() throws Exception {
+		CountDownLatch sleeping = new CountDownLatch(1);
+		CountDownLatch leave = new CountDownLatch(1);
+		// Customers wait forever to enter, until they are interrupted; then they
+		// take until the test lets them go
+		SimulationClock stuck = new SimulationClock() {
+			@Override
+			public long millis() {
+				return System.currentTimeMillis();
+			}
+
+			@Override
+			public void sleep(long millis) throws InterruptedException {
+				sleeping.countDown();
+				try {
+					Thread.sleep(Long.MAX_VALUE);
+				} finally {
+					leave.await(5, TimeUnit.SECONDS);
+				}
+			}
+		};
+		Branch branch = new Branch("main", "Sebastian", 1, 5, 100, stuck);
+		SimulationJob job = new SimulationJob(2, branch, 5, executor);
+		assertTrue(sleeping.await(5, TimeUnit.SECONDS));
+		assertEquals(SimulationJob.State.RUNNING, job.getState());
+
+		assertTrue(job.cancel());
+		assertFalse(job.cancel(), "A cancelled job cannot be cancelled again.");
+		assertEquals(SimulationJob.State.CANCELLING, job.getState());
+		assertFalse(job.isFinished(), "The job is not over while the day is still ending.");
+		assertTrue(branch.isBusy());
+
+		leave.countDown();
+		awaitEnd(job);
+		assertEquals(SimulationJob.State.CANCELLED, job.getState());
+		assertFalse(branch.isBusy(), "The restaurant is free once the job is over.");
+		assertEquals(0, job.getProgress().ordersPlaced());
+	}
+
+	@Test
+	void testCancelBeforeTheDayStarts() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try (ExecutorService single = Executors.newSingleThreadExecutor()) {
+			single.submit(() -> {
+				release.await();
+				return null;
+			});
+			Branch branch = new Branch("main", "Sebastian", 1, 5, 100, SimulationClock.REAL_TIME);
+			SimulationJob job = new SimulationJob(5, branch, 5, single);
+
+			assertTrue(job.cancel());
+			assertTrue(job.isFinished(), "A job that never started is over right away.");
+			assertEquals(SimulationJob.State.CANCELLED, job.getState());
+			release.countDown();
+			single.shutdown();
+			assertTrue(single.awaitTermination(5, TimeUnit.SECONDS));
+			assertNull(job.getRestaurant(), "The day never opens.");
+		}
+	}
+
+	@Test
+	void testJobFailsWhenRestaurantIsBusy() throws Exception {
+		CountDownLatch sleeping = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SimulationClock gate = new SimulationClock() {
+			@Override
+			public long millis() {
+				return System.currentTimeMillis();
+			}
+
+			@Override
+			public void sleep(long millis) throws InterruptedException {
+				sleeping.countDown();
+				release.await();
+			}
+		};
+		Branch branch = new Branch("main", "Sebastian", 1, 5, 100, gate);
+		SimulationJob first = new SimulationJob(3, branch, 1, executor);
+		assertTrue(sleeping.await(5, TimeUnit.SECONDS));
+		SimulationJob second = new SimulationJob(4, branch, 1, executor);
+		awaitEnd(second);
+		assertEquals(SimulationJob.State.FAILED, second.getState());
+		assertTrue(second.getError().contains("already running"));
+
+		release.countDown();
+		awaitEnd(first);
+		assertEquals(SimulationJob.State.DONE, first.getState());
+		branch.close();
+	}
+}
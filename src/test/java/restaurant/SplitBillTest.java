@@ -0,0 +1,257 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.model.Money;
+import restaurant.core.order.model.Order;
+import restaurant.core.order.model.OrderStatistics;
+import restaurant.core.order.model.OrderStatus;
+import restaurant.core.waiter.model.Waiter;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.LatencyDistribution;
+import restaurant.payment.gateway.PaymentGateway;
+import restaurant.payment.gateway.PaymentRequest;
+import restaurant.payment.gateway.PaymentResult;
+import restaurant.payment.gateway.SimulatedPaymentProcessor;
+import restaurant.payment.model.CashPayment;
+import restaurant.payment.model.CashRegister;
+import restaurant.payment.model.SplitBill;
+import restaurant.payment.model.Visa;
+
+/**
+ * Tests for paying one order with several payments.
+ */
+public class SplitBillTest {
+
+	private static final Dish PIZZA = new Dish("Pizza", Category.MAIN_COURSE, 8.5);
+	private static final Dish SOUP = new Dish("Soup", Category.STARTER, 4.0);
+	private static final Dish COFFEE = new Dish("Coffee", Category.DRINK, 2.5);
+
+	private LogSink previous;
+
+	@BeforeEach
+	void setUp() {
+		previous = Toolkit.getLogSink();
+		Toolkit.setLogSink(LogSink.DISCARD);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Toolkit.setLogSink(previous);
+	}
+
+	private static Order prepared(List<Dish> dishes) {
+		Order order = Order.create(new Customer("Table", 1), dishes);
+		order.setStatus(OrderStatus.IN_PREPARATION);
+		order.setStatus(OrderStatus.PREPARED);
+		return order;
+	}
+
+	@Test
+	void testEqualSharesAddUpToTheCent() {
+		Order order = prepared(List.of(PIZZA, COFFEE)); // 11.00
+		SplitBill bill = SplitBill.equally(order, 3);
+		assertEquals(List.of(Money.ofCents(367), Money.ofCents(367), Money.ofCents(366)), bill.getShares());
+		assertEquals(OrderStatus.PAYING, order.getStatus(), "Splitting the bill starts the payment.");
+		assertEquals(order.getTotal(), bill.getOutstanding());
+	}
+
+	@Test
+	void testSharesByItem() {
+		Order order = prepared(List.of(PIZZA, COFFEE, SOUP, COFFEE));
+		SplitBill bill = SplitBill.byItems(order, List.of(List.of(PIZZA, COFFEE), List.of(SOUP, COFFEE)));
+		assertEquals(List.of(Money.ofCents(1100), Money.ofCents(650)), bill.getShares());
+
+		Order other = prepared(List.of(PIZZA, COFFEE));
+		assertThrows(IllegalArgumentException.class, () -> SplitBill.byItems(other, List.of(List.of(PIZZA))),
+				"Every dish must be paid.");
+		assertThrows(IllegalArgumentException.class,
+				() -> SplitBill.byItems(other, List.of(List.of(PIZZA, COFFEE), List.of(COFFEE))),
+				"A dish cannot be paid twice.");
+		assertEquals(OrderStatus.PREPARED, other.getStatus(), "An invalid split does not start the payment.");
+	}
+
+	@Test
+	void testSharesByAmount() {
+		Order order = prepared(List.of(PIZZA, COFFEE));
+		assertThrows(IllegalArgumentException.class,
+				() -> SplitBill.byAmounts(order, List.of(Money.ofCents(500), Money.ofCents(500))));
+		SplitBill bill = SplitBill.byAmounts(order, List.of(Money.ofCents(800), Money.ofCents(300)));
+		assertEquals(2, bill.size());
+		assertThrows(IllegalStateException.class, () -> SplitBill.equally(order, 2), "The bill is split only once.");
+	}
+
+	@Test
+	void testUnpreparedOrderCannotBeSplit() {
+		Order order = Order.create(new Customer("Early", 2), List.of(PIZZA));
+		assertThrows(IllegalStateException.class, () -> SplitBill.equally(order, 2));
+		assertEquals(OrderStatus.OPEN, order.getStatus());
+	}
+
+	@Test
+	void testGuestsPayConcurrently() {
+		SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(LatencyDistribution.fixed(200), 0, 0,
+				new Random(1));
+		CashRegister register = new CashRegister(processor);
+		Waiter waiter = new Waiter(null, register);
+		Order order = prepared(List.of(PIZZA, PIZZA, SOUP, SOUP, COFFEE, COFFEE)); // 30.00
+		OrderStatistics stats = new OrderStatistics();
+		stats.add(order);
+		SplitBill bill = SplitBill.equally(order, 6);
+
+		long start = System.nanoTime();
+		List<CompletableFuture<PaymentResult>> results = new ArrayList<>();
+		for (int guest = 0; guest < bill.size(); guest++) {
+			results.add(waiter.processSharePayment(new Customer("Guest " + guest, 1), bill, guest,
+					new Visa(bill.getShare(guest))));
+		}
+		assertEquals(OrderStatus.PAYING, order.getStatus());
+		CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000),
+				"Six guests pay side by side, not one after the other.");
+		assertTrue(bill.isPaid());
+		assertEquals(Money.ZERO, bill.getOutstanding());
+		assertEquals(OrderStatus.PAID, order.getStatus());
+		assertEquals(6, processor.getChargeCount());
+		assertEquals(order.getTotal(), stats.getPaid(), "The order is counted as paid once.");
+	}
+
+	@Test
+	void testMultiTender() {
+		CashRegister register = new CashRegister();
+		Order order = prepared(List.of(PIZZA, COFFEE));
+		SplitBill bill = SplitBill.byAmounts(order, List.of(Money.ofCents(1000), Money.ofCents(100)));
+
+		assertTrue(register.payShare(bill, 0, new CashPayment(Money.ofCents(1000))).join().isApproved());
+		assertEquals(OrderStatus.PAYING, order.getStatus(), "One euro is still missing.");
+		assertEquals(Money.ofCents(100), bill.getOutstanding());
+		assertTrue(register.payShare(bill, 1, new CashPayment(Money.ofCents(100))).join().isApproved());
+		assertEquals(OrderStatus.PAID, order.getStatus());
+	}
+
+	@Test
+	void testShareNeedsTheFullAmount() {
+		AtomicInteger charges = new AtomicInteger();
+		PaymentGateway counting = request -> {
+			charges.incrementAndGet();
+			return CompletableFuture.completedFuture(new PaymentResult.Approved(request.idempotencyKey()));
+		};
+		CashRegister register = new CashRegister(counting);
+		Order order = prepared(List.of(PIZZA, COFFEE));
+		SplitBill bill = SplitBill.byAmounts(order, List.of(Money.ofCents(1000), Money.ofCents(100)));
+
+		assertFalse(register.payShare(bill, 0, new CashPayment(Money.ofCents(1))).join().isApproved(),
+				"One cent does not pay a share of ten euros.");
+		assertEquals(0, charges.get());
+		assertEquals(SplitBill.ShareStatus.OPEN, bill.getStatus(0));
+		assertEquals(0, bill.getAttempts(0));
+
+		assertTrue(register.payShare(bill, 0, new Visa(Money.ofCents(1000))).join().isApproved());
+		assertTrue(register.payShare(bill, 1, new CashPayment(Money.ofCents(200))).join().isApproved(),
+				"Tendering more than the share is fine.");
+		assertEquals(OrderStatus.PAID, order.getStatus());
+		assertEquals(2, charges.get());
+	}
+
+	@Test
+	void testShareIsChargedOnce() {
+		AtomicInteger charges = new AtomicInteger();
+		PaymentGateway counting = request -> {
+			charges.incrementAndGet();
+			return CompletableFuture.completedFuture(new PaymentResult.Approved(request.idempotencyKey()));
+		};
+		CashRegister register = new CashRegister(counting);
+		Order order = prepared(List.of(PIZZA, COFFEE));
+		SplitBill bill = SplitBill.equally(order, 2);
+
+		assertTrue(register.payShare(bill, 0, new Visa(bill.getShare(0))).join().isApproved());
+		assertFalse(register.payShare(bill, 0, new Visa(bill.getShare(0))).join().isApproved(),
+				"A paid share is not paid again.");
+		assertEquals(1, charges.get());
+		assertEquals(0, register.getRememberedCount());
+		assertEquals(1, register.getDuplicateCount());
+		assertEquals(SplitBill.ShareStatus.OPEN, bill.getStatus(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> register.payShare(bill, 2, new Visa(1)));
+	}
+
+	@Test
+	void testFailedShareCanBePaidAgain() {
+		// The first attempt of the second share is declined
+		PaymentGateway declineFirstTry = request -> CompletableFuture
+				.completedFuture(request.idempotencyKey().endsWith("share-1-1") ? new PaymentResult.Declined("Card blocked")
+						: new PaymentResult.Approved(request.idempotencyKey()));
+		CashRegister register = new CashRegister(declineFirstTry);
+		Order order = prepared(List.of(PIZZA, SOUP, COFFEE));
+		SplitBill bill = SplitBill.byItems(order, List.of(List.of(PIZZA), List.of(SOUP), List.of(COFFEE)));
+
+		register.payShare(bill, 0, new Visa(8.5)).join();
+		assertFalse(register.payShare(bill, 1, new Visa(4.0)).join().isApproved());
+		register.payShare(bill, 2, new Visa(2.5)).join();
+		assertEquals(SplitBill.ShareStatus.FAILED, bill.getStatus(1));
+		assertEquals(OrderStatus.PAYING, order.getStatus(), "A failed share does not fail the order.");
+		assertEquals(Money.ofCents(400), bill.getOutstanding());
+
+		assertTrue(register.payShare(bill, 1, new Visa(4.0)).join().isApproved(), "The guest tries another card.");
+		assertEquals(2, bill.getAttempts(1));
+		assertEquals(OrderStatus.PAID, order.getStatus());
+		assertEquals(Money.ZERO, bill.getOutstanding());
+	}
+
+	@Test
+	void testAbandonedBillRefundsPaidShares() {
+		CompletableFuture<PaymentResult> slowShare = new CompletableFuture<>();
+		List<String> refunded = new ArrayList<>();
+		PaymentGateway gateway = new PaymentGateway() {
+			@Override
+			public CompletableFuture<PaymentResult> authorize(PaymentRequest request) {
+				if (request.idempotencyKey().endsWith("share-1-1")) {
+					return CompletableFuture.completedFuture(new PaymentResult.Declined("Card blocked"));
+				}
+				return request.idempotencyKey().endsWith("share-2-1") ? slowShare
+						: CompletableFuture.completedFuture(new PaymentResult.Approved(request.idempotencyKey()));
+			}
+
+			@Override
+			public synchronized CompletableFuture<Boolean> refund(String idempotencyKey) {
+				refunded.add(idempotencyKey);
+				return CompletableFuture.completedFuture(true);
+			}
+		};
+		CashRegister register = new CashRegister(gateway);
+		Order order = prepared(List.of(PIZZA, SOUP, COFFEE));
+		SplitBill bill = SplitBill.byItems(order, List.of(List.of(PIZZA), List.of(SOUP), List.of(COFFEE)));
+
+		register.payShare(bill, 0, new Visa(8.5)).join();
+		assertFalse(register.payShare(bill, 1, new Visa(4.0)).join().isApproved());
+		CompletableFuture<PaymentResult> last = register.payShare(bill, 2, new Visa(2.5));
+
+		register.abandon(bill).join();
+		assertEquals(OrderStatus.PAYMENT_FAILED, order.getStatus());
+		assertEquals(SplitBill.ShareStatus.REFUNDED, bill.getStatus(0));
+		assertEquals(List.of("order-" + order.getId() + "-share-0-1"), refunded);
+		assertFalse(register.payShare(bill, 1, new Visa(4.0)).join().isApproved(), "An abandoned bill is closed.");
+
+		slowShare.complete(new PaymentResult.Approved("late"));
+		last.join();
+		assertEquals(SplitBill.ShareStatus.REFUNDED, bill.getStatus(2), "A share paid too late is refunded.");
+		assertEquals(2, refunded.size());
+		assertEquals(order.getTotal(), bill.getOutstanding());
+		assertThrows(IllegalStateException.class, () -> register.abandon(bill));
+	}
+}
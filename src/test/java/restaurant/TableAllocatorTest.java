@@ -0,0 +1,120 @@
+package restaurant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.table.model.TableAllocator;
+import restaurant.infrastructure.clock.SimulationClock;
+import restaurant.infrastructure.clock.VirtualClock;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Tests for the lock-free table allocator.
+ */
+public class TableAllocatorTest {
+
+	@Test
+	void testAcquireUntilFullAndRelease() {
+		TableAllocator tables = TableAllocator.uniform(3);
+		List<Integer> taken = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			taken.add(tables.acquire());
+		}
+		assertEquals(Set.of(1, 2, 3), Set.copyOf(taken));
+		assertEquals(TableAllocator.NO_TABLE, tables.acquire());
+		assertEquals(0, tables.freeTables());
+
+		tables.release(2);
+		assertFalse(tables.isTaken(2));
+		assertEquals(2, tables.acquire());
+	}
+
+	@Test
+	void testReleaseOfFreeTableFails() {
+		TableAllocator tables = TableAllocator.uniform(2);
+		assertThrows(IllegalStateException.class, () -> tables.release(1));
+		assertThrows(IllegalArgumentException.class, () -> tables.release(3));
+	}
+
+	@Test
+	void testPartyGetsSmallestFittingTable() {
+		// Tables 1-2 seat 2, table 3 seats 6, table 4 seats 4
+		TableAllocator tables = new TableAllocator(2, 2, 6, 4);
+
+		assertEquals(4, tables.acquire(3));
+		assertEquals(3, tables.acquire(3), "The only larger table is next.");
+		assertEquals(TableAllocator.NO_TABLE, tables.acquire(3));
+		assertTrue(tables.acquire(2) <= 2);
+		assertEquals(TableAllocator.NO_TABLE, tables.acquire(7));
+	}
+
+	@Test
+	void testMoreTablesThanOneWord() {
+		TableAllocator tables = TableAllocator.uniform(1_000);
+		Set<Integer> taken = new HashSet<>();
+		for (int i = 0; i < 1_000; i++) {
+			assertTrue(taken.add(tables.acquire()));
+		}
+		assertEquals(TableAllocator.NO_TABLE, tables.acquire());
+		tables.release(999);
+		assertEquals(999, tables.acquire());
+	}
+
+	@Test
+	void testConcurrentArrivalsGetDistinctTables() throws Exception {
+		int numTables = 10_000;
+		TableAllocator tables = TableAllocator.uniform(numTables);
+		Set<Integer> taken = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> guests = new ArrayList<>();
+
+		try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+			for (int t = 0; t < 8; t++) {
+				guests.add(pool.submit(() -> {
+					start.await();
+					int table;
+					while ((table = tables.acquire()) != TableAllocator.NO_TABLE) {
+						assertTrue(taken.add(table), "Table " + table + " was handed out twice.");
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> guest : guests) {
+				guest.get();
+			}
+		}
+		assertEquals(numTables, taken.size());
+		assertEquals(0, tables.freeTables());
+	}
+
+	@Test
+	void testRestaurantFreesTablesWhenCustomersLeave() {
+		TableAllocator tables = TableAllocator.uniform(500);
+		Toolkit.withLogSink(LogSink.DISCARD, () -> {
+			try (VirtualClock clock = SimulationClock.virtual()) {
+				Restaurant restaurant = new Restaurant(4, clock, 3, tables);
+				restaurant.simulateCustomerEnters(300);
+				assertEquals(200, tables.freeTables());
+
+				restaurant.simulateOrders();
+				restaurant.simulateAllCustomersExit();
+				restaurant.close();
+			}
+		});
+		assertEquals(500, tables.freeTables());
+	}
+}
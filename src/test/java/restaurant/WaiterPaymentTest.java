@@ -2,6 +2,10 @@ package restaurant;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 
 import restaurant.core.customer.model.Customer;
@@ -11,6 +15,7 @@ import restaurant.core.order.model.Order;
 import restaurant.core.order.model.OrderStatus;
 import restaurant.core.waiter.model.Waiter;
 import restaurant.infrastructure.util.Toolkit;
+import restaurant.payment.gateway.PaymentResult;
 import restaurant.payment.model.CashPayment;
 import restaurant.payment.model.CashRegister;
 
@@ -49,4 +54,23 @@ public class WaiterPaymentTest {
 
 		assertEquals(OrderStatus.PAID, order.getStatus(), "Order should be marked as PAID after successful payment.");
 	}
+
+	@Test
+	void testCustomerPaymentCompletesWhenTheGatewayAnswers() throws Exception {
+		CompletableFuture<PaymentResult> answer = new CompletableFuture<>();
+		Waiter waiter = new Waiter(null, new CashRegister(request -> answer));
+
+		Customer customer = new Customer("Slow Gateway", 5);
+		Order order = Order.create(customer, List.of(new Dish("Pasta", Category.MAIN_COURSE, 12.0)));
+		customer.setOrder(order);
+		order.setStatus(OrderStatus.PREPARED);
+
+		CompletableFuture<PaymentResult> payment = customer.pay(waiter, new CashPayment(order.getTotalPrice()));
+		assertFalse(payment.isDone(), "Payment must wait for the gateway.");
+		assertEquals(OrderStatus.PAYING, order.getStatus());
+
+		answer.complete(new PaymentResult.Approved("auth-1"));
+		assertTrue(payment.get(1, TimeUnit.SECONDS).isApproved());
+		assertEquals(OrderStatus.PAID, order.getStatus());
+	}
 }
@@ -0,0 +1,97 @@
+package restaurant.performance;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.DeadlineOrderQueue;
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.kitchen.model.QueueScheduler;
+import restaurant.core.model.Category;
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+
+/**
+ * Compares mean and tail latency of the FIFO queue and the deadline queue when
+ * drinks and four-course orders arrive mixed, at about 85% kitchen load. Only
+ * prints numbers and is not part of the automated checks.
+ */
+public class DeadlineQueueBenchmarkTest {
+
+	private static final int ORDERS = 1000;
+	private static final int CHEFS = 4;
+	private static final long MS_PER_DISH = 4;
+	private static final double UTILIZATION = 0.85;
+	/** Share of single-drink orders; the rest are four courses */
+	private static final double DRINK_SHARE = 0.7;
+
+	private static final Dish COFFEE = new Dish("Coffee", Category.DRINK, 2.5);
+	private static final List<Dish> FOUR_COURSES = List.of(new Dish("Soup", Category.STARTER, 4.0),
+			new Dish("Pizza", Category.MAIN_COURSE, 8.5), new Dish("Ice Cream", Category.DESSERT, 3.5), COFFEE);
+
+	@Test
+	@Disabled
+	void compareQueues() {
+		PrintStream console = System.out;
+		console.printf("%-9s %10s %10s %10s %10s%n", "queue", "mean ms", "p50 ms", "p99 ms", "max ms");
+		report(console, "fifo", run(LinkedBlockingQueue::new));
+		report(console, "deadline", run(() -> new DeadlineOrderQueue(estimate(), DeadlineOrderQueue.DEFAULT_AGING_FACTOR)));
+	}
+
+	private static Function<Order, Long> estimate() {
+		return o -> MS_PER_DISH * o.getDishes().size();
+	}
+
+	/** @return sorted order latencies in ms */
+	private static double[] run(Supplier<BlockingQueue<Order>> queue) {
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			Kitchen kitchen = new Kitchen(new QueueScheduler(CHEFS, estimate(), queue.get()));
+			double[] latencies = new double[ORDERS];
+			List<CompletableFuture<Order>> futures = new ArrayList<>(ORDERS);
+
+			double meanDishes = DRINK_SHARE + (1 - DRINK_SHARE) * FOUR_COURSES.size();
+			double ordersPerSecond = UTILIZATION * CHEFS * 1000.0 / (MS_PER_DISH * meanDishes);
+			long interArrivalNanos = (long) (1e9 / ordersPerSecond);
+
+			// Same sequence for both queues
+			Random random = new Random(42);
+			long start = System.nanoTime();
+			for (int i = 0; i < ORDERS; i++) {
+				LockSupport.parkNanos(start + i * interArrivalNanos - System.nanoTime());
+				List<Dish> dishes = random.nextDouble() < DRINK_SHARE ? List.of(COFFEE) : FOUR_COURSES;
+				int index = i;
+				long accepted = System.nanoTime();
+				futures.add(kitchen.acceptOrder(Order.create(new Customer("Bench", i % 20 + 1), dishes))
+						.whenComplete((o, e) -> latencies[index] = (System.nanoTime() - accepted) / 1e6));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+			kitchen.close();
+
+			Arrays.sort(latencies);
+			return latencies;
+		} finally {
+			System.setOut(console);
+		}
+	}
+
+	private static void report(PrintStream out, String name, double[] latencies) {
+		double mean = Arrays.stream(latencies).average().orElse(0);
+		out.printf("%-9s %10.1f %10.1f %10.1f %10.1f%n", name, mean, latencies[latencies.length / 2],
+				latencies[(int) (latencies.length * 0.99) - 1], latencies[latencies.length - 1]);
+	}
+}
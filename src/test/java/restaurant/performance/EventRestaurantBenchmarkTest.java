@@ -0,0 +1,42 @@
+package restaurant.performance;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+import restaurant.simulation.EventRestaurant;
+
+/**
+ * Runs a day with a million customers on the event engine and prints how long
+ * it took and how much heap it needed. Only prints numbers and is not part of
+ * the automated checks.
+ */
+public class EventRestaurantBenchmarkTest {
+
+	private static final int CUSTOMERS = 1_000_000;
+
+	@Test
+	@Disabled
+	void measureMillionCustomerDay() {
+		LogSink previousSink = Toolkit.getLogSink();
+		Toolkit.setLogSink((time, table, msg) -> {
+		});
+		try {
+			// 20 tables stay full with 10 chefs and a customer every 600 ms
+			EventRestaurant restaurant = new EventRestaurant(10, 20, 600);
+			Runtime runtime = Runtime.getRuntime();
+
+			long start = System.nanoTime();
+			restaurant.simulateDay(CUSTOMERS);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			System.gc();
+			System.out.printf("%d customers in %.2f s (%d events), heap after run: %d MB%n", CUSTOMERS, seconds,
+					restaurant.getClock().processed(), (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+			System.out.println(restaurant.getReport());
+		} finally {
+			Toolkit.setLogSink(previousSink);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package restaurant.performance;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.kitchen.model.Kitchen;
+import restaurant.core.kitchen.model.KitchenScheduler;
+import restaurant.core.kitchen.model.QueueScheduler;
+import restaurant.core.kitchen.model.WorkStealingScheduler;
+import restaurant.core.model.Dish;
+import restaurant.core.order.model.Order;
+import restaurant.simulation.Restaurant;
+
+/**
+ * Compares throughput and p99 order latency of the shared-queue scheduler and
+ * the work-stealing scheduler for 1 to 64 chefs. Orders arrive at a fixed rate
+ * that keeps the kitchen at about 70% utilization. Like the leak simulator this
+ * only prints numbers and is not part of the automated checks.
+ */
+public class KitchenSchedulerBenchmarkTest {
+
+	private static final int ORDERS = 500;
+	private static final long MS_PER_DISH = 4;
+	/** Target kitchen load; orders have 1–4 dishes, i.e. 2.5 on average */
+	private static final double UTILIZATION = 0.7;
+
+	@Test
+	@Disabled
+	void compareSchedulers() {
+		PrintStream console = System.out;
+		console.printf("%-14s %5s %12s %10s%n", "scheduler", "chefs", "orders/s", "p99 ms");
+		for (int chefs = 1; chefs <= 64; chefs *= 2) {
+			int n = chefs;
+			report(console, "queue", n, run(c -> new QueueScheduler(c, o -> MS_PER_DISH * o.getDishes().size()), n));
+			report(console, "work-stealing", n,
+					run(c -> new WorkStealingScheduler(c, o -> MS_PER_DISH * o.getDishes().size()), n));
+		}
+	}
+
+	/** @return [throughput in orders/s, p99 latency in ms] */
+	private static double[] run(IntFunction<KitchenScheduler> factory, int chefs) {
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			Kitchen kitchen = new Kitchen(factory.apply(chefs));
+			long[] latencies = new long[ORDERS];
+			List<CompletableFuture<Order>> futures = new ArrayList<>(ORDERS);
+			List<Dish> menu = Restaurant.MENU.getAllDishes();
+
+			double ordersPerSecond = UTILIZATION * chefs * 1000.0 / (MS_PER_DISH * 2.5);
+			long interArrivalNanos = (long) (1e9 / ordersPerSecond);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < ORDERS; i++) {
+				LockSupport.parkNanos(start + i * interArrivalNanos - System.nanoTime());
+				List<Dish> dishes = new ArrayList<>();
+				for (int d = ThreadLocalRandom.current().nextInt(1, 5); d > 0; d--) {
+					dishes.add(menu.get(ThreadLocalRandom.current().nextInt(menu.size())));
+				}
+				int index = i;
+				long accepted = System.nanoTime();
+				futures.add(kitchen.acceptOrder(Order.create(new Customer("Bench", i % 20 + 1), dishes))
+						.whenComplete((o, e) -> latencies[index] = System.nanoTime() - accepted));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+			long elapsed = System.nanoTime() - start;
+			kitchen.close();
+
+			Arrays.sort(latencies);
+			double throughput = ORDERS / (elapsed / 1e9);
+			double p99 = latencies[(int) (ORDERS * 0.99) - 1] / 1e6;
+			return new double[] { throughput, p99 };
+		} finally {
+			System.setOut(console);
+		}
+	}
+
+	private static void report(PrintStream out, String name, int chefs, double[] result) {
+		out.printf("%-14s %5d %12.0f %10.1f%n", name, chefs, result[0], result[1]);
+	}
+}
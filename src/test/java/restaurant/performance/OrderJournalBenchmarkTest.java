@@ -0,0 +1,41 @@
+package restaurant.performance;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.order.model.OrderStatus;
+import restaurant.infrastructure.journal.OrderJournal;
+
+/**
+ * Measures how many events one thread can append to the order journal. Only
+ * prints numbers and is not part of the automated checks.
+ */
+public class OrderJournalBenchmarkTest {
+
+	private static final int EVENTS = 20_000_000;
+	private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+	@Test
+	@Disabled
+	void measureAppendRate() throws Exception {
+		Path directory = Files.createTempDirectory("journal-bench");
+		try (OrderJournal journal = OrderJournal.open(directory)) {
+			// Warm-up
+			append(journal, EVENTS / 10);
+
+			long start = System.nanoTime();
+			append(journal, EVENTS);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%d events in %.2f s = %.1f M events/s%n", EVENTS, seconds, EVENTS / seconds / 1e6);
+		}
+	}
+
+	private static void append(OrderJournal journal, int events) {
+		for (int i = 1; i <= events; i++) {
+			journal.append(i, i % 20 + 1, STATUSES[i % STATUSES.length], i);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package restaurant.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import restaurant.core.customer.model.Customer;
+import restaurant.core.table.model.TableAllocator;
+import restaurant.infrastructure.logging.LogSink;
+import restaurant.infrastructure.util.Toolkit;
+
+/**
+ * Compares seating with the synchronized free-table list against the lock-free
+ * allocator for a growing number of threads that seat and release guests.
+ * Only prints numbers and is not part of the automated checks.
+ */
+public class TableAllocatorBenchmarkTest {
+
+	private static final int TABLES = 10_000;
+	private static final int SEATINGS_PER_THREAD = 200_000;
+
+	@Test
+	@Disabled
+	void compareListAndAllocator() throws Exception {
+		Toolkit.setLogSink(LogSink.DISCARD);
+		for (int threads : new int[] { 1, 2, 4, 8 }) {
+			List<Integer> freeTables = IntStream.rangeClosed(1, TABLES).boxed().collect(Collectors.toList());
+			double list = measure(threads, () -> {
+				Customer c = Toolkit.createCustomerForFreeTable.apply(freeTables);
+				return c == null ? -1 : c.getTableNumber();
+			}, table -> {
+				synchronized (freeTables) {
+					freeTables.add(table);
+				}
+			});
+
+			TableAllocator tables = TableAllocator.uniform(TABLES);
+			double allocator = measure(threads, tables::acquire, tables::release);
+
+			System.out.printf("%d threads: list %.1f M seatings/s, allocator %.1f M seatings/s%n", threads, list,
+					allocator);
+		}
+		Toolkit.setLogSink(Toolkit.consoleSink);
+	}
+
+	/** @return million seat-and-release pairs per second */
+	private static double measure(int threads, IntSupplier acquire, IntConsumer release) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> workers = new ArrayList<>();
+		try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+			for (int t = 0; t < threads; t++) {
+				workers.add(pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < SEATINGS_PER_THREAD; i++) {
+						int table = acquire.getAsInt();
+						if (table > 0) {
+							release.accept(table);
+						}
+					}
+					return null;
+				}));
+			}
+			long begin = System.nanoTime();
+			start.countDown();
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+			return (double) threads * SEATINGS_PER_THREAD / (System.nanoTime() - begin) * 1000;
+		}
+	}
+}